@@ -0,0 +1,61 @@
+package uwu.connectra.connectra_backend.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth-rate-limit")
+@Getter
+@Setter
+public class AuthRateLimitConfig {
+    private boolean enabled = true;
+
+    // Number of lock stripes per limiter (rounded up to a power of two)
+    @Min(value = 1, message = "Stripe count must be at least 1")
+    private int stripes = 64;
+
+    // Upper bound on tracked keys per stripe, keeps memory bounded under key floods
+    @Min(value = 1, message = "Max keys per stripe must be at least 1")
+    private int maxKeysPerStripe = 2048;
+
+    // Buckets untouched for this long are evicted
+    private Duration idleTimeout = Duration.ofMinutes(15);
+
+    // How often idle buckets are swept
+    private Duration evictionInterval = Duration.ofMinutes(1);
+
+    // Largest request body read when extracting the email
+    private int maxBodyBytes = 16 * 1024;
+
+    // Client IPs or CIDR ranges (e.g. campus NAT egress) exempt from the per-IP limits;
+    // the per-email limits still apply to them
+    private List<String> trustedIps = new ArrayList<>();
+
+    // Limits per endpoint, keyed by a short name (login, register, ...)
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+        private String path;
+        private Limit perIp;
+        private Limit perEmail;
+    }
+
+    // Allows `capacity` requests in a burst, refilled evenly over `refill-period`
+    @Getter
+    @Setter
+    public static class Limit {
+        private long capacity;
+        private Duration refillPeriod;
+    }
+}
@@ -0,0 +1,274 @@
+package uwu.connectra.connectra_backend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import uwu.connectra.connectra_backend.dtos.ErrorResponseDTO;
+import uwu.connectra.connectra_backend.utils.StripedTokenBucketLimiter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the public authentication endpoints (login, register, OTP) before they reach
+ * {@code AuthenticationController}.
+ *
+ * <p>Every configured endpoint gets a token bucket per client IP and, when configured,
+ * one per email read from the JSON body. Requests over either limit are answered with
+ * 429 and a Retry-After header, so they never reach BCrypt or the OTP table. Limits are
+ * set per endpoint under {@code auth-rate-limit.endpoints}.</p>
+ *
+ * <p>Whole cohorts sign in from behind one campus NAT address, so the per-email limit is
+ * the one that protects accounts. Clients in {@code auth-rate-limit.trusted-ips} skip the
+ * per-IP limits entirely.</p>
+ */
+@Component
+@Slf4j
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+    private final ObjectMapper objectMapper;
+    private final AuthRateLimitConfig config;
+    private final Map<String, EndpointLimiter> limitersByPath = new HashMap<>();
+    private final List<IpAddressMatcher> trustedIps;
+
+    public AuthRateLimitFilter(ObjectMapper objectMapper, AuthRateLimitConfig config, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.trustedIps = config.getTrustedIps().stream().map(IpAddressMatcher::new).toList();
+
+        config.getEndpoints().forEach((name, endpoint) -> {
+            StripedTokenBucketLimiter ipLimiter = createLimiter(endpoint.getPerIp());
+            StripedTokenBucketLimiter emailLimiter = createLimiter(endpoint.getPerEmail());
+            limitersByPath.put(endpoint.getPath(), new EndpointLimiter(
+                    ipLimiter,
+                    emailLimiter,
+                    rejectedCounter(meterRegistry, name, "ip"),
+                    rejectedCounter(meterRegistry, name, "email")));
+
+            if (ipLimiter != null) {
+                Gauge.builder("auth.rate-limit.keys", ipLimiter, StripedTokenBucketLimiter::size)
+                        .description("Keys tracked by the authentication rate limiter")
+                        .tags("endpoint", name, "key", "ip")
+                        .register(meterRegistry);
+            }
+            if (emailLimiter != null) {
+                Gauge.builder("auth.rate-limit.keys", emailLimiter, StripedTokenBucketLimiter::size)
+                        .description("Keys tracked by the authentication rate limiter")
+                        .tags("endpoint", name, "key", "email")
+                        .register(meterRegistry);
+            }
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Only POSTs to configured endpoints are throttled
+        return !config.isEnabled()
+                || !"POST".equals(request.getMethod())
+                || !limitersByPath.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        EndpointLimiter limiter = limitersByPath.get(request.getServletPath());
+
+        // Client IP first, it is free to check and stops floods of random emails
+        if (limiter.ipLimiter() != null && !isTrusted(request.getRemoteAddr())) {
+            long waitNanos = limiter.ipLimiter().tryAcquire(request.getRemoteAddr());
+            if (waitNanos > 0) {
+                limiter.ipRejected().increment();
+                reject(response, waitNanos);
+                return;
+            }
+        }
+
+        if (limiter.emailLimiter() == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // The email lives in the JSON body, so buffer it and hand a replayable copy downstream
+        byte[] body = request.getInputStream().readNBytes(config.getMaxBodyBytes() + 1);
+        if (body.length > config.getMaxBodyBytes()) {
+            writeError(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Request body is too large");
+            return;
+        }
+
+        String email = extractEmail(body);
+        if (email != null) {
+            long waitNanos = limiter.emailLimiter().tryAcquire(email);
+            if (waitNanos > 0) {
+                limiter.emailRejected().increment();
+                log.debug("Rate limit exceeded for email: {}", email);
+                reject(response, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    // Drop buckets of clients that have gone quiet so memory stays bounded
+    @Scheduled(fixedDelayString = "${auth-rate-limit.eviction-interval:1m}")
+    public void evictIdleBuckets() {
+        int evicted = 0;
+        for (EndpointLimiter limiter : limitersByPath.values()) {
+            if (limiter.ipLimiter() != null) {
+                evicted += limiter.ipLimiter().evictIdle();
+            }
+            if (limiter.emailLimiter() != null) {
+                evicted += limiter.emailLimiter().evictIdle();
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    private boolean isTrusted(String ip) {
+        return trustedIps.stream().anyMatch(matcher -> matcher.matches(ip));
+    }
+
+    private String extractEmail(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            if (email == null || !email.isTextual() || email.asText().isBlank()) {
+                return null;
+            }
+            return email.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException e) {
+            // Malformed JSON is rejected by the controller, only the IP limit applies
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        writeError(response, 429, "Too many requests. Please try again in " + retryAfterSeconds + " seconds.");
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(status, message, System.currentTimeMillis());
+        response.setStatus(status);
+        response.setContentType("application/json");
+
+        objectMapper.writeValue(response.getWriter(), errorResponse);
+    }
+
+    private StripedTokenBucketLimiter createLimiter(AuthRateLimitConfig.Limit limit) {
+        if (limit == null) {
+            return null;
+        }
+        return new StripedTokenBucketLimiter(
+                config.getStripes(),
+                limit.getCapacity(),
+                limit.getRefillPeriod(),
+                config.getIdleTimeout(),
+                config.getMaxKeysPerStripe());
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String endpoint, String key) {
+        return Counter.builder("auth.rate-limit.rejected")
+                .description("Authentication requests rejected by the rate limiter")
+                .tags("endpoint", endpoint, "key", key)
+                .register(meterRegistry);
+    }
+
+    private record EndpointLimiter(
+            StripedTokenBucketLimiter ipLimiter,
+            StripedTokenBucketLimiter emailLimiter,
+            Counter ipRejected,
+            Counter emailRejected) {
+    }
+
+    // Request wrapper that serves an already-read body
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available and read at once
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return inputStream.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? encoding : StandardCharsets.UTF_8.name()));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
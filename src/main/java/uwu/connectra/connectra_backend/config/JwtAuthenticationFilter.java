@@ -9,10 +9,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import uwu.connectra.connectra_backend.services.CustomUserDetailsService;
 import uwu.connectra.connectra_backend.services.JwtService;
+import uwu.connectra.connectra_backend.services.VerifiedTokenCache;
 
 import java.io.IOException;
 
@@ -22,6 +24,8 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final CustomUserDetailsService customUserDetailsService;
+    private final SecurityEpochStorage securityEpochStorage;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -46,14 +50,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            // Extract the token and email
+            // Verify the token once and read its claims (cached for tokens seen before)
             String jwt = authHeader.substring(7);
-            String tokenEmail = jwtService.extractEmail(jwt);
+            JwtService.TokenClaims claims = verifiedTokenCache.parseToken(jwt);
 
             // Validate the token and set authentication if valid
-            if (tokenEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                var userDetails = customUserDetailsService.loadUserByUsername(tokenEmail);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (claims.email() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails;
+                if (claims.carriesPrincipal()) {
+                    // Build the principal straight from the claims unless the user's tokens were revoked
+                    if (!securityEpochStorage.isCurrent(claims.userId(), claims.securityEpoch())) {
+                        log.debug("JWT token revoked for user: {}", claims.email());
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
+                    userDetails = claims.toUserDetails();
+                } else {
+                    // Tokens issued before the principal claims existed still need a lookup
+                    userDetails = customUserDetailsService.loadUserByUsername(claims.email());
+                }
+
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     // Make spring security object that represents the logged-in user
                     var authToken = new UsernamePasswordAuthenticationToken(userDetails, null,
                             userDetails.getAuthorities());
@@ -0,0 +1,79 @@
+package uwu.connectra.connectra_backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uwu.connectra.connectra_backend.events.ClusterEventsResumedEvent;
+import uwu.connectra.connectra_backend.events.SecurityEpochBumpedEvent;
+import uwu.connectra.connectra_backend.repositories.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Per-user security epochs, stored in {@code users.security_epoch} and cached in memory.
+ *
+ * <p>Every access token carries the epoch its user had when it was issued. Bumping the
+ * epoch (on deactivation, deletion or credential changes) makes all previously issued
+ * access tokens for that user stale, without the JWT filter having to load the user.</p>
+ *
+ * <p>The column is the source of truth, so every node issues and checks tokens against the
+ * same epoch and a restart revokes nothing back. Each node caches the epochs of the users it
+ * sees; a deleted user has no epoch any token can match. A cached epoch is dropped when a
+ * {@link SecurityEpochBumpedEvent} commits, on this node or, relayed by
+ * {@link uwu.connectra.connectra_backend.services.ClusterEventRelay}, on any other. Every
+ * epoch is dropped whenever the relay starts listening again, and entries expire after
+ * {@code security-epochs.time-to-live} as a safety net. Cache metrics are published under
+ * the name {@code security-epochs}.</p>
+ */
+@Component
+@Slf4j
+public class SecurityEpochStorage {
+    // Epoch of a user that no longer exists: no token is current
+    private static final long DELETED = Long.MAX_VALUE;
+
+    // Key: userId -> Value: current security epoch
+    private final LoadingCache<Long, Long> epochs;
+
+    public SecurityEpochStorage(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${security-epochs.maximum-size}") long maximumSize,
+            @Value("${security-epochs.time-to-live}") Duration timeToLive) {
+        this.epochs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build(userId -> userRepository.findSecurityEpochById(userId).orElse(DELETED));
+        CaffeineCacheMetrics.monitor(meterRegistry, epochs, "security-epochs");
+    }
+
+    public long currentEpoch(long userId) {
+        return epochs.get(userId);
+    }
+
+    // A token is current if it was issued at or after the user's latest epoch
+    public boolean isCurrent(long userId, long tokenEpoch) {
+        return tokenEpoch >= currentEpoch(userId);
+    }
+
+    // Drop the user's epoch once the bump is committed, so a reload can't cache the old one again
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSecurityEpochBumped(SecurityEpochBumpedEvent event) {
+        epochs.invalidate(event.userId());
+        log.debug("Evicted security epoch of user {}", event.userId());
+    }
+
+    // Bumps committed on other nodes may have been missed, so drop every epoch
+    @EventListener
+    public void onClusterEventsResumed(ClusterEventsResumedEvent event) {
+        epochs.invalidateAll();
+        log.debug("Evicted all security epochs");
+    }
+}
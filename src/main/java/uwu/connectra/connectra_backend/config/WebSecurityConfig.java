@@ -1,5 +1,6 @@
 package uwu.connectra.connectra_backend.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,6 +20,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import uwu.connectra.connectra_backend.dtos.CursorPage;
+import uwu.connectra.connectra_backend.utils.SyncCursor;
 
 import java.util.List;
 
@@ -28,6 +31,7 @@ import java.util.List;
 @EnableMethodSecurity
 public class WebSecurityConfig {
         private final JwtAuthenticationFilter jwtAuthenticationFilter;
+        private final AuthRateLimitFilter authRateLimitFilter;
         private final UserDetailsService userDetailsService;
         private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
         private final CustomAccessDeniedHandler customAccessDeniedHandler;
@@ -47,6 +51,9 @@ public class WebSecurityConfig {
                                                                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                                 .authorizeHttpRequests(
                                                 request -> request
+                                                                // Async dispatches (event streams) were authorized with their request
+                                                                .dispatcherTypeMatchers(DispatcherType.ASYNC)
+                                                                .permitAll()
                                                                 .requestMatchers(
                                                                                 "/api/auth/**",
                                                                                 "/swagger-ui/**",
@@ -57,6 +64,8 @@ public class WebSecurityConfig {
                                                                 .hasAnyRole("STUDENT", "ADMIN")
                                                                 .requestMatchers("/api/lecturers/**")
                                                                 .hasAnyRole("LECTURER", "ADMIN")
+                                                                .requestMatchers("/actuator/**")
+                                                                .hasRole("ADMIN")
                                                                 .anyRequest()
                                                                 .authenticated())
                                 .exceptionHandling(
@@ -65,7 +74,8 @@ public class WebSecurityConfig {
                                                                                 customAuthenticationEntryPoint)
                                                                 .accessDeniedHandler(customAccessDeniedHandler))
                                 .authenticationProvider(authenticationProvider())
-                                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                                .addFilterBefore(authRateLimitFilter, JwtAuthenticationFilter.class);
                 return httpSecurity.build();
         }
 
@@ -95,6 +105,8 @@ public class WebSecurityConfig {
                                 "OPTIONS"));
                 configuration.addAllowedHeader("*");
                 configuration.addExposedHeader("Authorization");
+                configuration.addExposedHeader(CursorPage.NEXT_CURSOR_HEADER);
+                configuration.addExposedHeader(SyncCursor.HEADER);
                 configuration.setAllowCredentials(true);
                 UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
                 source.registerCorsConfiguration("/**", configuration);
@@ -3,14 +3,20 @@ package uwu.connectra.connectra_backend.controllers;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 import uwu.connectra.connectra_backend.dtos.AgoraTokenResponseDTO;
 import uwu.connectra.connectra_backend.dtos.ApiResponse;
-import uwu.connectra.connectra_backend.dtos.AttendanceReportResponseDTO;
+import uwu.connectra.connectra_backend.dtos.CursorPage;
 import uwu.connectra.connectra_backend.dtos.ParticipantDTO;
 import uwu.connectra.connectra_backend.dtos.meeting.CreateMeetingRequestDTO;
 import uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO;
@@ -18,10 +24,17 @@ import uwu.connectra.connectra_backend.dtos.meeting.UpdateMeetingRequestDTO;
 import uwu.connectra.connectra_backend.dtos.quiz.CreateQuizRequestDTO;
 import uwu.connectra.connectra_backend.dtos.quiz.QuizResponseDTO;
 import uwu.connectra.connectra_backend.dtos.quiz.QuizResultsSummaryDTO;
+import uwu.connectra.connectra_backend.entities.AttendanceReportSnapshot;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+import uwu.connectra.connectra_backend.services.AttendanceReportSnapshotService;
 import uwu.connectra.connectra_backend.services.MeetingService;
+import uwu.connectra.connectra_backend.services.MeetingSyncService;
 import uwu.connectra.connectra_backend.services.QuizService;
+import uwu.connectra.connectra_backend.utils.SyncCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RequiredArgsConstructor
 @RestController
@@ -29,6 +42,8 @@ import java.util.List;
 @Tag(name = "Meeting Controller", description = "Endpoints for managing meetings")
 public class MeetingController {
         private final MeetingService meetingService;
+        private final AttendanceReportSnapshotService attendanceReportSnapshotService;
+        private final MeetingSyncService meetingSyncService;
         private final QuizService quizService;
 
         // Create Meeting
@@ -44,15 +59,45 @@ public class MeetingController {
                                 meetingService.createMeeting(request)));
         }
 
-        // Get all Meetings (created by the authenticated lecturer)
+        // Get Meetings created by the authenticated lecturer (keyset-paginated, newest first),
+        // or, with since, only the meetings that changed after that sync cursor
         @PreAuthorize("hasAnyRole('LECTURER', 'ADMIN')")
         @GetMapping("/lecturer")
-        @Operation(summary = "Get all meetings created by the authenticated lecturer")
-        public ResponseEntity<ApiResponse<List<MeetingResponseDTO>>> getAllMeetings() {
-                return ResponseEntity.status(HttpStatus.OK).body((new ApiResponse<>(
+        @Operation(summary = "Get meetings created by the authenticated lecturer", description = "Newest first, optionally filtered by status and by a scheduled start window "
+                        +
+                        "(from inclusive, to exclusive). When more meetings follow, the X-Next-Cursor header holds the cursor of the next page. "
+                        +
+                        "The first page carries an X-Sync-Cursor header that can be sent back as since to get only the meetings changed after it.")
+        public ResponseEntity<ApiResponse<List<MeetingResponseDTO>>> getAllMeetings(
+                        @RequestParam(required = false) MeetingStatus status,
+                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "20") int size,
+                        @RequestParam(required = false) String since) {
+                if (since != null) {
+                        CursorPage<MeetingResponseDTO> changes = meetingSyncService.getLecturerMeetingChanges(since);
+                        return ResponseEntity.status(HttpStatus.OK)
+                                        .header(SyncCursor.HEADER, changes.nextCursor())
+                                        .body(new ApiResponse<>(
+                                                        true,
+                                                        "Meeting changes retrieved successfully.",
+                                                        changes.items()));
+                }
+
+                ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+                if (cursor == null) {
+                        // Taken before the list is read, so no change can fall between the two
+                        response.header(SyncCursor.HEADER, meetingSyncService.currentCursor().encode());
+                }
+                CursorPage<MeetingResponseDTO> meetings = meetingService.getAllMeetings(status, from, to, cursor, size);
+                if (meetings.nextCursor() != null) {
+                        response.header(CursorPage.NEXT_CURSOR_HEADER, meetings.nextCursor());
+                }
+                return response.body((new ApiResponse<>(
                                 true,
                                 "Meetings retrieved successfully.",
-                                meetingService.getAllMeetings())));
+                                meetings.items())));
         }
 
         // Get Meeting by its ID
@@ -100,6 +145,34 @@ public class MeetingController {
                                 meetingService.joinMeeting(meetingId))));
         }
 
+        // Wait for a scheduled meeting to start, then join it (long poll)
+        @PreAuthorize("hasRole('STUDENT')")
+        @GetMapping("/{meetingId}/wait")
+        @Operation(summary = "Wait for a scheduled meeting to start and join it", description = "Held open until the lecturer starts the meeting, "
+                        +
+                        "then answers with the Agora join payload. Answers 204 No Content when the meeting has not started within the maximum wait; call again to keep waiting.")
+        public DeferredResult<ResponseEntity<ApiResponse<AgoraTokenResponseDTO>>> waitForMeeting(
+                        @PathVariable String meetingId) {
+                CompletableFuture<AgoraTokenResponseDTO> admission = meetingService.waitForMeeting(meetingId);
+                DeferredResult<ResponseEntity<ApiResponse<AgoraTokenResponseDTO>>> result = new DeferredResult<>();
+                // A student whose request timed out or broke off gives up their place, so they are not joined
+                result.onTimeout(() -> admission.cancel(false));
+                result.onError(error -> admission.cancel(false));
+                admission.whenComplete((joinResponse, error) -> {
+                        if (error != null) {
+                                result.setErrorResult(error);
+                        } else {
+                                result.setResult(joinResponse == null
+                                                ? ResponseEntity.noContent().build()
+                                                : ResponseEntity.status(HttpStatus.OK).body(new ApiResponse<>(
+                                                                true,
+                                                                "Joined meeting successfully.",
+                                                                joinResponse)));
+                        }
+                });
+                return result;
+        }
+
         // Leave Meeting by its ID
         @PreAuthorize("hasAnyRole('LECTURER', 'STUDENT')")
         @PutMapping("/{meetingId}/leave")
@@ -138,13 +211,26 @@ public class MeetingController {
         @PreAuthorize("hasAnyRole('LECTURER')")
         @GetMapping("/{meetingId}/attendance")
         @Operation(summary = "Get attendance report for a meeting by its ID")
-        public ResponseEntity<ApiResponse<AttendanceReportResponseDTO>> getAttendanceReport(
-                        @PathVariable String meetingId) {
-                AttendanceReportResponseDTO report = meetingService.generateAttendanceReport(meetingId);
-                return ResponseEntity.status(HttpStatus.OK).body(new ApiResponse<>(
-                                true,
-                                "Attendance report data generated successfully.",
-                                report));
+        // Served from the stored snapshot: 304 when the client's ETag matches, the gzipped bytes
+        // as they are when the client accepts gzip
+        public ResponseEntity<byte[]> getAttendanceReport(
+                        @PathVariable String meetingId,
+                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                        WebRequest webRequest) {
+                AttendanceReportSnapshot snapshot = meetingService.getAttendanceReportSnapshot(meetingId);
+                if (webRequest.checkNotModified(snapshot.getEtag())) {
+                        return null;
+                }
+
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .eTag(snapshot.getEtag())
+                                .cacheControl(CacheControl.noCache().cachePrivate())
+                                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+                if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzippedBody());
+                }
+                return response.body(attendanceReportSnapshotService.uncompressedBody(snapshot));
         }
 
         // ===== QUIZ ENDPOINTS =====
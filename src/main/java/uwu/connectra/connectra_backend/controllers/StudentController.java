@@ -3,12 +3,16 @@ package uwu.connectra.connectra_backend.controllers;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import uwu.connectra.connectra_backend.dtos.ApiResponse;
+import uwu.connectra.connectra_backend.dtos.CursorPage;
 import uwu.connectra.connectra_backend.dtos.StudentAttendanceHistoryResponseDTO;
 import uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO;
 import uwu.connectra.connectra_backend.dtos.quiz.ActiveQuizResponseDTO;
@@ -17,8 +21,11 @@ import uwu.connectra.connectra_backend.entities.AttendanceStatus;
 import uwu.connectra.connectra_backend.entities.CustomUserDetails;
 import uwu.connectra.connectra_backend.services.AttendanceService;
 import uwu.connectra.connectra_backend.services.MeetingService;
+import uwu.connectra.connectra_backend.services.MeetingSyncService;
 import uwu.connectra.connectra_backend.services.QuizService;
+import uwu.connectra.connectra_backend.utils.SyncCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -29,34 +36,81 @@ public class StudentController {
         private final MeetingService meetingService;
         private final AttendanceService attendanceService;
         private final QuizService quizService;
+        private final MeetingSyncService meetingSyncService;
 
         // GET ALL SCHEDULED/LIVE MEETINGS FOR CURRENT STUDENT'S DEGREE AND BATCH
+        // (or, with since, only the meetings that changed after that sync cursor)
         @PreAuthorize("hasRole('STUDENT')")
         @GetMapping("/meetings")
-        @Operation(summary = "Get all scheduled/live meetings for the current student's degree and batch")
-        public ResponseEntity<ApiResponse<List<MeetingResponseDTO>>> getMyMeetings() {
-                List<MeetingResponseDTO> meetings = meetingService.getStudentMeetings();
+        @Operation(summary = "Get all scheduled/live meetings for the current student's degree and batch", description = "Soonest first. "
+                        +
+                        "Optionally only meetings scheduled to overlap the window from (inclusive) to (exclusive), and at most limit of them. "
+                        +
+                        "The X-Sync-Cursor header can be sent back as since to get only the meetings changed after it, in any status. "
+                        +
+                        "A meeting moved to another degree or batch is included with its new target, so it can be removed from the list.")
+        public ResponseEntity<ApiResponse<List<MeetingResponseDTO>>> getMyMeetings(
+                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                        @RequestParam(required = false) Integer limit,
+                        @RequestParam(required = false) String since) {
+                if (since != null) {
+                        CursorPage<MeetingResponseDTO> changes = meetingSyncService.getStudentMeetingChanges(since);
+                        return ResponseEntity.ok()
+                                        .header(SyncCursor.HEADER, changes.nextCursor())
+                                        .body(new ApiResponse<>(
+                                                        true,
+                                                        "Meeting changes retrieved successfully.",
+                                                        changes.items()));
+                }
 
-                return ResponseEntity.ok(new ApiResponse<>(
-                                true,
-                                "Meetings retrieved successfully.",
-                                meetings));
+                // Taken before the list is read, so no change can fall between the two
+                SyncCursor syncCursor = meetingSyncService.currentCursor();
+                List<MeetingResponseDTO> meetings = meetingService.getStudentMeetings(from, to, limit);
+
+                return ResponseEntity.ok()
+                                .header(SyncCursor.HEADER, syncCursor.encode())
+                                .body(new ApiResponse<>(
+                                                true,
+                                                "Meetings retrieved successfully.",
+                                                meetings));
         }
 
-        // GET ATTENDANCE HISTORY FOR CURRENT STUDENT
+        // STREAM MEETING STATUS CHANGES (SCHEDULED/LIVE/ENDED/CANCELLED) FOR THE CURRENT STUDENT'S COHORT
+        @PreAuthorize("hasRole('STUDENT')")
+        @GetMapping(path = "/meetings/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        @Operation(summary = "Stream meeting status changes for the current student's degree and batch", description = "Server-sent events named meeting-status, one per meeting that is scheduled, "
+                        +
+                        "goes live, ends or is cancelled. After a reconnect, catch up with the since parameter of /meetings.")
+        public ResponseEntity<SseEmitter> streamMeetingEvents() {
+                return ResponseEntity.ok()
+                                // Keep reverse proxies from buffering the stream
+                                .header("X-Accel-Buffering", "no")
+                                .body(meetingService.subscribeToMeetingEvents());
+        }
+
+        // GET ATTENDANCE HISTORY FOR CURRENT STUDENT (keyset-paginated, newest first)
         @PreAuthorize("hasRole('STUDENT')")
         @GetMapping("/attendance/history")
-        @Operation(summary = "Get attendance history for the current student", description = "Returns all completed meetings for the student's degree/batch with detailed attendance information. "
+        @Operation(summary = "Get attendance history for the current student", description = "Returns the completed meetings for the student's degree/batch with detailed attendance information, newest first. "
+                        +
+                        "Includes both attended and missed meetings. Supports filtering by attendance status. "
                         +
-                        "Includes both attended and missed meetings. Supports filtering by attendance status.")
+                        "When more meetings follow, the X-Next-Cursor header holds the cursor of the next page.")
         public ResponseEntity<ApiResponse<List<StudentAttendanceHistoryResponseDTO>>> getMyAttendanceHistory(
-                        @RequestParam(required = false) AttendanceStatus status) {
-                List<StudentAttendanceHistoryResponseDTO> attendanceHistory = attendanceService
-                                .getStudentAttendanceHistory(status);
-                return ResponseEntity.ok(new ApiResponse<>(
+                        @RequestParam(required = false) AttendanceStatus status,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "20") int size) {
+                CursorPage<StudentAttendanceHistoryResponseDTO> attendanceHistory = attendanceService
+                                .getStudentAttendanceHistory(status, cursor, size);
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                if (attendanceHistory.nextCursor() != null) {
+                        response.header(CursorPage.NEXT_CURSOR_HEADER, attendanceHistory.nextCursor());
+                }
+                return response.body(new ApiResponse<>(
                                 true,
                                 "Attendance history retrieved successfully.",
-                                attendanceHistory));
+                                attendanceHistory.items()));
         }
 
         // ===== QUIZ ENDPOINTS =====
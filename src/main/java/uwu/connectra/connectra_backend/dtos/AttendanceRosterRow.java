@@ -0,0 +1,16 @@
+package uwu.connectra.connectra_backend.dtos;
+
+import uwu.connectra.connectra_backend.entities.AttendanceStatus;
+
+/**
+ * One student of a meeting's attendance report, read by
+ * {@code AttendanceRepository.findReportRoster}. Status and duration are null for a student
+ * without an attendance record.
+ */
+public record AttendanceRosterRow(
+        String studentEnrollmentId,
+        String firstName,
+        String lastName,
+        AttendanceStatus attendanceStatus,
+        Long totalDurationInMinutes) {
+}
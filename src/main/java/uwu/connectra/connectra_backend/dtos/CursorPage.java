@@ -0,0 +1,11 @@
+package uwu.connectra.connectra_backend.dtos;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. {@code nextCursor} is null on the last page; otherwise
+ * controllers return it in the {@value #NEXT_CURSOR_HEADER} response header.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+}
@@ -4,7 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import uwu.connectra.connectra_backend.entities.AttendanceStatus;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -23,4 +25,24 @@ public class StudentAttendanceHistoryResponseDTO {
     private Double attendancePercentage;
     private String attendanceStatus;
     private Long meetingDuration;
+
+    // Projection constructor used by AttendanceRepository.findAttendanceHistory
+    public StudentAttendanceHistoryResponseDTO(
+            UUID meetingId,
+            String meetingTitle,
+            LocalDateTime meetingDate,
+            String lecturerName,
+            LocalDateTime joinedAt,
+            LocalDateTime leftAt,
+            Long totalTimeInMinutes,
+            Double attendancePercentage,
+            AttendanceStatus attendanceStatus,
+            LocalDateTime actualStartTime,
+            LocalDateTime actualEndTime) {
+        this(meetingId, meetingTitle, meetingDate, lecturerName, joinedAt, leftAt, totalTimeInMinutes,
+                attendancePercentage, attendanceStatus.name(),
+                actualStartTime != null && actualEndTime != null
+                        ? Duration.between(actualStartTime, actualEndTime).toMinutes()
+                        : 0L);
+    }
 }
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -28,4 +29,24 @@ public class MeetingResponseDTO {
 
     private Long createdById;
     private String createdByName;
+
+    // Projection constructor used by MeetingRepository.findLecturerMeetings
+    public MeetingResponseDTO(
+            UUID meetingId,
+            String title,
+            String description,
+            LocalDateTime scheduledStartTime,
+            LocalDateTime scheduledEndTime,
+            LocalDateTime actualStartTime,
+            LocalDateTime actualEndTime,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt,
+            String targetDegree,
+            Integer targetBatch,
+            MeetingStatus status,
+            Long createdById,
+            String createdByName) {
+        this(meetingId, title, description, scheduledStartTime, scheduledEndTime, actualStartTime, actualEndTime,
+                createdAt, updatedAt, targetDegree, targetBatch, status.name(), createdById, createdByName);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package uwu.connectra.connectra_backend.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Attendance report of an ended meeting, stored once as the gzipped JSON response body.
+ * Reports of ended meetings never change, so the endpoint serves these bytes as they are.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "attendance_report_snapshots")
+public class AttendanceReportSnapshot {
+    @Id
+    @Column(name = "meeting_id")
+    private UUID meetingId;
+
+    // Quoted strong ETag of the uncompressed body
+    @Column(name = "etag", nullable = false, length = 66)
+    private String etag;
+
+    @Column(name = "gzipped_body", nullable = false)
+    private byte[] gzippedBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public AttendanceReportSnapshot(UUID meetingId, String etag, byte[] gzippedBody, LocalDateTime createdAt) {
+        this.meetingId = meetingId;
+        this.etag = etag;
+        this.gzippedBody = gzippedBody;
+        this.createdAt = createdAt;
+    }
+}
@@ -1,31 +1,77 @@
 package uwu.connectra.connectra_backend.entities;
 
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
-@RequiredArgsConstructor
+/**
+ * Spring Security principal for Connectra users.
+ *
+ * <p>Built either from a loaded {@link User} entity (login, refresh) or straight from
+ * the claims of a verified access token, in which case no entity is attached and
+ * {@link #getUser()} returns {@code null}.</p>
+ */
 public class CustomUserDetails implements UserDetails {
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final Role role;
+    private final AccountStatus accountStatus;
+    private final String degree;
+    private final Integer batch;
     private final User user;
 
+    public CustomUserDetails(User user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.password = user.getHashedPassword();
+        this.role = user.getRole();
+        this.accountStatus = user.getAccountStatus();
+        if (user instanceof Student student) {
+            this.degree = student.getDegree();
+            this.batch = student.getBatch();
+        } else {
+            this.degree = null;
+            this.batch = null;
+        }
+        this.user = user;
+    }
+
+    private CustomUserDetails(Long id, String email, Role role, String degree, Integer batch) {
+        this.id = id;
+        this.email = email;
+        this.password = null;
+        this.role = role;
+        this.accountStatus = AccountStatus.ACTIVE;
+        this.degree = degree;
+        this.batch = batch;
+        this.user = null;
+    }
+
+    /**
+     * Create a principal from the claims of a verified access token.
+     * Only active users are issued access tokens, so the account is treated as active.
+     */
+    public static CustomUserDetails fromTokenClaims(Long id, String email, Role role, String degree, Integer batch) {
+        return new CustomUserDetails(id, email, role, degree, batch);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singleton(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+        return Collections.singleton(new SimpleGrantedAuthority("ROLE_" + role.name()));
     }
 
     @Override
     public String getPassword() {
-        return user.getHashedPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     @Override
@@ -45,18 +91,39 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return user.getAccountStatus() == AccountStatus.ACTIVE;
+        return accountStatus == AccountStatus.ACTIVE;
     }
 
     /**
      * Get the user's ID.
      */
     public Long getId() {
-        return user.getId();
+        return id;
+    }
+
+    /**
+     * Get the user's role.
+     */
+    public Role getRole() {
+        return role;
+    }
+
+    /**
+     * Get the student's degree (null for lecturers and admins).
+     */
+    public String getDegree() {
+        return degree;
+    }
+
+    /**
+     * Get the student's batch (null for lecturers and admins).
+     */
+    public Integer getBatch() {
+        return batch;
     }
 
     /**
-     * Get the underlying User entity.
+     * Get the underlying User entity, or null if the principal was built from token claims.
      */
     public User getUser() {
         return user;
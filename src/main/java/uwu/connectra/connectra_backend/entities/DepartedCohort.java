@@ -0,0 +1,25 @@
+package uwu.connectra.connectra_backend.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * A cohort a meeting was moved away from. Its delta sync keeps reporting the meeting, with
+ * the cohort it targets now, so that cohort's clients drop it.
+ */
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class DepartedCohort {
+    @Column(name = "degree", nullable = false)
+    private String degree;
+
+    @Column(name = "batch", nullable = false)
+    private Integer batch;
+}
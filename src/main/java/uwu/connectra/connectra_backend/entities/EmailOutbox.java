@@ -0,0 +1,74 @@
+package uwu.connectra.connectra_backend.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox of emails to send.
+ * Rows are written in the same transaction as the change that triggers the email and
+ * delivered later by the EmailOutboxDispatcher, so nothing is lost if Brevo is down.
+ * Sent and dead rows are emptied of their params and later deleted by the EmailOutboxPurger.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "email_outbox", indexes = @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+@EntityListeners(AuditingEntityListener.class)
+public class EmailOutbox {
+    public static final String REDACTED_PARAMS = "{}";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EmailType type;
+
+    @Column(name = "recipient_email", nullable = false)
+    private String recipientEmail;
+
+    @Column(name = "recipient_name")
+    private String recipientName;
+
+    // Template parameters as a JSON object, replaced by REDACTED_PARAMS once the row is
+    // SENT or DEAD since they can hold an OTP
+    @Column(nullable = false, columnDefinition = "text")
+    private String params;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // When the row may be picked up next (also the end of the lease while SENDING)
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public EmailOutbox(EmailType type, String recipientEmail, String recipientName, String params) {
+        this.type = type;
+        this.recipientEmail = recipientEmail;
+        this.recipientName = recipientName;
+        this.params = params;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package uwu.connectra.connectra_backend.entities;
+
+public enum EmailOutboxStatus {
+    PENDING,    // waiting to be sent (or retried)
+    SENDING,    // claimed by the dispatcher until next_attempt_at
+    SENT,
+    DEAD        // gave up after the maximum number of attempts
+}
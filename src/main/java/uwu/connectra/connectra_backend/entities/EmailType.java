@@ -0,0 +1,5 @@
+package uwu.connectra.connectra_backend.entities;
+
+public enum EmailType {
+    OTP_VERIFICATION     // params: firstName, otp
+}
@@ -18,7 +18,10 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "email_verification_tokens")
+@Table(name = "email_verification_tokens", indexes = {
+        @Index(name = "idx_email_verification_tokens_email", columnList = "email"),
+        @Index(name = "idx_email_verification_tokens_expires_at", columnList = "expires_at")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class EmailVerificationToken {
 
@@ -35,6 +38,7 @@ public class EmailVerificationToken {
     @Column(nullable = false)
     private LocalDateTime expiresAt;
 
+    // No longer set, a verified token is deleted instead. Kept because the existing column is NOT NULL
     @Column(nullable = false)
     private boolean verified = false;
 
@@ -4,20 +4,36 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        // Lecturer dashboard listing, see MeetingRepository.findLecturerMeetings
+        @Index(name = "idx_meeting_lecturer_created_at", columnList = "lecturer_id, created_at"),
+        // Student meeting feed, see MeetingRepository.findUpcomingCohortMeetings
+        @Index(name = "idx_meeting_cohort_status_start",
+                columnList = "target_degree, target_batch, status, scheduled_start_time"),
+        // Sync cursors start from the newest change, see MeetingRepository.findLatestChangeSeq
+        @Index(name = "idx_meeting_change_seq", columnList = "change_seq")
+})
 @NoArgsConstructor
 @Getter
 @Setter
 @EntityListeners(AuditingEntityListener.class)
 public class Meeting {
+    // Sequence PostgreSQL creates for the bigserial change_seq column
+    public static final String CHANGE_SEQUENCE = "meeting_change_seq_seq";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID meetingId;
@@ -54,10 +70,26 @@ public class Meeting {
     @Column(name = "target_batch")
     private Integer targetBatch;
 
+    // Every cohort the meeting was moved away from, whose delta sync still reports it
+    @ElementCollection
+    @CollectionTable(name = "meeting_cohort_moves", joinColumns = @JoinColumn(name = "meeting_id"))
+    private Set<DepartedCohort> departedCohorts = new HashSet<>();
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private MeetingStatus status;
 
+    // Bumped by every update, including the conditional lifecycle transitions in MeetingRepository
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    // Drawn from meeting_change_seq_seq by every insert and update, including the conditional
+    // transitions in MeetingRepository, so the meeting lists can be synced by delta
+    @Generated(event = { EventType.INSERT, EventType.UPDATE }, sql = "nextval('" + CHANGE_SEQUENCE + "')")
+    @Column(name = "change_seq", nullable = false, columnDefinition = "bigserial")
+    private long changeSeq;
+
     @Column(name = "agora_channel_name", nullable = false, unique = true)
     private String agoraChannelName;
 
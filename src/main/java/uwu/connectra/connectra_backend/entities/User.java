@@ -48,6 +48,10 @@ public abstract class User implements Serializable {
     @Column(name = "email_verified", nullable = false)
     private boolean emailVerified = false;
 
+    // Bumped to revoke every access token issued so far, see SecurityEpochStorage
+    @Column(name = "security_epoch", nullable = false, columnDefinition = "bigint default 0")
+    private long securityEpoch;
+
     @CreatedDate
     @Column(updatable = false)
     private LocalDateTime createdAt;
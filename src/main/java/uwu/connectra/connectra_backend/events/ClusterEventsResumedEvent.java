@@ -0,0 +1,9 @@
+package uwu.connectra.connectra_backend.events;
+
+/**
+ * Published each time this node starts listening for the events of other nodes, the first
+ * time included. Events committed on other nodes while it was not listening are lost, so
+ * node-local state derived from them should be dropped.
+ */
+public record ClusterEventsResumedEvent() {
+}
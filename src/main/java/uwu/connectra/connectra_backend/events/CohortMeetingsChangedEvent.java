@@ -0,0 +1,9 @@
+package uwu.connectra.connectra_backend.events;
+
+/**
+ * Published when the SCHEDULED/LIVE meetings of a cohort change: a meeting was created,
+ * edited, cancelled, started or ended. A meeting moved to another cohort publishes one event
+ * for each of the two cohorts.
+ */
+public record CohortMeetingsChangedEvent(String targetDegree, Integer targetBatch) {
+}
@@ -0,0 +1,11 @@
+package uwu.connectra.connectra_backend.events;
+
+import java.util.UUID;
+
+/**
+ * Published when a meeting goes from LIVE to ENDED, by a lecturer or the auto-end scheduler.
+ * Listeners that touch the database should run after commit, once the final attendance is
+ * visible.
+ */
+public record MeetingEndedEvent(UUID meetingId) {
+}
@@ -0,0 +1,20 @@
+package uwu.connectra.connectra_backend.events;
+
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+
+import java.util.UUID;
+
+/**
+ * Published when a meeting is scheduled (created or edited), goes LIVE, ends or is cancelled.
+ * Pushed to the students of the target cohort once the transaction commits, and serialized
+ * as the data of their {@code meeting-status} server-sent events. An edit that moves the
+ * meeting to another cohort sets the previous cohort, whose students are sent the event too
+ * so they can drop the meeting.
+ */
+public record MeetingStatusChangedEvent(UUID meetingId, String targetDegree, Integer targetBatch, MeetingStatus status,
+        String previousTargetDegree, Integer previousTargetBatch) {
+    // A meeting that stays in its cohort
+    public MeetingStatusChangedEvent(UUID meetingId, String targetDegree, Integer targetBatch, MeetingStatus status) {
+        this(meetingId, targetDegree, targetBatch, status, null, null);
+    }
+}
@@ -0,0 +1,8 @@
+package uwu.connectra.connectra_backend.events;
+
+/**
+ * Published when a user's security epoch was bumped (deactivation, deletion or a change of
+ * credentials), so every node drops the epoch it holds for the user once the change commits.
+ */
+public record SecurityEpochBumpedEvent(long userId) {
+}
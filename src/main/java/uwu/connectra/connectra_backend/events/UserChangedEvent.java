@@ -0,0 +1,8 @@
+package uwu.connectra.connectra_backend.events;
+
+/**
+ * Published when the user with this email was created, updated, activated, deactivated or
+ * deleted, so every node drops the user it caches under the email once the change commits.
+ */
+public record UserChangedEvent(String email) {
+}
@@ -0,0 +1,15 @@
+package uwu.connectra.connectra_backend.exceptions;
+
+import lombok.Getter;
+
+// Thrown by an EmailClient when a batch could not be delivered
+@Getter
+public class EmailDeliveryException extends RuntimeException {
+    // False when sending again cannot help (e.g. a rejected address)
+    private final boolean retryable;
+
+    public EmailDeliveryException(String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+}
@@ -0,0 +1,7 @@
+package uwu.connectra.connectra_backend.exceptions;
+
+public class MeetingStateConflictException extends RuntimeException {
+    public MeetingStateConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package uwu.connectra.connectra_backend.exceptions;
+
+import lombok.Getter;
+
+// Thrown when a bounded resource is saturated; mapped to 503 with a Retry-After header
+@Getter
+public class ServiceBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,38 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uwu.connectra.connectra_backend.entities.AttendanceReportSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AttendanceReportSnapshotRepository extends JpaRepository<AttendanceReportSnapshot, UUID> {
+    // Store a snapshot unless one exists already (e.g. built concurrently by a request)
+    @Modifying
+    @Query(value = """
+            INSERT INTO attendance_report_snapshots (meeting_id, etag, gzipped_body, created_at)
+            VALUES (:meetingId, :etag, :gzippedBody, :createdAt)
+            ON CONFLICT (meeting_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(
+            @Param("meetingId") UUID meetingId,
+            @Param("etag") String etag,
+            @Param("gzippedBody") byte[] gzippedBody,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    // Ended meetings that have no snapshot yet, oldest first
+    @Query(value = """
+            SELECT m.meeting_id FROM meeting m
+            LEFT JOIN attendance_report_snapshots s ON s.meeting_id = m.meeting_id
+            WHERE m.status = 'ENDED' AND s.meeting_id IS NULL
+            ORDER BY m.actual_end_time
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> findEndedMeetingIdsWithoutSnapshot(@Param("limit") int limit);
+}
@@ -1,30 +1,120 @@
 package uwu.connectra.connectra_backend.repositories;
 
-import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import uwu.connectra.connectra_backend.dtos.AttendanceRosterRow;
+import uwu.connectra.connectra_backend.dtos.StudentAttendanceHistoryResponseDTO;
 import uwu.connectra.connectra_backend.entities.Attendance;
 import uwu.connectra.connectra_backend.entities.AttendanceStatus;
 import uwu.connectra.connectra_backend.entities.Meeting;
 import uwu.connectra.connectra_backend.entities.Student;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     // Find by Student and Meeting
     Optional<Attendance> findByStudentAndMeeting(Student student, Meeting meeting);
 
-    // Find by Student and Meeting with pessimistic lock to prevent race conditions
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT a FROM Attendance a WHERE a.student = :student AND a.meeting = :meeting")
-    Optional<Attendance> findByStudentAndMeetingWithLock(
-            @Param("student") Student student,
-            @Param("meeting") Meeting meeting);
+    /**
+     * Create an ABSENT row for every student of the meeting's cohort in one statement, so
+     * joins only have to update their row. Students that already have a row are skipped.
+     * Returns the number of rows created.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO attendance (student_id, meeting_id, total_duration_in_minutes, attendance_percentage,
+                                    attendance_status, created_at, updated_at)
+            SELECT u.id, :meetingId, 0, 0.0, 'ABSENT', :now, :now
+            FROM users u
+            WHERE u.user_type = 'STUDENT' AND u.degree = :degree AND u.batch = :batch
+            ON CONFLICT (student_id, meeting_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertAbsentForCohort(
+            @Param("meetingId") UUID meetingId,
+            @Param("degree") String degree,
+            @Param("batch") int batch,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Record a join in one atomic statement on the (student_id, meeting_id) unique constraint.
+     * The first join inserts the row, or fills in the ABSENT row created when the meeting
+     * went live. A rejoin first adds the still-open session (if the student never left) to
+     * the total, then starts a new session at {@code now}.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO attendance (student_id, meeting_id, joined_at, last_joined_at, agora_uid,
+                                    total_duration_in_minutes, created_at, updated_at)
+            VALUES (:studentId, :meetingId, :now, :now, :agoraUid, 0, :now, :now)
+            ON CONFLICT (student_id, meeting_id) DO UPDATE SET
+                total_duration_in_minutes = attendance.total_duration_in_minutes +
+                    CASE WHEN attendance.last_joined_at IS NOT NULL
+                              AND (attendance.left_at IS NULL OR attendance.left_at < attendance.last_joined_at)
+                         THEN CAST(GREATEST(0, FLOOR(EXTRACT(EPOCH FROM (EXCLUDED.last_joined_at - attendance.last_joined_at)) / 60)) AS BIGINT)
+                         ELSE 0 END,
+                joined_at = COALESCE(attendance.joined_at, EXCLUDED.joined_at),
+                last_joined_at = EXCLUDED.last_joined_at,
+                agora_uid = EXCLUDED.agora_uid,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int upsertOnJoin(
+            @Param("studentId") long studentId,
+            @Param("meetingId") UUID meetingId,
+            @Param("agoraUid") Integer agoraUid,
+            @Param("now") LocalDateTime now);
+
+    // ==================== Set-based finalization (PostgreSQL) ====================
+    // Same rules as AttendanceService.autoLeaveStudentIfStillInMeeting and
+    // updateAttendancePercentageAndStatus, applied to all rows of a meeting at once.
+
+    // Close every session still open at endTime and add its whole minutes to the total
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE attendance SET
+                total_duration_in_minutes = total_duration_in_minutes +
+                    CAST(GREATEST(0, FLOOR(EXTRACT(EPOCH FROM (:endTime - last_joined_at)) / 60)) AS BIGINT),
+                left_at = :endTime,
+                updated_at = :now
+            WHERE meeting_id = :meetingId
+              AND last_joined_at IS NOT NULL
+              AND (left_at IS NULL OR left_at < last_joined_at)
+            """, nativeQuery = true)
+    int closeOpenSessions(
+            @Param("meetingId") UUID meetingId,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("now") LocalDateTime now);
+
+    // Derive percentage (capped at 100, 2 decimals) and status from the totals
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE attendance a SET
+                attendance_percentage = scored.percentage,
+                attendance_status = CASE
+                    WHEN scored.percentage >= 80 THEN 'PRESENT'
+                    WHEN scored.percentage > 0 THEN 'PARTIALLY_PRESENT'
+                    ELSE 'ABSENT' END,
+                updated_at = :now
+            FROM (
+                SELECT id, ROUND(LEAST(100.0, COALESCE(
+                           total_duration_in_minutes * 100.0 / NULLIF(GREATEST(:meetingMinutes, 0), 0), 0)), 2)
+                           AS percentage
+                FROM attendance
+                WHERE meeting_id = :meetingId
+            ) scored
+            WHERE a.id = scored.id
+            """, nativeQuery = true)
+    int scoreAttendance(
+            @Param("meetingId") UUID meetingId,
+            @Param("meetingMinutes") long meetingMinutes,
+            @Param("now") LocalDateTime now);
 
     // Get all Attendance records for a Meeting
     List<Attendance> findAllByMeeting(Meeting meeting);
@@ -33,6 +123,60 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     @Query("SELECT a FROM Attendance a JOIN FETCH a.student WHERE a.meeting = :meeting")
     List<Attendance> findAllByMeetingWithStudent(@Param("meeting") Meeting meeting);
 
-    // Get students by attendance status for a specific meeting
-    List<Attendance> findAllByMeetingAndAttendanceStatus(Meeting meeting, AttendanceStatus attendanceStatus);
+    // Ids of the students with an attendance record for a Meeting, without loading the records
+    @Query("SELECT a.student.id FROM Attendance a WHERE a.meeting = :meeting")
+    List<Long> findStudentIdsByMeeting(@Param("meeting") Meeting meeting);
+
+    /**
+     * Everyone in a meeting's attendance report in one query: the target cohort LEFT JOINed
+     * with their attendance, plus students outside the cohort that have a record anyway.
+     */
+    @Query("""
+            SELECT new uwu.connectra.connectra_backend.dtos.AttendanceRosterRow(
+                s.studentId, s.firstName, s.lastName, a.attendanceStatus, a.totalDurationInMinutes)
+            FROM Student s
+            LEFT JOIN Attendance a ON a.student = s AND a.meeting = :meeting
+            WHERE (s.degree = :degree AND s.batch = :batch) OR a.id IS NOT NULL
+            ORDER BY s.studentId
+            """)
+    List<AttendanceRosterRow> findReportRoster(
+            @Param("meeting") Meeting meeting,
+            @Param("degree") String degree,
+            @Param("batch") Integer batch);
+
+    /**
+     * One page of a student's attendance history: the ENDED meetings of their cohort, newest
+     * first, LEFT JOINed with the student's attendance. A meeting without a record counts as
+     * ABSENT. Pages continue after (afterDate, afterId) when given; pass a limit one larger
+     * than the page to find out whether another page follows.
+     */
+    @Query("""
+            SELECT new uwu.connectra.connectra_backend.dtos.StudentAttendanceHistoryResponseDTO(
+                m.meetingId, m.title, m.scheduledStartTime,
+                concat(coalesce(l.firstName, ''), ' ', coalesce(l.lastName, '')),
+                a.joinedAt, a.leftAt,
+                coalesce(a.totalDurationInMinutes, 0L),
+                coalesce(a.attendancePercentage, 0.0),
+                coalesce(a.attendanceStatus, uwu.connectra.connectra_backend.entities.AttendanceStatus.ABSENT),
+                m.actualStartTime, m.actualEndTime)
+            FROM Meeting m
+            JOIN m.createdBy l
+            LEFT JOIN Attendance a ON a.meeting = m AND a.student.id = :studentId
+            WHERE m.targetDegree = :degree AND m.targetBatch = :batch
+              AND m.status = uwu.connectra.connectra_backend.entities.MeetingStatus.ENDED
+              AND (:status IS NULL
+                   OR coalesce(a.attendanceStatus, uwu.connectra.connectra_backend.entities.AttendanceStatus.ABSENT) = :status)
+              AND (cast(:afterDate as LocalDateTime) IS NULL
+                   OR m.scheduledStartTime < :afterDate
+                   OR (m.scheduledStartTime = :afterDate AND m.meetingId < :afterId))
+            ORDER BY m.scheduledStartTime DESC, m.meetingId DESC
+            """)
+    List<StudentAttendanceHistoryResponseDTO> findAttendanceHistory(
+            @Param("studentId") long studentId,
+            @Param("degree") String degree,
+            @Param("batch") Integer batch,
+            @Param("status") AttendanceStatus status,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") UUID afterId,
+            Limit limit);
 }
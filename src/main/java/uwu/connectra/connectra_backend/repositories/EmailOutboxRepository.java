@@ -0,0 +1,59 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uwu.connectra.connectra_backend.entities.EmailOutbox;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the email outbox.
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Lock emails that are due, skipping rows already locked by another dispatcher.
+     * Rows still SENDING past their lease (dispatcher crashed mid-send) are picked up again.
+     */
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Mark delivered emails as sent in a single statement, dropping their params. Only rows
+     * still leased until {@code leasedUntil} are updated: once a lease ends another run may
+     * have taken the row over. Returns the number of rows updated.
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = uwu.connectra.connectra_backend.entities.EmailOutboxStatus.SENT, " +
+            "e.sentAt = :sentAt, e.attempts = e.attempts + 1, e.lastError = null, " +
+            "e.params = '" + EmailOutbox.REDACTED_PARAMS + "' WHERE e.id IN :ids " +
+            "AND e.status = uwu.connectra.connectra_backend.entities.EmailOutboxStatus.SENDING " +
+            "AND e.nextAttemptAt = :leasedUntil")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt,
+            @Param("leasedUntil") LocalDateTime leasedUntil);
+
+    /**
+     * Delete up to {@code limit} sent or dead emails last touched before the given time.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM email_outbox
+            WHERE id IN (
+                SELECT id FROM email_outbox
+                WHERE status IN ('SENT', 'DEAD') AND next_attempt_at < :before
+                LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteFinishedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -1,9 +1,15 @@
 package uwu.connectra.connectra_backend.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uwu.connectra.connectra_backend.entities.EmailVerificationToken;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,12 +19,39 @@ import java.util.Optional;
 public interface EmailVerificationTokenRepository extends JpaRepository<EmailVerificationToken, Long> {
 
     /**
-     * Find the most recent OTP for an email address.
+     * Find the newest unexpired token for an email address.
      */
-    Optional<EmailVerificationToken> findTopByEmailOrderByCreatedAtDesc(String email);
+    Optional<EmailVerificationToken> findFirstByEmailAndExpiresAtAfterOrderByIdDesc(String email, LocalDateTime now);
 
     /**
-     * Delete all tokens for an email (cleanup after successful verification).
+     * Find all tokens that have not expired yet, oldest first.
      */
-    void deleteByEmail(String email);
+    List<EmailVerificationToken> findByExpiresAtAfterOrderByCreatedAtAsc(LocalDateTime now);
+
+    /**
+     * Delete all tokens for the given emails in a single statement.
+     */
+    @Modifying
+    @Query("DELETE FROM EmailVerificationToken t WHERE t.email IN :emails")
+    int deleteByEmailIn(@Param("emails") Collection<String> emails);
+
+    /**
+     * Delete the token with the given id. Returns 0 if another request already deleted it.
+     */
+    @Modifying
+    @Query("DELETE FROM EmailVerificationToken t WHERE t.id = :id")
+    int claim(@Param("id") Long id);
+
+    /**
+     * Delete up to {@code limit} expired tokens.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM email_verification_tokens
+            WHERE id IN (
+                SELECT id FROM email_verification_tokens
+                WHERE expires_at < :now
+                LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
@@ -1,22 +1,182 @@
 package uwu.connectra.connectra_backend.repositories;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO;
 import uwu.connectra.connectra_backend.entities.Meeting;
 import uwu.connectra.connectra_backend.entities.MeetingStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface MeetingRepository extends JpaRepository<Meeting, UUID> {
-    // Get meetings by its creator's email ordered by creation date descending
-    List<Meeting> findAllByCreatedByEmailOrderByCreatedAtDesc(String email);
+    /**
+     * One page of the meetings a lecturer created, newest first, projected straight into
+     * {@link MeetingResponseDTO}. Status and the scheduled-start window ({@code from}
+     * inclusive, {@code to} exclusive) are optional. Pages continue after
+     * (afterCreatedAt, afterId) when given; pass a limit one larger than the page to find
+     * out whether another page follows.
+     */
+    @Query("""
+            SELECT new uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO(
+                m.meetingId, m.title, m.description,
+                m.scheduledStartTime, m.scheduledEndTime, m.actualStartTime, m.actualEndTime,
+                m.createdAt, m.updatedAt, m.targetDegree, m.targetBatch, m.status,
+                l.id, concat(coalesce(l.firstName, ''), ' ', coalesce(l.lastName, '')))
+            FROM Meeting m
+            JOIN m.createdBy l
+            WHERE l.id = :lecturerId
+              AND (:status IS NULL OR m.status = :status)
+              AND (cast(:from as LocalDateTime) IS NULL OR m.scheduledStartTime >= :from)
+              AND (cast(:to as LocalDateTime) IS NULL OR m.scheduledStartTime < :to)
+              AND (cast(:afterCreatedAt as LocalDateTime) IS NULL
+                   OR m.createdAt < :afterCreatedAt
+                   OR (m.createdAt = :afterCreatedAt AND m.meetingId < :afterId))
+            ORDER BY m.createdAt DESC, m.meetingId DESC
+            """)
+    List<MeetingResponseDTO> findLecturerMeetings(
+            @Param("lecturerId") long lecturerId,
+            @Param("status") MeetingStatus status,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") UUID afterId,
+            Limit limit);
 
-    // Get meetings by target degree and target batch
-    List<Meeting> findAllByTargetDegreeAndTargetBatch(String targetDegree, Integer targetBatch);
+    /**
+     * SCHEDULED and LIVE meetings of a cohort, soonest first, projected straight into
+     * {@link MeetingResponseDTO}. Loaded whole into the cohort meeting cache, which windowed
+     * requests are filtered from.
+     */
+    @Query("""
+            SELECT new uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO(
+                m.meetingId, m.title, m.description,
+                m.scheduledStartTime, m.scheduledEndTime, m.actualStartTime, m.actualEndTime,
+                m.createdAt, m.updatedAt, m.targetDegree, m.targetBatch, m.status,
+                l.id, concat(coalesce(l.firstName, ''), ' ', coalesce(l.lastName, '')))
+            FROM Meeting m
+            JOIN m.createdBy l
+            WHERE m.targetDegree = :degree AND m.targetBatch = :batch
+              AND m.status IN (uwu.connectra.connectra_backend.entities.MeetingStatus.SCHEDULED,
+                               uwu.connectra.connectra_backend.entities.MeetingStatus.LIVE)
+            ORDER BY m.scheduledStartTime, m.meetingId
+            """)
+    List<MeetingResponseDTO> findUpcomingCohortMeetings(
+            @Param("degree") String degree,
+            @Param("batch") Integer batch);
 
-    // Get meetings by target degree, target batch, and status
-    List<Meeting> findAllByTargetDegreeAndTargetBatchAndStatus(String targetDegree, Integer targetBatch,
-            MeetingStatus status);
+    // ==================== Delta sync ====================
+    // A change is any meeting whose change_seq is past the client's cursor, or that was updated
+    // since changedFrom: a transaction still open when the cursor was issued may commit a
+    // change_seq below it later. Changes come in any status, so clients see meetings end.
+
+    // Current status straight from the database, bypassing the persistence context
+    @Query("SELECT m.status FROM Meeting m WHERE m.meetingId = :meetingId")
+    MeetingStatus findStatusByMeetingId(@Param("meetingId") UUID meetingId);
+
+    // Newest change_seq, where a new sync cursor starts
+    @Query("SELECT coalesce(max(m.changeSeq), 0) FROM Meeting m")
+    long findLatestChangeSeq();
+
+    // Changed meetings of a cohort, in change order. Includes every meeting ever moved away
+    // from it, which carries the cohort it targets now so clients drop it
+    @Query("""
+            SELECT new uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO(
+                m.meetingId, m.title, m.description,
+                m.scheduledStartTime, m.scheduledEndTime, m.actualStartTime, m.actualEndTime,
+                m.createdAt, m.updatedAt, m.targetDegree, m.targetBatch, m.status,
+                l.id, concat(coalesce(l.firstName, ''), ' ', coalesce(l.lastName, '')))
+            FROM Meeting m
+            JOIN m.createdBy l
+            WHERE ((m.targetDegree = :degree AND m.targetBatch = :batch)
+                   OR EXISTS (SELECT 1 FROM m.departedCohorts d WHERE d.degree = :degree AND d.batch = :batch))
+              AND (m.changeSeq > :sinceSeq OR m.updatedAt >= :changedFrom)
+            ORDER BY m.changeSeq
+            """)
+    List<MeetingResponseDTO> findCohortMeetingChanges(
+            @Param("degree") String degree,
+            @Param("batch") Integer batch,
+            @Param("sinceSeq") long sinceSeq,
+            @Param("changedFrom") LocalDateTime changedFrom);
+
+    // Changed meetings of a lecturer, in change order
+    @Query("""
+            SELECT new uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO(
+                m.meetingId, m.title, m.description,
+                m.scheduledStartTime, m.scheduledEndTime, m.actualStartTime, m.actualEndTime,
+                m.createdAt, m.updatedAt, m.targetDegree, m.targetBatch, m.status,
+                l.id, concat(coalesce(l.firstName, ''), ' ', coalesce(l.lastName, '')))
+            FROM Meeting m
+            JOIN m.createdBy l
+            WHERE l.id = :lecturerId
+              AND (m.changeSeq > :sinceSeq OR m.updatedAt >= :changedFrom)
+            ORDER BY m.changeSeq
+            """)
+    List<MeetingResponseDTO> findLecturerMeetingChanges(
+            @Param("lecturerId") long lecturerId,
+            @Param("sinceSeq") long sinceSeq,
+            @Param("changedFrom") LocalDateTime changedFrom);
+
+    // Ids of LIVE meetings whose scheduled end is before the cutoff, oldest first
+    @Query(value = """
+            SELECT meeting_id FROM meeting
+            WHERE status = 'LIVE' AND scheduled_end_time < :cutoff
+            ORDER BY scheduled_end_time
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> findOverrunMeetingIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    // Take a PostgreSQL advisory lock held until the current transaction ends, without waiting
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryTransactionLock(@Param("key") long key);
+
+    // ==================== Lifecycle transitions ====================
+    // Each transition is one conditional UPDATE that only applies while the meeting is still
+    // in the expected status, and returns 1 for the caller that won and 0 for everyone else.
+    // Like any update, it draws a new change_seq (see Meeting.changeSeq).
+    // The persistence context is cleared afterwards, so reload the meeting to see the result.
+
+    // SCHEDULED -> LIVE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Meeting m
+            SET m.status = uwu.connectra.connectra_backend.entities.MeetingStatus.LIVE,
+                m.actualStartTime = :now, m.updatedAt = :now, m.version = m.version + 1,
+                m.changeSeq = function('nextval', 'meeting_change_seq_seq')
+            WHERE m.meetingId = :meetingId
+              AND m.status = uwu.connectra.connectra_backend.entities.MeetingStatus.SCHEDULED
+            """)
+    int markLive(@Param("meetingId") UUID meetingId, @Param("now") LocalDateTime now);
+
+    // LIVE -> ENDED, with the meeting considered over at endTime
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Meeting m
+            SET m.status = uwu.connectra.connectra_backend.entities.MeetingStatus.ENDED,
+                m.actualEndTime = :endTime, m.updatedAt = :now, m.version = m.version + 1,
+                m.changeSeq = function('nextval', 'meeting_change_seq_seq')
+            WHERE m.meetingId = :meetingId
+              AND m.status = uwu.connectra.connectra_backend.entities.MeetingStatus.LIVE
+            """)
+    int markEnded(@Param("meetingId") UUID meetingId, @Param("endTime") LocalDateTime endTime,
+            @Param("now") LocalDateTime now);
+
+    // SCHEDULED or LIVE -> CANCELLED
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Meeting m
+            SET m.status = uwu.connectra.connectra_backend.entities.MeetingStatus.CANCELLED,
+                m.updatedAt = :now, m.version = m.version + 1,
+                m.changeSeq = function('nextval', 'meeting_change_seq_seq')
+            WHERE m.meetingId = :meetingId
+              AND m.status IN (uwu.connectra.connectra_backend.entities.MeetingStatus.SCHEDULED,
+                               uwu.connectra.connectra_backend.entities.MeetingStatus.LIVE)
+            """)
+    int markCancelled(@Param("meetingId") UUID meetingId, @Param("now") LocalDateTime now);
 }
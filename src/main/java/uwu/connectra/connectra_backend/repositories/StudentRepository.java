@@ -4,13 +4,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import uwu.connectra.connectra_backend.entities.Student;
 
-import java.util.List;
-
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
-    // Find all students by their degree and batch
-    List<Student> findAllByDegreeAndBatch(String degree, int batch);
-
     // Count students by degree and batch (Used for Quiz Response Rate)
     long countByDegreeAndBatch(String degree, int batch);
 }
\ No newline at end of file
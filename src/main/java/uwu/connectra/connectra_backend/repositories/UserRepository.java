@@ -1,6 +1,8 @@
 package uwu.connectra.connectra_backend.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uwu.connectra.connectra_backend.entities.Role;
 import uwu.connectra.connectra_backend.entities.User;
@@ -16,4 +18,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // Find all users by role
     List<User> findAllByRole(Role role);
+
+    // Security epoch of a user, without loading the entity
+    @Query("SELECT u.securityEpoch FROM User u WHERE u.id = :id")
+    Optional<Long> findSecurityEpochById(@Param("id") long id);
 }
\ No newline at end of file
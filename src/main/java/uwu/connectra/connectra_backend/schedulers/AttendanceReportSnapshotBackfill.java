@@ -0,0 +1,65 @@
+package uwu.connectra.connectra_backend.schedulers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uwu.connectra.connectra_backend.repositories.AttendanceReportSnapshotRepository;
+import uwu.connectra.connectra_backend.services.AttendanceReportSnapshotService;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds the attendance report snapshots of ended meetings that don't have one yet: meetings
+ * that ended before snapshots existed, or whose snapshot failed to build after they ended.
+ *
+ * <p>Works {@code attendance-report-snapshots.backfill-batch-size} meetings at a time, each
+ * in its own transaction. Storing a snapshot is idempotent, so overlapping runs on several
+ * instances only cost duplicate work.</p>
+ */
+@Component
+@Slf4j
+public class AttendanceReportSnapshotBackfill {
+    private final AttendanceReportSnapshotRepository snapshotRepository;
+    private final AttendanceReportSnapshotService snapshotService;
+    private final int batchSize;
+
+    public AttendanceReportSnapshotBackfill(
+            AttendanceReportSnapshotRepository snapshotRepository,
+            AttendanceReportSnapshotService snapshotService,
+            @Value("${attendance-report-snapshots.backfill-batch-size}") int batchSize) {
+        this.snapshotRepository = snapshotRepository;
+        this.snapshotService = snapshotService;
+        this.batchSize = batchSize;
+    }
+
+    // Snapshot ended meetings without one, returns the number of snapshots built
+    @Scheduled(fixedDelayString = "${attendance-report-snapshots.backfill-interval}",
+            initialDelayString = "${attendance-report-snapshots.backfill-interval}")
+    public int backfill() {
+        int built = 0;
+        while (true) {
+            List<UUID> meetingIds = snapshotRepository.findEndedMeetingIdsWithoutSnapshot(batchSize);
+            int builtInBatch = 0;
+            for (UUID meetingId : meetingIds) {
+                try {
+                    if (snapshotService.build(meetingId)) {
+                        builtInBatch++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Failed to backfill the attendance report snapshot of meeting {}", meetingId, e);
+                }
+            }
+            built += builtInBatch;
+            // Stop on a short batch, or when nothing could be built so failures aren't retried in a loop
+            if (meetingIds.size() < batchSize || builtInBatch == 0) {
+                break;
+            }
+        }
+        if (built > 0) {
+            log.info("Backfilled {} attendance report snapshots", built);
+        }
+        return built;
+    }
+}
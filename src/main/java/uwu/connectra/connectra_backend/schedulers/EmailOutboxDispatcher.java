@@ -0,0 +1,284 @@
+package uwu.connectra.connectra_backend.schedulers;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uwu.connectra.connectra_backend.entities.EmailOutbox;
+import uwu.connectra.connectra_backend.entities.EmailOutboxStatus;
+import uwu.connectra.connectra_backend.entities.EmailType;
+import uwu.connectra.connectra_backend.exceptions.EmailDeliveryException;
+import uwu.connectra.connectra_backend.repositories.EmailOutboxRepository;
+import uwu.connectra.connectra_backend.services.EmailClient;
+import uwu.connectra.connectra_backend.services.EmailClient.EmailMessage;
+import uwu.connectra.connectra_backend.services.EmailService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers emails from the outbox in batches.
+ *
+ * <p>Each run locks due rows with {@code FOR UPDATE SKIP LOCKED} and leases them by moving
+ * {@code next_attempt_at} forward, so a crashed run is picked up again once the lease ends.
+ * A run only records the outcome of rows it still holds the lease on; a row taken over by
+ * another run after its lease ended is logged and left to that run.
+ * Rows are grouped by email type and sent as batches of {@code email-outbox.batch-size},
+ * with at most {@code email-outbox.concurrency} batches in flight.</p>
+ *
+ * <p>Failed rows are retried with exponential backoff and marked DEAD after
+ * {@code email-outbox.max-attempts}, or straight away when the provider rejects them.
+ * Sent and dead rows have their params (which can hold an OTP) redacted.
+ * A rejected batch is retried one email at a time so one bad address does not hold back
+ * the others.</p>
+ *
+ * <p>Metrics: {@code email.outbox.sent}, {@code email.outbox.failed},
+ * {@code email.outbox.dead}, {@code email.outbox.batch} (provider call time) and
+ * {@code email.outbox.delivery.latency} (time from queueing to delivery).</p>
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+    private static final TypeReference<Map<String, Object>> PARAMS_TYPE = new TypeReference<>() {
+    };
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailClient emailClient;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+
+    private final int batchSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryLatencyTimer;
+
+    public EmailOutboxDispatcher(
+            EmailOutboxRepository emailOutboxRepository,
+            EmailClient emailClient,
+            EmailService emailService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${email-outbox.batch-size}") int batchSize,
+            @Value("${email-outbox.concurrency}") int concurrency,
+            @Value("${email-outbox.max-attempts}") int maxAttempts,
+            @Value("${email-outbox.initial-backoff}") Duration initialBackoff,
+            @Value("${email-outbox.max-backoff}") Duration maxBackoff,
+            @Value("${email-outbox.lease}") Duration lease) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailClient = emailClient;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "email-dispatch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.sentCounter = Counter.builder("email.outbox.sent")
+                .description("Emails delivered to the provider")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("email.outbox.failed")
+                .description("Email delivery attempts that failed")
+                .register(meterRegistry);
+        this.deadCounter = Counter.builder("email.outbox.dead")
+                .description("Emails given up on")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("email.outbox.batch")
+                .description("Time spent sending one batch to the provider")
+                .register(meterRegistry);
+        this.deliveryLatencyTimer = Timer.builder("email.outbox.delivery.latency")
+                .description("Time from queueing an email to delivering it to the provider")
+                .register(meterRegistry);
+    }
+
+    // Send every email that is due, returns the number of emails attempted
+    @Scheduled(fixedDelayString = "${email-outbox.poll-interval}")
+    public int dispatch() {
+        // Microseconds, as stored by PostgreSQL, so the lease can be matched again
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime leasedUntil = now.plus(lease);
+        List<EmailOutbox> claimed = claimDue(now, leasedUntil);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        // Group by type so every batch shares one template
+        Map<EmailType, List<EmailOutbox>> byType = new EnumMap<>(EmailType.class);
+        for (EmailOutbox email : claimed) {
+            byType.computeIfAbsent(email.getType(), type -> new ArrayList<>()).add(email);
+        }
+
+        List<Future<?>> batches = new ArrayList<>();
+        byType.forEach((type, emails) -> {
+            for (int from = 0; from < emails.size(); from += batchSize) {
+                List<EmailOutbox> batch = emails.subList(from, Math.min(from + batchSize, emails.size()));
+                batches.add(executor.submit(() -> send(type, batch, leasedUntil)));
+            }
+        });
+
+        for (Future<?> batch : batches) {
+            try {
+                batch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // Rows stay leased and are retried when the lease ends
+                log.error("Email batch failed unexpectedly", e.getCause());
+            }
+        }
+        return claimed.size();
+    }
+
+    // Lock due rows and lease them to this run
+    private List<EmailOutbox> claimDue(LocalDateTime now, LocalDateTime leasedUntil) {
+        return transactionTemplate.execute(status -> {
+            List<EmailOutbox> due = emailOutboxRepository.lockDue(now, batchSize * concurrency);
+            for (EmailOutbox email : due) {
+                email.setStatus(EmailOutboxStatus.SENDING);
+                email.setNextAttemptAt(leasedUntil);
+            }
+            return due;
+        });
+    }
+
+    private void send(EmailType type, List<EmailOutbox> batch, LocalDateTime leasedUntil) {
+        EmailService.EmailTemplate template = emailService.templateFor(type);
+
+        List<EmailOutbox> sendable = new ArrayList<>(batch.size());
+        List<EmailMessage> messages = new ArrayList<>(batch.size());
+        for (EmailOutbox email : batch) {
+            try {
+                Map<String, Object> params = objectMapper.readValue(email.getParams(), PARAMS_TYPE);
+                messages.add(new EmailMessage(email.getRecipientEmail(), email.getRecipientName(), params));
+                sendable.add(email);
+            } catch (IOException e) {
+                markFailed(List.of(email), leasedUntil, "Unreadable params: " + e.getMessage(), false);
+            }
+        }
+        if (sendable.isEmpty()) {
+            return;
+        }
+
+        try {
+            batchTimer.record(() -> emailClient.sendBatch(template.subject(), template.html(), messages));
+            markSent(sendable, leasedUntil);
+        } catch (EmailDeliveryException e) {
+            if (!e.isRetryable() && sendable.size() > 1) {
+                // Find the rejected email(s) by sending one at a time
+                log.warn("Batch of {} emails rejected, retrying individually", sendable.size());
+                for (EmailOutbox email : sendable) {
+                    send(type, List.of(email), leasedUntil);
+                }
+                return;
+            }
+            markFailed(sendable, leasedUntil, e.getMessage(), e.isRetryable());
+        } catch (RuntimeException e) {
+            markFailed(sendable, leasedUntil, e.getMessage(), true);
+        }
+    }
+
+    private void markSent(List<EmailOutbox> emails, LocalDateTime leasedUntil) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Long> ids = emails.stream().map(EmailOutbox::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (emailOutboxRepository.markSent(ids, now, leasedUntil) < ids.size()) {
+                // Rows marked sent here carry this sentAt, the others belong to another run now
+                for (EmailOutbox email : emailOutboxRepository.findAllById(ids)) {
+                    if (!now.equals(email.getSentAt())) {
+                        logLostLease(email, "sent");
+                    }
+                }
+            }
+        });
+
+        sentCounter.increment(emails.size());
+        for (EmailOutbox email : emails) {
+            if (email.getCreatedAt() != null) {
+                deliveryLatencyTimer.record(Duration.between(email.getCreatedAt(), now));
+            }
+        }
+    }
+
+    private void markFailed(List<EmailOutbox> emails, LocalDateTime leasedUntil, String error, boolean retryable) {
+        LocalDateTime now = LocalDateTime.now();
+        String lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (EmailOutbox email : emailOutboxRepository.findAllById(emails.stream().map(EmailOutbox::getId).toList())) {
+                if (email.getStatus() != EmailOutboxStatus.SENDING || !leasedUntil.equals(email.getNextAttemptAt())) {
+                    logLostLease(email, "failed");
+                    continue;
+                }
+                email.setAttempts(email.getAttempts() + 1);
+                email.setLastError(lastError);
+                if (!retryable || email.getAttempts() >= maxAttempts) {
+                    email.setStatus(EmailOutboxStatus.DEAD);
+                    email.setParams(EmailOutbox.REDACTED_PARAMS);
+                    deadCounter.increment();
+                    log.error("Giving up on {} email to {} after {} attempts: {}",
+                            email.getType(), email.getRecipientEmail(), email.getAttempts(), lastError);
+                } else {
+                    email.setStatus(EmailOutboxStatus.PENDING);
+                    email.setNextAttemptAt(now.plus(backoff(email.getAttempts())));
+                }
+            }
+        });
+        failedCounter.increment(emails.size());
+    }
+
+    // The lease ended before the outcome was recorded and another run took the row over
+    private void logLostLease(EmailOutbox email, String outcome) {
+        log.warn("Email {} ({} to {}) was no longer leased to this run, not marking it {}; now {} until {}",
+                email.getId(), email.getType(), email.getRecipientEmail(), outcome,
+                email.getStatus(), email.getNextAttemptAt());
+    }
+
+    // Exponential backoff with jitter: between half and all of initial * 2^(attempts - 1), capped
+    Duration backoff(int attempts) {
+        long maxMillis = maxBackoff.toMillis();
+        long millis = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        if (millis <= 0 || millis > maxMillis) {
+            millis = maxMillis;
+        }
+        return Duration.ofMillis(millis / 2 + ThreadLocalRandom.current().nextLong(millis / 2 + 1));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
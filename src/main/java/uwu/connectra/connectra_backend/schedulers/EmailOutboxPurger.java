@@ -0,0 +1,83 @@
+package uwu.connectra.connectra_backend.schedulers;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uwu.connectra.connectra_backend.repositories.EmailOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Removes sent and dead rows from {@code email_outbox} once they are older than
+ * {@code email-outbox-purge.retention}, which is kept for looking into delivery problems.
+ *
+ * <p>Rows are deleted in chunks of {@code email-outbox-purge.chunk-size}, each in its own
+ * short transaction, and a run stops after {@code max-rows-per-run} rows so a large backlog
+ * is worked off over several runs without long locks.</p>
+ *
+ * <p>Metrics: {@code email.outbox.purged} (rows per run) and {@code email.outbox.purged.total}.</p>
+ */
+@Component
+@Slf4j
+public class EmailOutboxPurger {
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int chunkSize;
+    private final int maxRowsPerRun;
+
+    private final DistributionSummary purgedPerRun;
+    private final Counter purgedTotal;
+
+    public EmailOutboxPurger(
+            EmailOutboxRepository emailOutboxRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${email-outbox-purge.retention}") Duration retention,
+            @Value("${email-outbox-purge.chunk-size}") int chunkSize,
+            @Value("${email-outbox-purge.max-rows-per-run}") int maxRowsPerRun) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+        this.maxRowsPerRun = maxRowsPerRun;
+
+        this.purgedPerRun = DistributionSummary.builder("email.outbox.purged")
+                .description("Sent or dead outbox emails deleted per run")
+                .register(meterRegistry);
+        this.purgedTotal = Counter.builder("email.outbox.purged.total")
+                .description("Sent or dead outbox emails deleted")
+                .register(meterRegistry);
+    }
+
+    // Delete sent and dead emails past the retention, returns the number of rows removed
+    @Scheduled(fixedDelayString = "${email-outbox-purge.interval}",
+            initialDelayString = "${email-outbox-purge.interval}")
+    public int purge() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        int purged = 0;
+        while (purged < maxRowsPerRun) {
+            int limit = Math.min(chunkSize, maxRowsPerRun - purged);
+            Integer deleted = transactionTemplate.execute(status ->
+                    emailOutboxRepository.deleteFinishedBefore(before, limit));
+            purged += deleted != null ? deleted : 0;
+            if (deleted == null || deleted < limit) {
+                break;
+            }
+        }
+
+        purgedPerRun.record(purged);
+        purgedTotal.increment(purged);
+        if (purged > 0) {
+            log.info("Purged {} sent or dead outbox emails", purged);
+        }
+        return purged;
+    }
+}
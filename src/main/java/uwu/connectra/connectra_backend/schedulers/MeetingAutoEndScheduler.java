@@ -0,0 +1,116 @@
+package uwu.connectra.connectra_backend.schedulers;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uwu.connectra.connectra_backend.repositories.MeetingRepository;
+import uwu.connectra.connectra_backend.services.MeetingService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ends LIVE meetings that are still running {@code meeting-auto-end.grace-period} after
+ * their scheduled end, e.g. because the lecturer closed the app without stopping them.
+ *
+ * <p>Meetings are ended through the same transition and attendance finalization as
+ * {@code /stop}, {@code meeting-auto-end.batch-size} at a time. Each batch first takes a
+ * PostgreSQL advisory lock, so with several instances only one works through the backlog;
+ * the others skip the run. The conditional transition keeps a meeting from being ended
+ * twice even if runs overlap.</p>
+ *
+ * <p>Metrics: {@code meetings.auto-ended} and {@code meetings.auto-end.failed}.</p>
+ */
+@Component
+@Slf4j
+public class MeetingAutoEndScheduler {
+    // Advisory lock key shared by all instances ("AUTO_END" in ASCII)
+    static final long ADVISORY_LOCK_KEY = 0x4155544f5f454e44L;
+
+    private final MeetingRepository meetingRepository;
+    private final MeetingService meetingService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration gracePeriod;
+    private final int batchSize;
+
+    private final Counter endedCounter;
+    private final Counter failedCounter;
+
+    public MeetingAutoEndScheduler(
+            MeetingRepository meetingRepository,
+            MeetingService meetingService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${meeting-auto-end.grace-period}") Duration gracePeriod,
+            @Value("${meeting-auto-end.batch-size}") int batchSize) {
+        this.meetingRepository = meetingRepository;
+        this.meetingService = meetingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+
+        this.endedCounter = Counter.builder("meetings.auto-ended")
+                .description("LIVE meetings ended automatically after overrunning their schedule")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("meetings.auto-end.failed")
+                .description("Overrunning meetings that could not be ended automatically")
+                .register(meterRegistry);
+    }
+
+    // End overrunning meetings, returns the number of meetings ended
+    @Scheduled(fixedDelayString = "${meeting-auto-end.interval}",
+            initialDelayString = "${meeting-auto-end.interval}")
+    public int endOverrunMeetings() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(gracePeriod);
+        int ended = 0;
+        while (true) {
+            Batch batch = transactionTemplate.execute(status -> endBatch(cutoff));
+            if (batch == null || batch.skipped()) {
+                break;
+            }
+            ended += batch.ended();
+            // Stop on a short batch, or when nothing could be ended so failures aren't retried in a loop
+            if (batch.found() < batchSize || batch.ended() == 0) {
+                break;
+            }
+        }
+
+        if (ended > 0) {
+            log.info("Automatically ended {} overrunning meetings", ended);
+        }
+        return ended;
+    }
+
+    private Batch endBatch(LocalDateTime cutoff) {
+        // Held until this batch commits; another instance holding it is already on the job
+        if (!meetingRepository.tryAdvisoryTransactionLock(ADVISORY_LOCK_KEY)) {
+            return new Batch(true, 0, 0);
+        }
+
+        List<UUID> meetingIds = meetingRepository.findOverrunMeetingIds(cutoff, batchSize);
+        int ended = 0;
+        for (UUID meetingId : meetingIds) {
+            try {
+                if (meetingService.endOverrunMeeting(meetingId)) {
+                    ended++;
+                    endedCounter.increment();
+                    log.info("Meeting automatically ended after overrunning its schedule: {}", meetingId);
+                }
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                log.warn("Failed to automatically end meeting {}", meetingId, e);
+            }
+        }
+        return new Batch(false, meetingIds.size(), ended);
+    }
+
+    private record Batch(boolean skipped, int found, int ended) {
+    }
+}
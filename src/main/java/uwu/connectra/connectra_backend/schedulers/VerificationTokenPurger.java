@@ -0,0 +1,80 @@
+package uwu.connectra.connectra_backend.schedulers;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uwu.connectra.connectra_backend.repositories.EmailVerificationTokenRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Removes expired rows from {@code email_verification_tokens}. This is the only place they
+ * are deleted: the PendingRegistrationStore drops expired registrations from memory only,
+ * and verified ones are deleted when they are claimed.
+ *
+ * <p>Rows are deleted in chunks of {@code verification-token-purge.chunk-size}, each in its
+ * own short transaction, and a run stops after {@code max-rows-per-run} rows so a large
+ * backlog is worked off over several runs without long locks.</p>
+ *
+ * <p>Metrics: {@code verification.tokens.purged} (rows per run) and
+ * {@code verification.tokens.purged.total}.</p>
+ */
+@Component
+@Slf4j
+public class VerificationTokenPurger {
+    private final EmailVerificationTokenRepository tokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxRowsPerRun;
+
+    private final DistributionSummary purgedPerRun;
+    private final Counter purgedTotal;
+
+    public VerificationTokenPurger(
+            EmailVerificationTokenRepository tokenRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${verification-token-purge.chunk-size}") int chunkSize,
+            @Value("${verification-token-purge.max-rows-per-run}") int maxRowsPerRun) {
+        this.tokenRepository = tokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxRowsPerRun = maxRowsPerRun;
+
+        this.purgedPerRun = DistributionSummary.builder("verification.tokens.purged")
+                .description("Expired verification tokens deleted per run")
+                .register(meterRegistry);
+        this.purgedTotal = Counter.builder("verification.tokens.purged.total")
+                .description("Expired verification tokens deleted")
+                .register(meterRegistry);
+    }
+
+    // Delete expired tokens, returns the number of rows removed
+    @Scheduled(fixedDelayString = "${verification-token-purge.interval}",
+            initialDelayString = "${verification-token-purge.interval}")
+    public int purge() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        while (purged < maxRowsPerRun) {
+            int limit = Math.min(chunkSize, maxRowsPerRun - purged);
+            Integer deleted = transactionTemplate.execute(status -> tokenRepository.deleteExpired(now, limit));
+            purged += deleted != null ? deleted : 0;
+            if (deleted == null || deleted < limit) {
+                break;
+            }
+        }
+
+        purgedPerRun.record(purged);
+        purgedTotal.increment(purged);
+        if (purged > 0) {
+            log.info("Purged {} expired verification tokens", purged);
+        }
+        return purged;
+    }
+}
@@ -0,0 +1,158 @@
+package uwu.connectra.connectra_backend.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uwu.connectra.connectra_backend.exceptions.ServiceBusyException;
+import uwu.connectra.connectra_backend.utils.StripedLocks;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes attendance transitions (join, leave, auto-leave) per (student, meeting) inside
+ * this process, instead of holding row locks in the database.
+ *
+ * <p>Locks come from a fixed table of {@code attendance-locks.stripes} stripes. When a
+ * transaction is active the lock is held until it commits or rolls back, so the next
+ * transition always reads committed data; otherwise it is released when the returned
+ * {@link AttendanceLock} is closed. Waiting longer than {@code attendance-locks.timeout}
+ * fails with a {@link ServiceBusyException}.</p>
+ *
+ * <p>Metrics: {@code attendance.lock.wait}, {@code attendance.lock.contended} and
+ * {@code attendance.lock.timeouts}.</p>
+ */
+@Service
+@Slf4j
+public class AttendanceLockService {
+    private static final String BUSY_MESSAGE = "Attendance is being updated. Please try again.";
+
+    private final StripedLocks locks;
+    private final Duration timeout;
+
+    private final Timer waitTimer;
+    private final Counter contendedCounter;
+    private final Counter timeoutCounter;
+
+    public AttendanceLockService(
+            MeterRegistry meterRegistry,
+            @Value("${attendance-locks.stripes}") int stripes,
+            @Value("${attendance-locks.timeout}") Duration timeout) {
+        this.locks = new StripedLocks(stripes);
+        this.timeout = timeout;
+
+        this.waitTimer = Timer.builder("attendance.lock.wait")
+                .description("Time spent waiting for an attendance lock")
+                .register(meterRegistry);
+        this.contendedCounter = Counter.builder("attendance.lock.contended")
+                .description("Attendance lock acquisitions that had to wait")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("attendance.lock.timeouts")
+                .description("Attendance lock acquisitions that timed out")
+                .register(meterRegistry);
+    }
+
+    // Lock the attendance of one student in a meeting
+    public AttendanceLock lock(long studentId, UUID meetingId) {
+        return acquire(new int[] { stripeFor(studentId, meetingId) });
+    }
+
+    // Lock the attendance of several students in a meeting (e.g. when the meeting ends)
+    public AttendanceLock lockAll(Collection<Long> studentIds, UUID meetingId) {
+        int[] stripes = studentIds.stream()
+                .mapToInt(studentId -> stripeFor(studentId, meetingId))
+                .sorted()
+                .distinct()
+                .toArray();
+        return acquire(stripes);
+    }
+
+    private int stripeFor(long studentId, UUID meetingId) {
+        return locks.stripeFor(Objects.hash(studentId, meetingId));
+    }
+
+    // Take the stripes in ascending order so two multi-stripe callers can't deadlock
+    private AttendanceLock acquire(int[] stripes) {
+        int acquired = 0;
+        try {
+            for (int stripe : stripes) {
+                ReentrantLock lock = locks.get(stripe);
+                if (!lock.tryLock()) {
+                    contendedCounter.increment();
+                    long startedAt = System.nanoTime();
+                    boolean locked = lock.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                    waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    if (!locked) {
+                        timeoutCounter.increment();
+                        log.warn("Timed out after {} waiting for an attendance lock", timeout);
+                        throw new ServiceBusyException(BUSY_MESSAGE, 1);
+                    }
+                }
+                acquired++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(stripes, acquired);
+            throw new ServiceBusyException(BUSY_MESSAGE, 1);
+        } catch (RuntimeException e) {
+            release(stripes, acquired);
+            throw e;
+        }
+
+        AttendanceLock attendanceLock = new AttendanceLock(stripes);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Keep the lock until the transaction's changes are visible to the next caller
+            attendanceLock.releaseAfterTransaction = true;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    attendanceLock.release();
+                }
+            });
+        }
+        return attendanceLock;
+    }
+
+    private void release(int[] stripes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            locks.get(stripes[i]).unlock();
+        }
+    }
+
+    /**
+     * Held attendance lock. Closing it releases the stripes, unless they are released when
+     * the surrounding transaction completes.
+     */
+    public final class AttendanceLock implements AutoCloseable {
+        private final int[] stripes;
+        private boolean releaseAfterTransaction;
+        private boolean released;
+
+        private AttendanceLock(int[] stripes) {
+            this.stripes = stripes;
+        }
+
+        @Override
+        public void close() {
+            if (!releaseAfterTransaction) {
+                release();
+            }
+        }
+
+        private void release() {
+            if (!released) {
+                released = true;
+                AttendanceLockService.this.release(stripes, stripes.length);
+            }
+        }
+    }
+}
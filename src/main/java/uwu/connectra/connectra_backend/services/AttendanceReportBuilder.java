@@ -0,0 +1,87 @@
+package uwu.connectra.connectra_backend.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import uwu.connectra.connectra_backend.dtos.AttendanceReportResponseDTO;
+import uwu.connectra.connectra_backend.dtos.AttendanceRosterRow;
+import uwu.connectra.connectra_backend.dtos.StudentAttendanceDTO;
+import uwu.connectra.connectra_backend.entities.AttendanceStatus;
+import uwu.connectra.connectra_backend.entities.Lecturer;
+import uwu.connectra.connectra_backend.entities.Meeting;
+import uwu.connectra.connectra_backend.repositories.AttendanceRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the attendance report of an ended meeting from a single roster query, however large
+ * the cohort is. Students without an attendance record are reported as absent.
+ */
+@Component
+@RequiredArgsConstructor
+public class AttendanceReportBuilder {
+    private final AttendanceRepository attendanceRepository;
+
+    // Build the report for a meeting (its lecturer must already be loaded)
+    public AttendanceReportResponseDTO build(Meeting meeting) {
+        List<AttendanceRosterRow> roster = attendanceRepository.findReportRoster(
+                meeting, meeting.getTargetDegree(), meeting.getTargetBatch());
+
+        // Partition the roster by status in one pass
+        Map<AttendanceStatus, List<StudentAttendanceDTO>> byStatus = new EnumMap<>(AttendanceStatus.class);
+        for (AttendanceStatus status : AttendanceStatus.values()) {
+            byStatus.put(status, new ArrayList<>());
+        }
+        for (AttendanceRosterRow row : roster) {
+            StudentAttendanceDTO dto = toStudentAttendanceDTO(row);
+            byStatus.get(dto.getAttendanceStatus()).add(dto);
+        }
+
+        List<StudentAttendanceDTO> presentStudents = byStatus.get(AttendanceStatus.PRESENT);
+        List<StudentAttendanceDTO> partiallyAttendedStudents = byStatus.get(AttendanceStatus.PARTIALLY_PRESENT);
+        List<StudentAttendanceDTO> absentStudents = byStatus.get(AttendanceStatus.ABSENT);
+
+        Lecturer lecturer = meeting.getCreatedBy();
+        AttendanceReportResponseDTO reportDTO = new AttendanceReportResponseDTO();
+        reportDTO.setMeetingId(meeting.getMeetingId().toString());
+        reportDTO.setTopic(meeting.getTitle());
+        reportDTO.setLecturerName(lecturer.getFirstName() + " " + lecturer.getLastName());
+        reportDTO.setDegree(meeting.getTargetDegree());
+        reportDTO.setBatch(meeting.getTargetBatch() != null ? meeting.getTargetBatch() : 0);
+        reportDTO.setStartedAt(meeting.getActualStartTime());
+        reportDTO.setEndedAt(meeting.getActualEndTime());
+        reportDTO.setDurationMinutes((int) calculateMeetingDuration(meeting));
+
+        reportDTO.setTotalStudents(roster.size());
+        reportDTO.setTotalParticipated(presentStudents.size() + partiallyAttendedStudents.size());
+        reportDTO.setPresentCount(presentStudents.size());
+        reportDTO.setPartialCount(partiallyAttendedStudents.size());
+        reportDTO.setAbsentCount(absentStudents.size());
+
+        reportDTO.setPresentStudents(presentStudents);
+        reportDTO.setPartiallyAttendedStudents(partiallyAttendedStudents);
+        reportDTO.setAbsentStudents(absentStudents);
+        return reportDTO;
+    }
+
+    private StudentAttendanceDTO toStudentAttendanceDTO(AttendanceRosterRow row) {
+        AttendanceStatus status = row.attendanceStatus() != null ? row.attendanceStatus() : AttendanceStatus.ABSENT;
+        long durationMinutes = row.totalDurationInMinutes() != null ? row.totalDurationInMinutes() : 0;
+        return new StudentAttendanceDTO(
+                row.studentEnrollmentId(),
+                row.firstName() + " " + row.lastName(),
+                status,
+                durationMinutes);
+    }
+
+    // Calculate meeting duration in minutes
+    private long calculateMeetingDuration(Meeting meeting) {
+        if (meeting.getActualStartTime() == null || meeting.getActualEndTime() == null) {
+            return 0;
+        }
+        return Duration.between(meeting.getActualStartTime(), meeting.getActualEndTime()).toMinutes();
+    }
+}
@@ -0,0 +1,156 @@
+package uwu.connectra.connectra_backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uwu.connectra.connectra_backend.dtos.ApiResponse;
+import uwu.connectra.connectra_backend.entities.AttendanceReportSnapshot;
+import uwu.connectra.connectra_backend.entities.Meeting;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+import uwu.connectra.connectra_backend.events.MeetingEndedEvent;
+import uwu.connectra.connectra_backend.repositories.AttendanceReportSnapshotRepository;
+import uwu.connectra.connectra_backend.repositories.MeetingRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores the attendance report of each ended meeting once, as the gzipped JSON body of the
+ * report endpoint, so repeated requests are served from the stored bytes.
+ *
+ * <p>Snapshots are written asynchronously after the transaction that ended the meeting
+ * commits, by the backfill job for meetings that ended before snapshots existed, and on
+ * demand if a report is requested before either got to it.</p>
+ *
+ * <p>Metrics: {@code attendance.report.snapshots.built}.</p>
+ */
+@Service
+@Slf4j
+public class AttendanceReportSnapshotService {
+    private static final String REPORT_MESSAGE = "Attendance report data generated successfully.";
+
+    private final AttendanceReportSnapshotRepository snapshotRepository;
+    private final MeetingRepository meetingRepository;
+    private final AttendanceReportBuilder attendanceReportBuilder;
+    private final ObjectMapper objectMapper;
+    private final Counter builtCounter;
+
+    public AttendanceReportSnapshotService(
+            AttendanceReportSnapshotRepository snapshotRepository,
+            MeetingRepository meetingRepository,
+            AttendanceReportBuilder attendanceReportBuilder,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.snapshotRepository = snapshotRepository;
+        this.meetingRepository = meetingRepository;
+        this.attendanceReportBuilder = attendanceReportBuilder;
+        this.objectMapper = objectMapper;
+        this.builtCounter = Counter.builder("attendance.report.snapshots.built")
+                .description("Attendance report snapshots built")
+                .register(meterRegistry);
+    }
+
+    // Snapshot the report once the meeting's final attendance is committed
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMeetingEnded(MeetingEndedEvent event) {
+        try {
+            meetingRepository.findById(event.meetingId()).ifPresent(this::store);
+        } catch (RuntimeException e) {
+            // The backfill job or the next request builds it instead
+            log.warn("Failed to snapshot the attendance report of meeting {}", event.meetingId(), e);
+        }
+    }
+
+    // Stored snapshot of an ended meeting's report, built now if it doesn't exist yet
+    @Transactional
+    public AttendanceReportSnapshot getOrBuild(Meeting meeting) {
+        return snapshotRepository.findById(meeting.getMeetingId())
+                .orElseGet(() -> store(meeting));
+    }
+
+    // Build and store the snapshot of an ended meeting by id (used by the backfill job)
+    @Transactional
+    public boolean build(UUID meetingId) {
+        Optional<Meeting> meeting = meetingRepository.findById(meetingId);
+        meeting.ifPresent(this::store);
+        return meeting.isPresent();
+    }
+
+    // Uncompressed body of a snapshot, for clients that don't accept gzip
+    public byte[] uncompressedBody(AttendanceReportSnapshot snapshot) {
+        try (GZIPInputStream gunzip = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzippedBody()))) {
+            return gunzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private AttendanceReportSnapshot store(Meeting meeting) {
+        if (meeting.getStatus() != MeetingStatus.ENDED) {
+            throw new IllegalStateException("Only reports of ended meetings are snapshotted: " + meeting.getMeetingId());
+        }
+
+        byte[] body = serialize(meeting);
+        AttendanceReportSnapshot snapshot = new AttendanceReportSnapshot(
+                meeting.getMeetingId(), etagOf(body), gzip(body), LocalDateTime.now());
+        if (snapshotRepository.insertIfAbsent(snapshot.getMeetingId(), snapshot.getEtag(),
+                snapshot.getGzippedBody(), snapshot.getCreatedAt()) == 0) {
+            // Lost the race to a concurrent build: serve the stored one so clients see one ETag
+            return snapshotRepository.findById(meeting.getMeetingId()).orElseThrow(() -> new IllegalStateException(
+                    "Attendance report snapshot of meeting " + meeting.getMeetingId() + " was not stored"));
+        }
+
+        builtCounter.increment();
+        log.info("Stored attendance report snapshot of meeting {} ({} bytes)",
+                meeting.getMeetingId(), snapshot.getGzippedBody().length);
+        return snapshot;
+    }
+
+    // The complete response body of the report endpoint
+    private byte[] serialize(Meeting meeting) {
+        try {
+            return objectMapper.writeValueAsBytes(
+                    new ApiResponse<>(true, REPORT_MESSAGE, attendanceReportBuilder.build(meeting)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,70 +1,92 @@
 package uwu.connectra.connectra_backend.services;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import uwu.connectra.connectra_backend.dtos.StudentAttendanceDTO;
+import uwu.connectra.connectra_backend.dtos.CursorPage;
 import uwu.connectra.connectra_backend.dtos.StudentAttendanceHistoryResponseDTO;
 import uwu.connectra.connectra_backend.entities.*;
 import uwu.connectra.connectra_backend.exceptions.UnauthorizedException;
 import uwu.connectra.connectra_backend.repositories.AttendanceRepository;
-import uwu.connectra.connectra_backend.repositories.MeetingRepository;
 import uwu.connectra.connectra_backend.utils.CurrentUserProvider;
+import uwu.connectra.connectra_backend.utils.KeysetCursor;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AttendanceService {
     private final CurrentUserProvider currentUserProvider;
     private final AttendanceRepository attendanceRepository;
-    private final MeetingRepository meetingRepository;
+    private final AttendanceLockService attendanceLockService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    // Detected on first use, see supportsSetBasedFinalization
+    private volatile Boolean setBasedFinalization;
+
+    /**
+     * Create ABSENT attendance rows for the whole cohort when a meeting goes live, in one
+     * batched statement, so the join storm that follows only updates existing rows.
+     */
+    public void provisionAttendanceForMeeting(Meeting meeting) {
+        // Without a target cohort rows are still created by the joins themselves
+        if (meeting.getTargetDegree() == null || meeting.getTargetBatch() == null) {
+            return;
+        }
+
+        int created = attendanceRepository.insertAbsentForCohort(
+                meeting.getMeetingId(), meeting.getTargetDegree(), meeting.getTargetBatch(), LocalDateTime.now());
+        log.info("Provisioned {} attendance records for meeting: {}", created, meeting.getMeetingId());
+    }
 
     /**
      * Record student attendance when joining a meeting.
-     * Uses REQUIRES_NEW to isolate this transaction.
-     * IF duplicate key error occurs, it causes this inner transaction to rollback.
-     * The caller (MeetingService) must catch the exception and ignore it.
+     * A single upsert, so concurrent joins by the same student can't create duplicates.
      */
-    @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
+    @Transactional
     public void recordStudentAttendanceOnJoin(Meeting meeting, Integer agoraUid) {
-        Student currentStudent = currentUserProvider.getCurrentUserAs(Student.class);
-        LocalDateTime now = LocalDateTime.now();
-
-        // Check if attendance already exists
-        Attendance attendance = attendanceRepository.findByStudentAndMeeting(currentStudent, meeting)
-                .orElse(null);
-
-        if (attendance == null) {
-            // Create new attendance record
-            attendance = new Attendance();
-            attendance.setStudent(currentStudent);
-            attendance.setMeeting(meeting);
-            attendance.setJoinedAt(now);
-            attendance.setLastJoinedAt(now);
-            attendance.setAgoraUid(agoraUid);
-            attendanceRepository.save(attendance);
-            return;
+        long studentId = currentUserProvider.getCurrentUserId();
+        try (var lock = attendanceLockService.lock(studentId, meeting.getMeetingId())) {
+            attendanceRepository.upsertOnJoin(studentId, meeting.getMeetingId(), agoraUid, LocalDateTime.now());
         }
+    }
 
-        // Update existing record (if user rejoins)
-        autoLeaveStudentIfStillInMeeting(now, attendance);
-        attendance.setLastJoinedAt(now);
-        attendance.setAgoraUid(agoraUid); // Update UID on rejoin
-        attendanceRepository.save(attendance);
+    /**
+     * Record the join of several students at once, e.g. everyone admitted from the waiting
+     * room when the meeting starts. Their Agora UID is their user ID, as on a regular join.
+     */
+    @Transactional
+    public void recordStudentAttendanceOnJoin(Meeting meeting, Set<Long> studentIds) {
+        try (var lock = attendanceLockService.lockAll(studentIds, meeting.getMeetingId())) {
+            LocalDateTime now = LocalDateTime.now();
+            for (long studentId : studentIds) {
+                attendanceRepository.upsertOnJoin(studentId, meeting.getMeetingId(), (int) studentId, now);
+            }
+        }
     }
 
     // Update student attendance on leave and calculate total duration
     @Transactional
     public void recordStudentAttendanceOnLeave(Meeting meeting) {
         Student currentStudent = currentUserProvider.getCurrentUserAs(Student.class);
+        try (var lock = attendanceLockService.lock(currentStudent.getId(), meeting.getMeetingId())) {
+            leave(currentStudent, meeting);
+        }
+    }
 
+    private void leave(Student currentStudent, Meeting meeting) {
         // Update attendance
         Attendance attendance = attendanceRepository.findByStudentAndMeeting(currentStudent, meeting).orElseThrow(
                 () -> new UnauthorizedException("Attendance record not found for student in this meeting."));
@@ -97,45 +119,69 @@ public class AttendanceService {
     }
 
     // Update all attendance records when a meeting ends
+    @Transactional
     public void finalizeAttendanceForMeeting(Meeting meeting) {
-        // Get all attendance records for this meeting
-        if (meeting.getAttendances() != null && !meeting.getAttendances().isEmpty()) {
-            LocalDateTime meetingEndTime = LocalDateTime.now();
-
-            for (Attendance attendance : meeting.getAttendances()) {
-                autoLeaveStudentIfStillInMeeting(meetingEndTime, attendance);
+        List<Long> studentIds = attendanceRepository.findStudentIdsByMeeting(meeting);
+        if (studentIds.isEmpty()) {
+            return;
+        }
 
-                // Calculate final attendance percentage and status
-                updateAttendancePercentageAndStatus(attendance, meeting);
-                attendanceRepository.save(attendance);
+        // Hold off joins and leaves of these students until the final numbers are saved, and
+        // only read the records once the locks are held so no concurrent leave is counted twice
+        try (var lock = attendanceLockService.lockAll(studentIds, meeting.getMeetingId())) {
+            LocalDateTime meetingEndTime = meeting.getActualEndTime() != null
+                    ? meeting.getActualEndTime()
+                    : LocalDateTime.now();
+
+            if (supportsSetBasedFinalization()) {
+                // Two statements for the whole meeting instead of one UPDATE per student
+                LocalDateTime now = LocalDateTime.now();
+                attendanceRepository.closeOpenSessions(meeting.getMeetingId(), meetingEndTime, now);
+                attendanceRepository.scoreAttendance(meeting.getMeetingId(), calculateMeetingDuration(meeting), now);
+            } else {
+                finalizeAttendanceInBatches(meeting, meetingEndTime);
             }
         }
     }
 
+    // Fallback for databases without the SQL used by the set-based statements: compute each
+    // record in Java. The dirty records are flushed as JDBC batches (hibernate.jdbc.batch_size).
+    private void finalizeAttendanceInBatches(Meeting meeting, LocalDateTime meetingEndTime) {
+        for (Attendance attendance : attendanceRepository.findAllByMeeting(meeting)) {
+            autoLeaveStudentIfStillInMeeting(meetingEndTime, attendance);
+
+            // Calculate final attendance percentage and status
+            updateAttendancePercentageAndStatus(attendance, meeting);
+        }
+    }
+
+    // Whether the database runs the PostgreSQL statements of set-based finalization
+    private boolean supportsSetBasedFinalization() {
+        Boolean supported = setBasedFinalization;
+        if (supported == null) {
+            supported = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+            setBasedFinalization = supported;
+        }
+        return supported;
+    }
+
     // Auto-leave student if they are still marked as in the meeting
     private void autoLeaveStudentIfStillInMeeting(LocalDateTime meetingEndTime, Attendance attendance) {
         if (attendance.getLastJoinedAt() != null &&
                 (attendance.getLeftAt() == null ||
                         attendance.getLeftAt().isBefore(attendance.getLastJoinedAt()))) {
             attendance.setLeftAt(meetingEndTime);
-            long duration = Duration.between(attendance.getLastJoinedAt(), meetingEndTime)
-                    .toMinutes();
+            // An auto-ended meeting ends at its scheduled end, which may be before the last join
+            long duration = Math.max(0, Duration.between(attendance.getLastJoinedAt(), meetingEndTime)
+                    .toMinutes());
             attendance.setTotalDurationInMinutes(attendance.getTotalDurationInMinutes() + duration);
         }
     }
 
     // Update attendance percentage and status based on total duration vs duration
     private void updateAttendancePercentageAndStatus(Attendance attendance, Meeting meeting) {
-        LocalDateTime meetingStart = meeting.getActualStartTime() != null
-                ? meeting.getActualStartTime()
-                : meeting.getScheduledStartTime();
-
-        LocalDateTime meetingEnd = meeting.getActualEndTime() != null
-                ? meeting.getActualEndTime()
-                : LocalDateTime.now(); // If meeting is still live, use current time
-
-        // Calculate total meeting duration in minutes
-        long totalMeetingDuration = Duration.between(meetingStart, meetingEnd).toMinutes();
+        long totalMeetingDuration = calculateMeetingDuration(meeting);
 
         // Avoid division by zero
         if (totalMeetingDuration <= 0) {
@@ -164,121 +210,42 @@ public class AttendanceService {
         }
     }
 
-    // In your service class (e.g., AttendanceService or MeetingService)
-    public List<Student> getAttendedStudentsForMeeting(UUID meetingId) {
-        Meeting meeting = meetingRepository.findById(meetingId)
-                .orElseThrow(() -> new IllegalArgumentException("Meeting not found"));
-
-        List<Attendance> attendances = attendanceRepository.findAllByMeeting(meeting);
-
-        // Extract students from attendance records
-        return attendances.stream()
-                .map(Attendance::getStudent)
-                .collect(Collectors.toList());
-    }
-
-    // Get students by attendance status for a specific meeting
-    public List<Student> getAttendanceStatusForStudentInMeeting(UUID meetingId, AttendanceStatus status) {
-        Meeting meeting = meetingRepository.findById(meetingId)
-                .orElseThrow(() -> new IllegalArgumentException("Meeting not found"));
-
-        List<Attendance> attendances = attendanceRepository.findAllByMeetingAndAttendanceStatus(meeting, status);
+    // Total meeting duration in minutes, up to now if the meeting is still live
+    private long calculateMeetingDuration(Meeting meeting) {
+        LocalDateTime meetingStart = meeting.getActualStartTime() != null
+                ? meeting.getActualStartTime()
+                : meeting.getScheduledStartTime();
 
-        return attendances.stream()
-                .map(Attendance::getStudent)
-                .collect(Collectors.toList());
-    }
+        LocalDateTime meetingEnd = meeting.getActualEndTime() != null
+                ? meeting.getActualEndTime()
+                : LocalDateTime.now(); // If meeting is still live, use current time
 
-    // Map students to StudentAttendanceDTOs for a specific meeting
-    public List<StudentAttendanceDTO> mapStudentsToAttendanceDTOs(List<Student> students, Meeting meeting) {
-        return students.stream().map(student -> {
-            Attendance attendance = attendanceRepository.findByStudentAndMeeting(student, meeting)
-                    .orElse(null);
-
-            long durationMinutes = (attendance != null) ? attendance.getTotalDurationInMinutes() : 0;
-            String studentName = student.getFirstName() + " " + student.getLastName();
-
-            return new StudentAttendanceDTO(
-                    student.getStudentId(),
-                    studentName,
-                    (attendance != null) ? attendance.getAttendanceStatus() : AttendanceStatus.ABSENT,
-                    durationMinutes);
-        }).collect(Collectors.toList());
+        return Duration.between(meetingStart, meetingEnd).toMinutes();
     }
 
-    // Get complete attendance history for the current student
-    public List<StudentAttendanceHistoryResponseDTO> getStudentAttendanceHistory(
-            AttendanceStatus statusFilter) {
-
-        // 1. Get current authenticated student
+    // Get one page of the current student's attendance history, newest meeting first
+    @Transactional(readOnly = true)
+    public CursorPage<StudentAttendanceHistoryResponseDTO> getStudentAttendanceHistory(
+            AttendanceStatus statusFilter, String cursor, int pageSize) {
         Student currentStudent = currentUserProvider.getCurrentUserAs(Student.class);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int size = Math.clamp(pageSize, 1, MAX_HISTORY_PAGE_SIZE);
 
-        // 2. Find all ENDED/COMPLETED meetings for student's degree and batch
-        List<Meeting> completedMeetings = meetingRepository.findAllByTargetDegreeAndTargetBatchAndStatus(
+        // One row more than the page tells whether another page follows
+        List<StudentAttendanceHistoryResponseDTO> rows = attendanceRepository.findAttendanceHistory(
+                currentStudent.getId(),
                 currentStudent.getDegree(),
                 currentStudent.getBatch(),
-                MeetingStatus.ENDED);
-
-        // 3. For each meeting, create a DTO with attendance data
-        List<StudentAttendanceHistoryResponseDTO> historyList = completedMeetings
-                .stream()
-                .map(meeting -> {
-                    // Look up attendance record
-                    Attendance attendance = attendanceRepository
-                            .findByStudentAndMeeting(currentStudent, meeting)
-                            .orElse(null);
-
-                    // Calculate meeting duration
-                    long meetingDuration = 0;
-                    if (meeting.getActualStartTime() != null && meeting.getActualEndTime() != null) {
-                        meetingDuration = Duration.between(
-                                meeting.getActualStartTime(),
-                                meeting.getActualEndTime()).toMinutes();
-                    }
-
-                    // Create DTO
-                    StudentAttendanceHistoryResponseDTO dto = new StudentAttendanceHistoryResponseDTO();
-
-                    dto.setMeetingId(meeting.getMeetingId());
-                    dto.setMeetingTitle(meeting.getTitle());
-                    dto.setMeetingDate(meeting.getScheduledStartTime());
-
-                    // Set lecturer name
-                    Lecturer lecturer = meeting.getCreatedBy();
-                    dto.setLecturerName(lecturer.getFirstName() + " " + lecturer.getLastName());
-
-                    dto.setMeetingDuration(meetingDuration);
-
-                    // If attendance record exists, populate with actual data
-                    if (attendance != null) {
-                        dto.setJoinedAt(attendance.getJoinedAt());
-                        dto.setLeftAt(attendance.getLeftAt());
-                        dto.setTotalTimeInMinutes(attendance.getTotalDurationInMinutes());
-                        dto.setAttendancePercentage(attendance.getAttendancePercentage());
-                        dto.setAttendanceStatus(attendance.getAttendanceStatus().name());
-                    } else {
-                        // Student was absent - set default values
-                        dto.setJoinedAt(null);
-                        dto.setLeftAt(null);
-                        dto.setTotalTimeInMinutes(0L);
-                        dto.setAttendancePercentage(0.0);
-                        dto.setAttendanceStatus(AttendanceStatus.ABSENT.name());
-                    }
-
-                    return dto;
-                })
-                .collect(Collectors.toList());
-
-        // 4. Apply status filter if provided
-        if (statusFilter != null) {
-            historyList = historyList.stream()
-                    .filter(dto -> dto.getAttendanceStatus().equals(statusFilter.name()))
-                    .collect(Collectors.toList());
-        }
-
-        // 5. Sort by meeting date descending (newest first)
-        historyList.sort((dto1, dto2) -> dto2.getMeetingDate().compareTo(dto1.getMeetingDate()));
+                statusFilter,
+                after != null ? after.timestamp() : null,
+                after != null ? after.id() : null,
+                Limit.of(size + 1));
 
-        return historyList;
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<StudentAttendanceHistoryResponseDTO> page = rows.subList(0, size);
+        StudentAttendanceHistoryResponseDTO last = page.get(size - 1);
+        return new CursorPage<>(page, KeysetCursor.after(last.getMeetingDate(), last.getMeetingId()).encode());
     }
 }
@@ -1,22 +1,24 @@
 package uwu.connectra.connectra_backend.services;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uwu.connectra.connectra_backend.config.SecurityEpochStorage;
 import uwu.connectra.connectra_backend.dtos.auth.RegisterResponseDTO;
 import uwu.connectra.connectra_backend.dtos.auth.UserAuthResponseDTO;
 import uwu.connectra.connectra_backend.dtos.auth.UserLoginRequestDTO;
 import uwu.connectra.connectra_backend.dtos.auth.UserRegisterRequestDTO;
 import uwu.connectra.connectra_backend.dtos.lecturer.LecturerResponseDTO;
 import uwu.connectra.connectra_backend.entities.*;
+import uwu.connectra.connectra_backend.events.UserChangedEvent;
 import uwu.connectra.connectra_backend.exceptions.*;
 import uwu.connectra.connectra_backend.repositories.UserRepository;
+import uwu.connectra.connectra_backend.services.PendingRegistrationStore.PendingRegistration;
 import uwu.connectra.connectra_backend.utils.StudentDetailsExtractor;
 
 import java.util.concurrent.TimeUnit;
@@ -26,12 +28,14 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class AuthenticationService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final StudentDetailsExtractor studentDetailsExtractor;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
     private final OtpService otpService;
     private final EmailService emailService;
+    private final SecurityEpochStorage securityEpochStorage;
+    private final UserCacheService userCacheService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Initiates student registration by sending OTP to email.
@@ -63,19 +67,20 @@ public class AuthenticationService {
         }
 
         // Hash the password for storage
-        String hashedPassword = passwordEncoder.encode(request.getPassword().trim());
+        String hashedPassword = passwordHashingService.encode(request.getPassword().trim());
 
-        // Create verification token with registration data (user NOT saved yet)
+        // Create verification token with registration data (user NOT saved yet). It is
+        // written in this transaction, together with the outbox row below
         String otp = otpService.createVerificationToken(
                 email,
                 request.getFirstName().trim(),
                 request.getLastName().trim(),
                 hashedPassword);
 
-        // Send OTP email
-        emailService.sendOtpEmail(email, otp, request.getFirstName().trim());
+        // Queue the OTP email, it is sent once this transaction commits
+        emailService.queueOtpEmail(email, otp, request.getFirstName().trim());
 
-        log.info("OTP sent to email: {}", email);
+        log.info("OTP queued for email: {}", email);
 
         return new RegisterResponseDTO(
                 email,
@@ -99,7 +104,7 @@ public class AuthenticationService {
         }
 
         // Verify OTP and get the pending registration data
-        EmailVerificationToken token = otpService.verifyOtpAndGetToken(email, otp);
+        PendingRegistration registration = otpService.verifyOtpAndGetToken(email, otp);
 
         // Extract student details from email
         String studentRegistrationId = studentDetailsExtractor.extractStudentId(email);
@@ -112,15 +117,16 @@ public class AuthenticationService {
         student.setDegree(degree);
         student.setBatch(batch);
         student.setRole(Role.STUDENT);
-        student.setFirstName(token.getFirstName());
-        student.setLastName(token.getLastName());
+        student.setFirstName(registration.firstName());
+        student.setLastName(registration.lastName());
         student.setEmail(email);
-        student.setHashedPassword(token.getHashedPassword());
+        student.setHashedPassword(registration.hashedPassword());
         student.setEmailVerified(true);
         student.setAccountStatus(AccountStatus.ACTIVE);
 
         // Save user to database
         User savedUser = userRepository.save(student);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getEmail()));
         log.info("User created and activated: {}", savedUser.getEmail());
 
         // Cleanup OTP tokens
@@ -155,6 +161,7 @@ public class AuthenticationService {
     }
 
     // LECTURER CREATION
+    @Transactional
     public LecturerResponseDTO createLecturer(UserRegisterRequestDTO request) {
         log.info("Attempting to create lecturer account with email: {}", request.getEmail());
 
@@ -169,11 +176,12 @@ public class AuthenticationService {
         lecturer.setFirstName(request.getFirstName().trim());
         lecturer.setLastName(request.getLastName().trim());
         lecturer.setEmail(request.getEmail().trim());
-        lecturer.setHashedPassword(passwordEncoder.encode(request.getPassword().trim()));
+        lecturer.setHashedPassword(passwordHashingService.encode(request.getPassword().trim()));
         lecturer.setEmailVerified(true); // Lecturers created by admin are auto-verified
 
         // Save user to the database
         User savedUser = userRepository.save(lecturer);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getEmail()));
         log.info("Lecturer created successfully: {}", savedUser.getEmail());
 
         return new LecturerResponseDTO(
@@ -190,7 +198,7 @@ public class AuthenticationService {
         log.info("Attempting login for user: {}", request.getEmail());
 
         // Check if user exists
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = userCacheService.findByEmail(request.getEmail())
                 .orElseThrow(() -> {
                     log.warn("Login failed: User not found: {}", request.getEmail());
                     return new UserCredentialsInvalidException("Your email or password is incorrect");
@@ -210,12 +218,8 @@ public class AuthenticationService {
                     "Your account has been deactivated. Please contact an administrator.");
         }
 
-        try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getEmail(),
-                            request.getPassword()));
-        } catch (Exception e) {
+        // Verify the password on the dedicated hashing pool, not on the request thread
+        if (!passwordHashingService.matches(request.getPassword(), user.getHashedPassword())) {
             log.warn("Login failed for user: {}. Invalid credentials.", request.getEmail());
             throw new UserCredentialsInvalidException("Your email or password is incorrect");
         }
@@ -239,21 +243,35 @@ public class AuthenticationService {
     // REFRESH ACCESS TOKEN
     public UserAuthResponseDTO refreshAccessToken(String refreshToken) {
         // Validate Refresh Token
-        String userEmail = jwtService.extractEmail(refreshToken);
-        User user = userRepository.findByEmail(userEmail)
+        JwtService.TokenClaims claims;
+        try {
+            claims = jwtService.parseToken(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Invalid refresh token presented: {}", e.getMessage());
+            throw new InvalidTokenException("Refresh token is invalid or expired");
+        }
+
+        String userEmail = claims.email();
+        User user = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> {
                     log.warn("User not found during token refresh: {}", userEmail);
                     return new RuntimeException("User with email " + userEmail + " not found");
                 });
 
         CustomUserDetails userDetails = new CustomUserDetails(user);
-        if (!jwtService.isTokenValid(refreshToken, userDetails)) {
+        if (!jwtService.isTokenValid(claims, userDetails)) {
             log.warn("Invalid refresh token for user: {}", userEmail);
             throw new InvalidTokenException("Refresh token is invalid or expired");
         }
 
+        // Deactivated users must not get new access tokens
+        if (!userDetails.isEnabled()) {
+            log.warn("Token refresh blocked: Account deactivated for: {}", userEmail);
+            throw new InvalidTokenException("Your account has been deactivated. Please contact an administrator.");
+        }
+
         // Generate new tokens and return response
-        String newAccessToken = jwtService.generateAccessToken(user.getEmail(), user.getRole().name());
+        String newAccessToken = jwtService.generateAccessToken(user, securityEpochStorage.currentEpoch(user.getId()));
         log.info("Access token refreshed for user: {}", userEmail);
 
         return new UserAuthResponseDTO(
@@ -266,7 +284,8 @@ public class AuthenticationService {
 
     // Auth response helper method
     private UserAuthResponseDTO authResponse(User savedUser, HttpServletResponse httpServletResponse) {
-        String accessToken = jwtService.generateAccessToken(savedUser.getEmail(), savedUser.getRole().name());
+        String accessToken = jwtService.generateAccessToken(savedUser,
+                securityEpochStorage.currentEpoch(savedUser.getId()));
         String refreshToken = jwtService.generateRefreshToken(savedUser.getEmail());
 
         // Set Refresh Token as a HttpOnly cookie
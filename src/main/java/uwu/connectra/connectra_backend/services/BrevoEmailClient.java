@@ -0,0 +1,72 @@
+package uwu.connectra.connectra_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import sendinblue.ApiClient;
+import sendinblue.ApiException;
+import sendinblue.Configuration;
+import sendinblue.auth.ApiKeyAuth;
+import sibApi.TransactionalEmailsApi;
+import sibModel.CreateSmtpEmail;
+import sibModel.SendSmtpEmail;
+import sibModel.SendSmtpEmailMessageVersions;
+import sibModel.SendSmtpEmailSender;
+import sibModel.SendSmtpEmailTo1;
+import uwu.connectra.connectra_backend.exceptions.EmailDeliveryException;
+
+import java.util.List;
+
+/**
+ * {@link EmailClient} backed by the Brevo (Sendinblue) transactional email API.
+ * A batch is sent as one request with a message version per recipient.
+ */
+@Component
+@ConditionalOnProperty(name = "email.client", havingValue = "brevo", matchIfMissing = true)
+@Slf4j
+public class BrevoEmailClient implements EmailClient {
+
+    private final TransactionalEmailsApi apiInstance;
+    private final SendSmtpEmailSender sender;
+
+    public BrevoEmailClient(
+            @Value("${brevo.api-key}") String apiKey,
+            @Value("${brevo.sender-email}") String senderEmail,
+            @Value("${brevo.sender-name}") String senderName) {
+
+        // Configure Brevo API client
+        ApiClient defaultClient = Configuration.getDefaultApiClient();
+        ApiKeyAuth apiKeyAuth = (ApiKeyAuth) defaultClient.getAuthentication("api-key");
+        apiKeyAuth.setApiKey(apiKey);
+
+        this.apiInstance = new TransactionalEmailsApi();
+        this.sender = new SendSmtpEmailSender().email(senderEmail).name(senderName);
+    }
+
+    @Override
+    public void sendBatch(String subject, String htmlTemplate, List<EmailMessage> messages) {
+        SendSmtpEmail sendSmtpEmail = new SendSmtpEmail();
+        sendSmtpEmail.setSender(sender);
+        sendSmtpEmail.setSubject(subject);
+        sendSmtpEmail.setHtmlContent(htmlTemplate);
+
+        // One message version per recipient, each with its own params
+        for (EmailMessage message : messages) {
+            sendSmtpEmail.addMessageVersionsItem(new SendSmtpEmailMessageVersions()
+                    .addToItem(new SendSmtpEmailTo1().email(message.toEmail()).name(message.toName()))
+                    .params(message.params()));
+        }
+
+        try {
+            CreateSmtpEmail result = apiInstance.sendTransacEmail(sendSmtpEmail);
+            log.info("Sent {} emails through Brevo. Message IDs: {}", messages.size(),
+                    result.getMessageIds() != null ? result.getMessageIds() : result.getMessageId());
+        } catch (ApiException e) {
+            log.error("Failed to send {} emails. Error: {} - {}", messages.size(), e.getCode(), e.getResponseBody());
+            // Network errors (code 0), rate limiting and server errors are worth retrying
+            boolean retryable = e.getCode() == 0 || e.getCode() == 429 || e.getCode() >= 500;
+            throw new EmailDeliveryException("Brevo rejected the batch with status " + e.getCode(), retryable, e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package uwu.connectra.connectra_backend.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uwu.connectra.connectra_backend.events.ClusterEventsResumedEvent;
+import uwu.connectra.connectra_backend.events.CohortMeetingsChangedEvent;
+import uwu.connectra.connectra_backend.events.MeetingStatusChangedEvent;
+import uwu.connectra.connectra_backend.events.SecurityEpochBumpedEvent;
+import uwu.connectra.connectra_backend.events.UserChangedEvent;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Relays events between the nodes of a deployment through PostgreSQL LISTEN/NOTIFY, so
+ * node-local state (cached users, security epochs and cohort meeting lists, students' event
+ * streams, waiting rooms) follows changes made on any node.
+ *
+ * <p>An event published in a transaction is sent with {@code pg_notify} as part of it, and
+ * PostgreSQL delivers it only once that transaction commits. Each node listens on
+ * {@value #CHANNEL} over one dedicated connection and republishes the events of the other
+ * nodes as application events; the node that published an event handles it after its own
+ * commit. Republished events are not in a transaction, so they are not sent out again.</p>
+ *
+ * <p>Notifications sent while a node is not listening are lost to it. Each time the listener
+ * connects, a {@link ClusterEventsResumedEvent} is published so listeners can drop what they
+ * may have missed.</p>
+ *
+ * <p>Metrics: {@code cluster.events.received} and {@code cluster.events.reconnects}.</p>
+ */
+@Service
+@Slf4j
+public class ClusterEventRelay {
+    static final String CHANNEL = "connectra_events";
+
+    // Event types sent to the other nodes, by the name they are sent under
+    private static final Map<String, Class<?>> RELAYED_EVENTS = List.<Class<?>>of(
+                    CohortMeetingsChangedEvent.class,
+                    MeetingStatusChangedEvent.class,
+                    SecurityEpochBumpedEvent.class,
+                    UserChangedEvent.class)
+            .stream()
+            .collect(Collectors.toMap(Class::getSimpleName, Function.identity()));
+
+    private final String node = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcConnectionDetails connectionDetails;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Duration pollInterval;
+    private final Duration reconnectDelay;
+
+    private final Counter receivedCounter;
+    private final Counter reconnectCounter;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public ClusterEventRelay(
+            JdbcTemplate jdbcTemplate,
+            JdbcConnectionDetails connectionDetails,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cluster-events.poll-interval}") Duration pollInterval,
+            @Value("${cluster-events.reconnect-delay}") Duration reconnectDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.connectionDetails = connectionDetails;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.pollInterval = pollInterval;
+        this.reconnectDelay = reconnectDelay;
+
+        this.receivedCounter = Counter.builder("cluster.events.received")
+                .description("Events received from other nodes")
+                .register(meterRegistry);
+        this.reconnectCounter = Counter.builder("cluster.events.reconnects")
+                .description("Times the cluster event listener connected again after losing its connection")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listener = Thread.ofPlatform().name("cluster-event-listener").daemon().start(this::listen);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    // Send to the other nodes as part of the publishing transaction; events published outside
+    // one (including the ones this relay republishes) stay on this node
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCohortMeetingsChanged(CohortMeetingsChangedEvent event) {
+        send(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onMeetingStatusChanged(MeetingStatusChangedEvent event) {
+        send(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onSecurityEpochBumped(SecurityEpochBumpedEvent event) {
+        send(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        send(event);
+    }
+
+    private void send(Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(new Notification(
+                    node, event.getClass().getSimpleName(), objectMapper.valueToTree(event)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize cluster event " + event, e);
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) resultSet -> null, CHANNEL, payload);
+    }
+
+    // Listen until shut down, connecting again whenever the connection is lost
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(connectionDetails.getJdbcUrl(),
+                    connectionDetails.getUsername(), connectionDetails.getPassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (connectedBefore) {
+                    reconnectCounter.increment();
+                }
+                connectedBefore = true;
+                log.info("Listening for cluster events on channel {}", CHANNEL);
+                publishLocally(new ClusterEventsResumedEvent());
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cluster event listener lost its connection, reconnecting in {}: {}",
+                        reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Republish an event of another node on this one
+    private void receive(String payload) {
+        try {
+            Notification notification = objectMapper.readValue(payload, Notification.class);
+            Class<?> type = RELAYED_EVENTS.get(notification.type());
+            if (node.equals(notification.node()) || type == null) {
+                return;
+            }
+            receivedCounter.increment();
+            publishLocally(objectMapper.treeToValue(notification.event(), type));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not read cluster event {}: {}", payload, e.getMessage());
+        }
+    }
+
+    // A failing listener must not stop the relay
+    private void publishLocally(Object event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Listener failed on cluster event {}", event, e);
+        }
+    }
+
+    // What goes over the channel: the sending node, the event type and the event
+    private record Notification(String node, String type, JsonNode event) {
+    }
+}
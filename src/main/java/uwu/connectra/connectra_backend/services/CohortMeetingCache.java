@@ -0,0 +1,75 @@
+package uwu.connectra.connectra_backend.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO;
+import uwu.connectra.connectra_backend.events.ClusterEventsResumedEvent;
+import uwu.connectra.connectra_backend.events.CohortMeetingsChangedEvent;
+import uwu.connectra.connectra_backend.repositories.MeetingRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded cache of each cohort's SCHEDULED and LIVE meetings, soonest first, as served by
+ * the student meeting feed.
+ *
+ * <p>All students of a cohort poll the same list. A miss loads it once: concurrent requests
+ * for the same cohort wait for that load instead of each querying the database. Entries are
+ * evicted when a {@link CohortMeetingsChangedEvent} commits, on this node or, relayed by
+ * {@link ClusterEventRelay}, on any other. Everything is evicted whenever the relay starts
+ * listening again, since changes made meanwhile were missed, and entries expire after
+ * {@code cohort-meeting-cache.time-to-live} as a safety net. Hit, miss and eviction counts
+ * are published as {@code cache.*} metrics under the name {@code cohort-meetings}.</p>
+ *
+ * <p>Cached lists are shared between requests and must be treated as read-only.</p>
+ */
+@Service
+@Slf4j
+public class CohortMeetingCache {
+    private final LoadingCache<Cohort, List<MeetingResponseDTO>> cache;
+
+    public CohortMeetingCache(
+            MeetingRepository meetingRepository,
+            MeterRegistry meterRegistry,
+            @Value("${cohort-meeting-cache.maximum-size}") long maximumSize,
+            @Value("${cohort-meeting-cache.time-to-live}") Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build(cohort -> List.copyOf(meetingRepository.findUpcomingCohortMeetings(
+                        cohort.degree(), cohort.batch())));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "cohort-meetings");
+    }
+
+    // SCHEDULED and LIVE meetings of a cohort, loading them from the database on a miss
+    public List<MeetingResponseDTO> getUpcomingMeetings(String degree, Integer batch) {
+        return cache.get(new Cohort(degree, batch));
+    }
+
+    // Evict only once the change is committed, so a reload can't cache the old list again
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCohortMeetingsChanged(CohortMeetingsChangedEvent event) {
+        cache.invalidate(new Cohort(event.targetDegree(), event.targetBatch()));
+        log.debug("Evicted cached meetings of cohort {}/{}", event.targetDegree(), event.targetBatch());
+    }
+
+    // Changes committed on other nodes may have been missed, so drop every cohort
+    @EventListener
+    public void onClusterEventsResumed(ClusterEventsResumedEvent event) {
+        cache.invalidateAll();
+        log.debug("Evicted all cached cohort meetings");
+    }
+
+    private record Cohort(String degree, Integer batch) {
+    }
+}
@@ -8,16 +8,15 @@ import org.springframework.stereotype.Component;
 import uwu.connectra.connectra_backend.entities.CustomUserDetails;
 import uwu.connectra.connectra_backend.entities.User;
 import uwu.connectra.connectra_backend.exceptions.UserNotFoundException;
-import uwu.connectra.connectra_backend.repositories.UserRepository;
 
 @RequiredArgsConstructor
 @Component
 public class CustomUserDetailsService implements UserDetailsService {
-    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UserNotFoundException {
-        User user = userRepository.findByEmail(email)
+        User user = userCacheService.findByEmail(email)
                 .orElseThrow(
                         () -> new UserNotFoundException("User with email " + email + " not found")
                 );
@@ -0,0 +1,24 @@
+package uwu.connectra.connectra_backend.services;
+
+import uwu.connectra.connectra_backend.exceptions.EmailDeliveryException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends emails through an email provider.
+ * {@link BrevoEmailClient} is used by default; set {@code email.client: stub} to use
+ * {@link StubEmailClient} locally and in tests.
+ */
+public interface EmailClient {
+
+    /**
+     * Sends one email per message in a single call. All messages share the subject and the
+     * HTML template, which refers to each message's params as {@code {{ params.name }}}.
+     * Throws {@link EmailDeliveryException} if the batch was not accepted.
+     */
+    void sendBatch(String subject, String htmlTemplate, List<EmailMessage> messages);
+
+    record EmailMessage(String toEmail, String toName, Map<String, Object> params) {
+    }
+}
@@ -1,89 +1,64 @@
 package uwu.connectra.connectra_backend.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import sendinblue.ApiClient;
-import sendinblue.ApiException;
-import sendinblue.Configuration;
-import sendinblue.auth.ApiKeyAuth;
-import sibApi.TransactionalEmailsApi;
-import sibModel.CreateSmtpEmail;
-import sibModel.SendSmtpEmail;
-import sibModel.SendSmtpEmailSender;
-import sibModel.SendSmtpEmailTo;
+import org.springframework.transaction.annotation.Transactional;
+import uwu.connectra.connectra_backend.entities.EmailOutbox;
+import uwu.connectra.connectra_backend.entities.EmailType;
+import uwu.connectra.connectra_backend.repositories.EmailOutboxRepository;
 
-import java.util.Collections;
+import java.util.Map;
 
 /**
- * Service for sending emails using Brevo (Sendinblue) API.
- * Uses async processing for non-blocking email sending.
+ * Service for queueing emails.
+ * Emails are written to the outbox in the caller's transaction and delivered in batches
+ * through Brevo by {@link uwu.connectra.connectra_backend.schedulers.EmailOutboxDispatcher}.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final TransactionalEmailsApi apiInstance;
-    private final String senderEmail;
-    private final String senderName;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ObjectMapper objectMapper;
 
-    public EmailService(
-            @Value("${brevo.api-key}") String apiKey,
-            @Value("${brevo.sender-email}") String senderEmail,
-            @Value("${brevo.sender-name}") String senderName) {
-        
-        this.senderEmail = senderEmail;
-        this.senderName = senderName;
-
-        // Configure Brevo API client
-        ApiClient defaultClient = Configuration.getDefaultApiClient();
-        ApiKeyAuth apiKeyAuth = (ApiKeyAuth) defaultClient.getAuthentication("api-key");
-        apiKeyAuth.setApiKey(apiKey);
-
-        this.apiInstance = new TransactionalEmailsApi();
+    /**
+     * Queues an OTP verification email to the specified address.
+     * Commits or rolls back together with the surrounding transaction.
+     */
+    @Transactional
+    public void queueOtpEmail(String toEmail, String otp, String firstName) {
+        queue(EmailType.OTP_VERIFICATION, toEmail, firstName, Map.of("firstName", firstName, "otp", otp));
+        log.info("OTP email queued for: {}", toEmail);
     }
 
     /**
-     * Sends an OTP verification email to the specified address.
-     * This method is async to avoid blocking the registration flow.
+     * Returns the subject and HTML template used for the given email type.
      */
-    @Async
-    public void sendOtpEmail(String toEmail, String otp, String firstName) {
-        try {
-            SendSmtpEmail sendSmtpEmail = new SendSmtpEmail();
-
-            // Set sender
-            SendSmtpEmailSender sender = new SendSmtpEmailSender();
-            sender.setEmail(senderEmail);
-            sender.setName(senderName);
-            sendSmtpEmail.setSender(sender);
-
-            // Set recipient
-            SendSmtpEmailTo to = new SendSmtpEmailTo();
-            to.setEmail(toEmail);
-            to.setName(firstName);
-            sendSmtpEmail.setTo(Collections.singletonList(to));
-
-            // Set subject and content
-            sendSmtpEmail.setSubject("Verify your Connectra account - OTP Code");
-            sendSmtpEmail.setHtmlContent(buildOtpEmailTemplate(otp, firstName));
-
-            // Send email
-            CreateSmtpEmail result = apiInstance.sendTransacEmail(sendSmtpEmail);
-            log.info("OTP email sent successfully to: {}. Message ID: {}", toEmail, result.getMessageId());
+    public EmailTemplate templateFor(EmailType type) {
+        return switch (type) {
+            case OTP_VERIFICATION -> new EmailTemplate("Verify your Connectra account - OTP Code", OTP_EMAIL_TEMPLATE);
+        };
+    }
 
-        } catch (ApiException e) {
-            log.error("Failed to send OTP email to: {}. Error: {} - {}", toEmail, e.getCode(), e.getResponseBody());
-            throw new RuntimeException("Failed to send verification email", e);
+    private void queue(EmailType type, String toEmail, String toName, Map<String, Object> params) {
+        try {
+            emailOutboxRepository.save(new EmailOutbox(type, toEmail, toName, objectMapper.writeValueAsString(params)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize email params", e);
         }
     }
 
+    public record EmailTemplate(String subject, String html) {
+    }
+
     /**
-     * Builds an HTML email template for OTP verification.
+     * HTML template for OTP verification, filled in by Brevo from the message params.
      */
-    private String buildOtpEmailTemplate(String otp, String firstName) {
-        return """
+    private static final String OTP_EMAIL_TEMPLATE = """
                 <!DOCTYPE html>
                 <html>
                 <head>
@@ -92,17 +67,17 @@ public class EmailService {
                 </head>
                 <body style="margin: 0; padding: 0; font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background-color: #f4f4f4;">
                     <div style="max-width: 600px; margin: 0 auto; padding: 20px;">
-                        <div style="background: linear-gradient(135deg, #0d9488 0%%, #115e59 100%%); padding: 30px; text-align: center; border-radius: 10px 10px 0 0;">
+                        <div style="background: linear-gradient(135deg, #0d9488 0%, #115e59 100%); padding: 30px; text-align: center; border-radius: 10px 10px 0 0;">
                             <h1 style="color: white; margin: 0; font-size: 28px;">Connectra</h1>
                             <p style="color: rgba(255,255,255,0.9); margin: 10px 0 0 0;">University Online Meeting Platform</p>
                         </div>
                         <div style="background: white; padding: 40px 30px; border-radius: 0 0 10px 10px; box-shadow: 0 4px 6px rgba(0,0,0,0.1);">
-                            <h2 style="color: #1e293b; margin: 0 0 20px 0;">Hi %s,</h2>
+                            <h2 style="color: #1e293b; margin: 0 0 20px 0;">Hi {{ params.firstName }},</h2>
                             <p style="color: #475569; line-height: 1.6; margin: 0 0 25px 0;">
                                 Welcome to Connectra! To complete your registration, please use the following verification code:
                             </p>
                             <div style="background: #f0fdfa; border: 2px dashed #0d9488; border-radius: 10px; padding: 25px; text-align: center; margin: 0 0 25px 0;">
-                                <span style="font-size: 36px; font-weight: bold; color: #0d9488; letter-spacing: 8px;">%s</span>
+                                <span style="font-size: 36px; font-weight: bold; color: #0d9488; letter-spacing: 8px;">{{ params.otp }}</span>
                             </div>
                             <p style="color: #475569; line-height: 1.6; margin: 0 0 15px 0;">
                                 This code will expire in <strong>10 minutes</strong>.
@@ -117,7 +92,5 @@ public class EmailService {
                     </div>
                 </body>
                 </html>
-                """
-                .formatted(firstName, otp);
-    }
+                """;
 }
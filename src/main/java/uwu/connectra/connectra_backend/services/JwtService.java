@@ -2,38 +2,77 @@ package uwu.connectra.connectra_backend.services;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import uwu.connectra.connectra_backend.entities.CustomUserDetails;
+import uwu.connectra.connectra_backend.entities.Role;
+import uwu.connectra.connectra_backend.entities.Student;
+import uwu.connectra.connectra_backend.entities.User;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
 
+/**
+ * Issues and validates the JWTs used for authentication.
+ *
+ * <p>The signing key and the {@link JwtParser} are built once at startup and shared
+ * by every request. {@link #parseToken(String)} verifies the signature and expiry in
+ * a single pass and returns the claims as a {@link TokenClaims} object.</p>
+ *
+ * <p>Access tokens carry the user's id, role, degree, batch and security epoch so the
+ * JWT filter can authenticate requests without a database lookup.</p>
+ */
 @Component
 public class JwtService {
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_DEGREE = "degree";
+    private static final String CLAIM_BATCH = "batch";
+    private static final String CLAIM_SECURITY_EPOCH = "sep";
+
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final long accessTokenExpirationMinutes;
+    private final long refreshTokenExpirationDays;
+
+    public JwtService(
+            @Value("${JWT_SECRET}") String jwtSecret,
+            @Value("${jwt.expiration.access-token}") long accessTokenExpirationMinutes,
+            @Value("${jwt.expiration.refresh-token}") long refreshTokenExpirationDays) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        this.accessTokenExpirationMinutes = accessTokenExpirationMinutes;
+        this.refreshTokenExpirationDays = refreshTokenExpirationDays;
+    }
 
-    @Value("${JWT_SECRET}")
-    private String jwtSecret;
-
-    @Value("${jwt.expiration.access-token}")
-    private long accessTokenExpirationMinutes;
-
-    @Value("${jwt.expiration.refresh-token}")
-    private long refreshTokenExpirationDays;
+    /**
+     * Issue an access token that carries everything the JWT filter needs to build the
+     * principal (user id, role, degree, batch and the user's security epoch), so
+     * authenticated requests don't have to load the user from the database.
+     */
+    public String generateAccessToken(User user, long securityEpoch) {
+        var builder = Jwts.builder()
+                .subject(user.getEmail())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_SECURITY_EPOCH, securityEpoch);
+
+        if (user instanceof Student student) {
+            builder.claim(CLAIM_DEGREE, student.getDegree())
+                    .claim(CLAIM_BATCH, student.getBatch());
+        }
 
-    public String generateAccessToken(String email, String role) {
-        return Jwts.builder()
-                .subject(email)
-                .claim("role", role)
+        return builder
                 .issuedAt(new Date())
                 .expiration(
                         new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(accessTokenExpirationMinutes)))
-                .signWith(key())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -42,49 +81,72 @@ public class JwtService {
                 .subject(email)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(refreshTokenExpirationDays)))
-                .signWith(key())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        return isTokenSignatureValid(token) && isTokenNotExpired(token) && isTokenEmailValid(token, userDetails);
+    /**
+     * Parses the token, verifying its signature and expiry exactly once.
+     * Throws {@link io.jsonwebtoken.ExpiredJwtException} if the token has expired and
+     * {@link JwtException} if it is malformed or the signature does not match.
+     */
+    public TokenClaims parseToken(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        return new TokenClaims(
+                claims.getSubject(),
+                claims.get(CLAIM_ROLE, String.class),
+                claims.get(CLAIM_USER_ID, Long.class),
+                claims.get(CLAIM_DEGREE, String.class),
+                claims.get(CLAIM_BATCH, Integer.class),
+                claims.get(CLAIM_SECURITY_EPOCH, Long.class),
+                claims.getIssuedAt(),
+                claims.getExpiration());
     }
 
-    // Check if the token has expired
-    private boolean isTokenNotExpired(String token) {
-        return !extractClaim(token, Claims::getExpiration).before(new Date());
-    }
-
-    // Validate the token's signature
-    private boolean isTokenSignatureValid(String token) {
+    // Check that the token is correctly signed, not expired and issued to the given user
+    public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            Jwts.parser().verifyWith(key()).build().parseSignedClaims(token);
-            return true;
+            return isTokenValid(parseToken(token), userDetails);
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
-    // Check if the token is valid for the given user details
-    private boolean isTokenEmailValid(String token, UserDetails userDetails) {
-        final String tokenEmail = extractEmail(token);
-        return (tokenEmail.equals(userDetails.getUsername()));
+    // Check already verified claims against the given user
+    public boolean isTokenValid(TokenClaims claims, UserDetails userDetails) {
+        return claims.email() != null && claims.email().equals(userDetails.getUsername());
     }
 
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).email();
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return parseToken(token).role();
     }
 
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
+    /**
+     * Claims of a token whose signature and expiry have already been verified.
+     * Refresh tokens and access tokens issued before the claims were added only carry
+     * the email, so the principal fields are null for them.
+     */
+    public record TokenClaims(
+            String email,
+            String role,
+            Long userId,
+            String degree,
+            Integer batch,
+            Long securityEpoch,
+            Date issuedAt,
+            Date expiresAt) {
+
+        // Whether the principal can be built from the claims alone
+        public boolean carriesPrincipal() {
+            return email != null && role != null && userId != null && securityEpoch != null;
+        }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parser().verifyWith(key()).build().parseSignedClaims(token).getPayload();
-        return claimsResolver.apply(claims);
+        public CustomUserDetails toUserDetails() {
+            return CustomUserDetails.fromTokenClaims(userId, email, Role.valueOf(role), degree, batch);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package uwu.connectra.connectra_backend.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import uwu.connectra.connectra_backend.events.ClusterEventsResumedEvent;
+import uwu.connectra.connectra_backend.events.MeetingStatusChangedEvent;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes meeting lifecycle changes to the students of each cohort as server-sent events, so
+ * they learn that a meeting went LIVE without polling.
+ *
+ * <p>Publishing never blocks: each event is queued once per subscriber of the cohort, and a
+ * subscriber's queue is drained by at most one sender task at a time on virtual threads. A
+ * subscriber whose queue of {@code meeting-events.buffer-size} events is full is
+ * disconnected; its client reconnects and catches up through the meeting list delta sync.
+ * A heartbeat comment every {@code meeting-events.heartbeat-interval} keeps idle connections
+ * open through proxies and detects clients that went away.</p>
+ *
+ * <p>Changes committed on other nodes arrive through {@link ClusterEventRelay}, so students
+ * get them whichever node holds their stream. When the relay starts listening again after
+ * losing its connection, every stream is closed, since events may have been missed; clients
+ * reconnect and catch up through the delta sync.</p>
+ *
+ * <p>Metrics: {@code meeting.events.subscribers} and {@code meeting.events.dropped-subscribers}.</p>
+ */
+@Service
+@Slf4j
+public class MeetingEventBroadcaster {
+    static final String EVENT_NAME = "meeting-status";
+
+    private final Map<Cohort, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration emitterTimeout;
+    private final int bufferSize;
+    private final Counter droppedCounter;
+
+    public MeetingEventBroadcaster(
+            MeterRegistry meterRegistry,
+            @Value("${meeting-events.emitter-timeout}") Duration emitterTimeout,
+            @Value("${meeting-events.buffer-size}") int bufferSize) {
+        this.emitterTimeout = emitterTimeout;
+        this.bufferSize = bufferSize;
+
+        Gauge.builder("meeting.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open meeting event streams")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("meeting.events.dropped-subscribers")
+                .description("Meeting event streams closed because the client fell behind")
+                .register(meterRegistry);
+    }
+
+    // Open an event stream for a student of the given cohort
+    public SseEmitter subscribe(String degree, Integer batch) {
+        Cohort cohort = new Cohort(degree, batch);
+        SseEmitter emitter = createEmitter(emitterTimeout);
+        Subscriber subscriber = new Subscriber(cohort, emitter);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscribers.computeIfAbsent(cohort, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+
+        // Sends the response headers right away, so the client knows it is subscribed
+        subscriber.offer(SseEmitter.event().comment("subscribed").build());
+        return emitter;
+    }
+
+    // Push a committed lifecycle change to the meeting's cohort, and to the cohort it just left
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMeetingStatusChanged(MeetingStatusChangedEvent event) {
+        Set<Subscriber> recipients = new HashSet<>(
+                subscribers.getOrDefault(new Cohort(event.targetDegree(), event.targetBatch()), Set.of()));
+        if (event.previousTargetDegree() != null) {
+            recipients.addAll(subscribers.getOrDefault(
+                    new Cohort(event.previousTargetDegree(), event.previousTargetBatch()), Set.of()));
+        }
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        Set<DataWithMediaType> data = SseEmitter.event()
+                .name(EVENT_NAME)
+                .id(event.meetingId() + ":" + event.status())
+                .data(event, MediaType.APPLICATION_JSON)
+                .build();
+        recipients.forEach(subscriber -> subscriber.offer(data));
+    }
+
+    // Events of other nodes may have been missed: close every stream, so clients reconnect and
+    // catch up through the delta sync
+    @EventListener
+    public void onClusterEventsResumed(ClusterEventsResumedEvent event) {
+        subscribers.values().forEach(cohortSubscribers -> cohortSubscribers.forEach(subscriber -> {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        }));
+    }
+
+    // Keep idle streams open and find the ones whose client is gone
+    @Scheduled(fixedDelayString = "${meeting-events.heartbeat-interval}")
+    public void sendHeartbeats() {
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        subscribers.values().forEach(cohortSubscribers ->
+                cohortSubscribers.forEach(subscriber -> subscriber.offer(heartbeat)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(cohortSubscribers ->
+                cohortSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdown();
+    }
+
+    // Overridden in tests to record what is sent
+    SseEmitter createEmitter(Duration timeout) {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.removed.compareAndSet(false, true)) {
+            subscribers.computeIfPresent(subscriber.cohort, (cohort, cohortSubscribers) -> {
+                cohortSubscribers.remove(subscriber);
+                return cohortSubscribers.isEmpty() ? null : cohortSubscribers;
+            });
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private record Cohort(String degree, Integer batch) {
+    }
+
+    // One open stream, with its bounded queue of events still to be written
+    private final class Subscriber {
+        private final Cohort cohort;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        private Subscriber(Cohort cohort, SseEmitter emitter) {
+            this.cohort = cohort;
+            this.emitter = emitter;
+        }
+
+        private void offer(Set<DataWithMediaType> data) {
+            if (removed.get()) {
+                return;
+            }
+            if (!queue.offer(data)) {
+                droppedCounter.increment();
+                log.info("Closing meeting event stream of cohort {}/{}: client fell behind", cohort.degree(), cohort.batch());
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> data;
+                while ((data = queue.poll()) != null) {
+                    emitter.send(data);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected or the stream already completed
+                remove(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An event offered while the last send finished would otherwise wait for the next one
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+    }
+}
@@ -3,43 +3,55 @@ package uwu.connectra.connectra_backend.services;
 import io.agora.media.RtcTokenBuilder2;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import uwu.connectra.connectra_backend.config.AgoraConfig;
 import uwu.connectra.connectra_backend.dtos.AgoraTokenResponseDTO;
-import uwu.connectra.connectra_backend.dtos.AttendanceReportResponseDTO;
+import uwu.connectra.connectra_backend.dtos.CursorPage;
 import uwu.connectra.connectra_backend.dtos.ParticipantDTO;
 import uwu.connectra.connectra_backend.dtos.meeting.CreateMeetingRequestDTO;
 import uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO;
 import uwu.connectra.connectra_backend.dtos.meeting.UpdateMeetingRequestDTO;
 import uwu.connectra.connectra_backend.entities.*;
+import uwu.connectra.connectra_backend.events.CohortMeetingsChangedEvent;
+import uwu.connectra.connectra_backend.events.MeetingEndedEvent;
+import uwu.connectra.connectra_backend.events.MeetingStatusChangedEvent;
 import uwu.connectra.connectra_backend.exceptions.InvalidMeetingTimeException;
 import uwu.connectra.connectra_backend.exceptions.MeetingAlreadyEndedException;
 import uwu.connectra.connectra_backend.exceptions.MeetingCancelledException;
 import uwu.connectra.connectra_backend.exceptions.MeetingNotFoundException;
+import uwu.connectra.connectra_backend.exceptions.MeetingStateConflictException;
 import uwu.connectra.connectra_backend.exceptions.UnauthorizedException;
 import uwu.connectra.connectra_backend.repositories.AttendanceRepository;
 import uwu.connectra.connectra_backend.repositories.MeetingRepository;
-import uwu.connectra.connectra_backend.repositories.StudentRepository;
 import uwu.connectra.connectra_backend.utils.AgoraTokenGenerator;
 import uwu.connectra.connectra_backend.utils.CurrentUserProvider;
+import uwu.connectra.connectra_backend.utils.KeysetCursor;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MeetingService {
+    private static final int MAX_MEETINGS_PAGE_SIZE = 100;
+
     private final AttendanceService attendanceService;
     private final AttendanceRepository attendanceRepository;
     private final MeetingRepository meetingRepository;
-    private final StudentRepository studentRepository;
+    private final AttendanceReportSnapshotService attendanceReportSnapshotService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CohortMeetingCache cohortMeetingCache;
+    private final MeetingEventBroadcaster meetingEventBroadcaster;
+    private final MeetingWaitingRoom meetingWaitingRoom;
     private final CurrentUserProvider currentUserProvider;
     private final AgoraTokenGenerator agoraTokenGenerator;
     private final AgoraConfig agoraConfig;
@@ -63,22 +75,36 @@ public class MeetingService {
         meeting.setCreatedBy(currentLecturer);
 
         Meeting savedMeeting = meetingRepository.save(meeting);
+        publishMeetingChanged(savedMeeting);
         log.info("Meeting created: {} by lecturer: {}", savedMeeting.getMeetingId(), currentLecturer.getEmail());
 
         return mapToResponseDTO(savedMeeting);
     }
 
-    // GET ALL MEETINGS CREATED BY THE CURRENT LECTURER
+    // GET ONE PAGE OF THE MEETINGS CREATED BY THE CURRENT LECTURER, newest first
     @Transactional(readOnly = true)
-    public List<MeetingResponseDTO> getAllMeetings() {
-        Lecturer currentLecturer = currentUserProvider.getCurrentUserAs(Lecturer.class);
-
-        List<Meeting> meetings = meetingRepository
-                .findAllByCreatedByEmailOrderByCreatedAtDesc(currentLecturer.getEmail());
-
-        return meetings.stream()
-                .map(this::mapToResponseDTO)
-                .toList();
+    public CursorPage<MeetingResponseDTO> getAllMeetings(
+            MeetingStatus status, LocalDateTime from, LocalDateTime to, String cursor, int pageSize) {
+        long lecturerId = currentUserProvider.getCurrentUserAs(Lecturer.class).getId();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int size = Math.clamp(pageSize, 1, MAX_MEETINGS_PAGE_SIZE);
+
+        // One row more than the page tells whether another page follows
+        List<MeetingResponseDTO> rows = meetingRepository.findLecturerMeetings(
+                lecturerId,
+                status,
+                from,
+                to,
+                after != null ? after.timestamp() : null,
+                after != null ? after.id() : null,
+                Limit.of(size + 1));
+
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<MeetingResponseDTO> page = rows.subList(0, size);
+        MeetingResponseDTO last = page.get(size - 1);
+        return new CursorPage<>(page, KeysetCursor.after(last.getCreatedAt(), last.getMeetingId()).encode());
     }
 
     // GET MEETING BY ID
@@ -98,6 +124,14 @@ public class MeetingService {
         validateMeetingNotEnded(meeting);
         validateMeetingTimes(request.getScheduledStartTime(), request.getScheduledEndTime());
 
+        // Remember the cohort it leaves, so that cohort's delta sync sees it go
+        DepartedCohort departed = new DepartedCohort(meeting.getTargetDegree(), meeting.getTargetBatch());
+        boolean moved = !Objects.equals(departed.getDegree(), request.getTargetDegree())
+                || !Objects.equals(departed.getBatch(), request.getTargetBatch());
+        if (moved) {
+            meeting.getDepartedCohorts().add(departed);
+        }
+
         meeting.setTitle(request.getTitle());
         meeting.setDescription(request.getDescription());
         meeting.setScheduledStartTime(request.getScheduledStartTime());
@@ -106,6 +140,11 @@ public class MeetingService {
         meeting.setTargetBatch(request.getTargetBatch());
 
         Meeting updatedMeeting = meetingRepository.save(meeting);
+        if (moved) {
+            publishMeetingMoved(updatedMeeting, departed);
+        } else {
+            publishMeetingChanged(updatedMeeting);
+        }
         log.info("Meeting updated: {} by lecturer: {}", updatedMeeting.getMeetingId(), currentLecturer.getEmail());
 
         return mapToResponseDTO(updatedMeeting);
@@ -120,8 +159,17 @@ public class MeetingService {
         validateLecturerOwnership(meeting, currentLecturer);
         validateMeetingNotEnded(meeting);
 
-        meeting.setStatus(MeetingStatus.CANCELLED);
-        Meeting canceledMeeting = meetingRepository.save(meeting);
+        // Cancelling twice is a no-op, including when a concurrent cancel got there first
+        if (meeting.getStatus() != MeetingStatus.CANCELLED
+                && meetingRepository.markCancelled(meeting.getMeetingId(), LocalDateTime.now()) == 0) {
+            meeting = findMeetingById(meetingId);
+            if (meeting.getStatus() != MeetingStatus.CANCELLED) {
+                throw lostTransition(meeting);
+            }
+        }
+
+        Meeting canceledMeeting = findMeetingById(meetingId);
+        publishMeetingChanged(canceledMeeting);
         log.info("Meeting cancelled: {} by lecturer: {}", canceledMeeting.getMeetingId(), currentLecturer.getEmail());
 
         return mapToResponseDTO(canceledMeeting);
@@ -131,24 +179,21 @@ public class MeetingService {
     @Transactional
     public AgoraTokenResponseDTO joinMeeting(String meetingId) {
         Meeting meeting = findMeetingById(meetingId);
-        Role currentUserRole = currentUserProvider.getCurrentUserRole();
+        // Resolved once for the request and shared with the helpers below
+        User currentUser = currentUserProvider.getCurrentUser();
+        Role currentUserRole = currentUser.getRole();
 
         // Get UID first (needed for attendance tracking)
-        int agoraUid = agoraTokenGenerator.getCurrentUserUid();
+        int agoraUid = (int) currentUser.getId();
 
         if (currentUserRole == Role.STUDENT) {
             validateStudentMeetingAccess(meeting);
-            try {
-                attendanceService.recordStudentAttendanceOnJoin(meeting, agoraUid);
-            } catch (org.springframework.dao.DataIntegrityViolationException e) {
-                // Ignore duplicate attendance record (race condition)
-                log.debug("Concurrent attendance recording detected for student in meeting {}", meetingId);
-            }
+            attendanceService.recordStudentAttendanceOnJoin(meeting, agoraUid);
         } else if (currentUserRole == Role.LECTURER) {
             validateLecturerMeetingAccess(meeting);
 
             if (meeting.getStatus() == MeetingStatus.SCHEDULED) {
-                startMeeting(meeting);
+                meeting = startMeeting(meeting);
             }
         } else {
             throw new UnauthorizedException("You are not authorized to join this meeting.");
@@ -160,7 +205,30 @@ public class MeetingService {
 
         log.info("User joined meeting: {} with role: {}", meetingId, currentUserRole);
 
-        return mapToAgoraTokenResponse(meeting, agoraToken);
+        return mapToAgoraTokenResponse(meeting, agoraToken, currentUser);
+    }
+
+    // WAIT FOR A MEETING TO START (students)
+    // Completes with the join payload once the lecturer starts the meeting, or with null when
+    // it has not started within the waiting room's maximum wait
+    @Transactional
+    public CompletableFuture<AgoraTokenResponseDTO> waitForMeeting(String meetingId) {
+        Meeting meeting = findMeetingById(meetingId);
+        Student currentStudent = currentUserProvider.getCurrentUserAs(Student.class);
+        validateStudentCohort(meeting, currentStudent);
+
+        // Live, ended or cancelled: answer right away, like a regular join
+        if (meeting.getStatus() != MeetingStatus.SCHEDULED) {
+            return CompletableFuture.completedFuture(joinMeeting(meetingId));
+        }
+
+        CompletableFuture<AgoraTokenResponseDTO> admission =
+                meetingWaitingRoom.park(meeting.getMeetingId(), currentStudent);
+        // The meeting may have started between loading it and parking the student
+        if (meetingRepository.findStatusByMeetingId(meeting.getMeetingId()) != MeetingStatus.SCHEDULED) {
+            meetingWaitingRoom.admit(meeting.getMeetingId());
+        }
+        return admission;
     }
 
     // LEAVE MEETING BY ID
@@ -194,39 +262,27 @@ public class MeetingService {
 
         validateMeetingIsLive(meeting);
 
-        meeting.setStatus(MeetingStatus.ENDED);
-        meeting.setActualEndTime(LocalDateTime.now());
-
-        Meeting stoppedMeeting = meetingRepository.save(meeting);
-
-        // Finalize all attendance records for the meeting
-        attendanceService.finalizeAttendanceForMeeting(stoppedMeeting);
+        Meeting stoppedMeeting = endMeeting(meeting.getMeetingId(), LocalDateTime.now());
+        if (stoppedMeeting == null) {
+            throw lostTransition(findMeetingById(meetingId));
+        }
 
         log.info("Meeting stopped: {} by lecturer: {}", stoppedMeeting.getMeetingId(), currentLecturer.getEmail());
 
         return mapToResponseDTO(stoppedMeeting);
     }
 
-    // GET ATTENDANCE REPORT DATA FOR A MEETING
-    @Transactional(readOnly = true)
-    public AttendanceReportResponseDTO generateAttendanceReport(String meetingId) {
+    // GET ATTENDANCE REPORT OF A MEETING (stored once the meeting has ended)
+    @Transactional
+    public AttendanceReportSnapshot getAttendanceReportSnapshot(String meetingId) {
         Meeting meeting = findMeetingById(meetingId);
         validateLecturerCanAccessReport(meeting);
         validateMeetingHasEnded(meeting);
 
-        AttendanceData attendanceData = collectAttendanceData(meeting);
-        return mapToAttendanceReportDTO(meeting, attendanceData);
+        return attendanceReportSnapshotService.getOrBuild(meeting);
     }
 
     // ==================== Attendance Report Helper Methods ====================
-    // Record to hold attendance data
-    private record AttendanceData(
-            List<Student> targetStudents,
-            List<Student> presentStudents,
-            List<Student> partiallyPresentStudents,
-            List<Student> absentStudents) {
-    }
-
     // Validate that the current lecturer can access the attendance report
     private void validateLecturerCanAccessReport(Meeting meeting) {
         Role currentUserRole = currentUserProvider.getCurrentUserRole();
@@ -239,103 +295,105 @@ public class MeetingService {
         validateLecturerOwnership(meeting, currentLecturer);
     }
 
-    // Collect attendance data for the meeting
-    private AttendanceData collectAttendanceData(Meeting meeting) {
-        String targetDegree = meeting.getTargetDegree();
-        int targetBatch = meeting.getTargetBatch();
+    // GET ALL SCHEDULED/LIVE MEETINGS FOR CURRENT STUDENT'S DEGREE AND BATCH, soonest first,
+    // optionally only those overlapping [from, to) and at most limit of them.
+    // Served from the cohort's cached list, which is short enough to window in memory.
+    public List<MeetingResponseDTO> getStudentMeetings(LocalDateTime from, LocalDateTime to, Integer limit) {
+        Student currentStudent = currentUserProvider.getCurrentUserAs(Student.class);
 
-        List<Student> targetStudents = studentRepository.findAllByDegreeAndBatch(targetDegree, targetBatch);
-        List<Student> presentStudents = attendanceService.getAttendanceStatusForStudentInMeeting(
-                meeting.getMeetingId(), AttendanceStatus.PRESENT);
-        List<Student> partiallyPresentStudents = attendanceService.getAttendanceStatusForStudentInMeeting(
-                meeting.getMeetingId(), AttendanceStatus.PARTIALLY_PRESENT);
+        return cohortMeetingCache.getUpcomingMeetings(currentStudent.getDegree(), currentStudent.getBatch())
+                .stream()
+                .filter(meeting -> from == null || meeting.getScheduledEndTime().isAfter(from))
+                .filter(meeting -> to == null || meeting.getScheduledStartTime().isBefore(to))
+                .limit(limit != null ? Math.clamp(limit, 1, MAX_MEETINGS_PAGE_SIZE) : Long.MAX_VALUE)
+                .toList();
+    }
 
-        List<Student> totalParticipatedStudents = attendanceService
-                .getAttendedStudentsForMeeting(meeting.getMeetingId());
+    // OPEN A STREAM OF MEETING STATUS CHANGES FOR THE CURRENT STUDENT'S DEGREE AND BATCH
+    public SseEmitter subscribeToMeetingEvents() {
+        Student currentStudent = currentUserProvider.getCurrentUserAs(Student.class);
+        return meetingEventBroadcaster.subscribe(currentStudent.getDegree(), currentStudent.getBatch());
+    }
 
-        List<String> participatedStudentIds = totalParticipatedStudents.stream()
-                .map(Student::getEmail)
-                .toList();
+    // ==================== Private Helper Methods ====================
 
-        // Filter absent students by comparing IDs
-        List<Student> absentStudents = targetStudents.stream()
-                .filter(student -> !participatedStudentIds.contains(student.getEmail()))
-                .toList();
+    // End a LIVE meeting that overran its schedule (used by MeetingAutoEndScheduler), in its
+    // own transaction so one failing meeting doesn't undo the rest of the batch.
+    // It is considered over at its scheduled end, or now if it only started after that.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean endOverrunMeeting(UUID meetingId) {
+        Meeting meeting = meetingRepository.findById(meetingId).orElse(null);
+        if (meeting == null || meeting.getStatus() != MeetingStatus.LIVE) {
+            return false;
+        }
 
-        return new AttendanceData(targetStudents, presentStudents, partiallyPresentStudents, absentStudents);
+        LocalDateTime endTime = meeting.getScheduledEndTime();
+        if (meeting.getActualStartTime() != null && meeting.getActualStartTime().isAfter(endTime)) {
+            endTime = LocalDateTime.now();
+        }
+        return endMeeting(meetingId, endTime) != null;
     }
 
-    // Calculate meeting duration in minutes
-    private long calculateMeetingDuration(LocalDateTime startTime, LocalDateTime endTime) {
-        if (startTime == null || endTime == null) {
-            return 0;
+    // End a LIVE meeting and finalize its attendance, returns the ended meeting or null if
+    // it was no longer LIVE. Only the call that actually ends the meeting finalizes attendance.
+    private Meeting endMeeting(UUID meetingId, LocalDateTime endTime) {
+        if (meetingRepository.markEnded(meetingId, endTime, LocalDateTime.now()) == 0) {
+            return null;
         }
-        return Duration.between(startTime, endTime).toMinutes();
-    }
+        Meeting endedMeeting = findMeetingById(meetingId.toString());
+        publishMeetingChanged(endedMeeting);
 
-    // Map attendance data to AttendanceReportResponseDTO
-    private AttendanceReportResponseDTO mapToAttendanceReportDTO(Meeting meeting, AttendanceData attendanceData) {
-        Lecturer lecturer = meeting.getCreatedBy();
-        String lecturerName = lecturer.getFirstName() + " " + lecturer.getLastName();
-        long durationMinutes = calculateMeetingDuration(meeting.getActualStartTime(), meeting.getActualEndTime());
-
-        AttendanceReportResponseDTO reportDTO = new AttendanceReportResponseDTO();
-        reportDTO.setMeetingId(meeting.getMeetingId().toString());
-        reportDTO.setTopic(meeting.getTitle());
-        reportDTO.setLecturerName(lecturerName);
-        reportDTO.setDegree(meeting.getTargetDegree());
-        reportDTO.setBatch(meeting.getTargetBatch());
-        reportDTO.setStartedAt(meeting.getActualStartTime());
-        reportDTO.setEndedAt(meeting.getActualEndTime());
-        reportDTO.setDurationMinutes((int) durationMinutes);
-
-        reportDTO.setTotalStudents(attendanceData.targetStudents().size());
-        reportDTO.setTotalParticipated(
-                attendanceData.presentStudents().size() + attendanceData.partiallyPresentStudents().size());
-        reportDTO.setPresentCount(attendanceData.presentStudents().size());
-        reportDTO.setPartialCount(attendanceData.partiallyPresentStudents().size());
-        reportDTO.setAbsentCount(attendanceData.absentStudents().size());
-
-        reportDTO.setPresentStudents(
-                attendanceService.mapStudentsToAttendanceDTOs(attendanceData.presentStudents(), meeting));
-        reportDTO.setPartiallyAttendedStudents(
-                attendanceService.mapStudentsToAttendanceDTOs(attendanceData.partiallyPresentStudents(), meeting));
-        reportDTO.setAbsentStudents(
-                attendanceService.mapStudentsToAttendanceDTOs(attendanceData.absentStudents(), meeting));
-
-        return reportDTO;
-    }
-
-    // GET ALL SCHEDULED/LIVE MEETINGS FOR CURRENT STUDENT'S DEGREE AND BATCH
-    @Transactional(readOnly = true)
-    public List<MeetingResponseDTO> getStudentMeetings() {
-        // 1. Get current student with business logic validation
-        Student currentStudent = currentUserProvider.getCurrentUserAs(Student.class);
+        // Finalize all attendance records for the meeting
+        attendanceService.finalizeAttendanceForMeeting(endedMeeting);
 
-        // 2. Fetch meetings based on student's Degree and Batch
-        List<Meeting> allGroupMeetings = meetingRepository.findAllByTargetDegreeAndTargetBatch(
-                currentStudent.getDegree(),
-                currentStudent.getBatch());
+        // The attendance report is snapshotted once this transaction commits
+        eventPublisher.publishEvent(new MeetingEndedEvent(meetingId));
+        return endedMeeting;
+    }
 
-        return allGroupMeetings.stream()
-                // 3. Filter: Only keep SCHEDULED or LIVE meetings
-                .filter(meeting -> meeting.getStatus() == MeetingStatus.SCHEDULED ||
-                        meeting.getStatus() == MeetingStatus.LIVE)
-                // 4. Sort: By scheduled start time (Ascending)
-                .sorted(Comparator.comparing(Meeting::getScheduledStartTime))
-                // 5. Map: Convert to DTO
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+    // Once the change commits, the cohort's cached meeting list is evicted and its students
+    // are sent the meeting's new status
+    private void publishMeetingChanged(Meeting meeting) {
+        eventPublisher.publishEvent(new CohortMeetingsChangedEvent(meeting.getTargetDegree(), meeting.getTargetBatch()));
+        eventPublisher.publishEvent(new MeetingStatusChangedEvent(
+                meeting.getMeetingId(), meeting.getTargetDegree(), meeting.getTargetBatch(), meeting.getStatus()));
     }
 
-    // ==================== Private Helper Methods ====================
+    // The same for a meeting that just moved to another cohort: both cohorts' cached lists are
+    // evicted, and the students of both are sent the meeting's status with the cohort it left
+    private void publishMeetingMoved(Meeting meeting, DepartedCohort departed) {
+        eventPublisher.publishEvent(new CohortMeetingsChangedEvent(departed.getDegree(), departed.getBatch()));
+        eventPublisher.publishEvent(new CohortMeetingsChangedEvent(meeting.getTargetDegree(), meeting.getTargetBatch()));
+        eventPublisher.publishEvent(new MeetingStatusChangedEvent(
+                meeting.getMeetingId(), meeting.getTargetDegree(), meeting.getTargetBatch(), meeting.getStatus(),
+                departed.getDegree(), departed.getBatch()));
+    }
 
-    // Automatically start meeting (set status to LIVE and set actual start time)
-    private void startMeeting(Meeting meeting) {
-        meeting.setStatus(MeetingStatus.LIVE);
-        meeting.setActualStartTime(LocalDateTime.now());
-        meetingRepository.save(meeting);
-        log.info("Meeting automatically started (LIVE): {}", meeting.getMeetingId());
+    // Automatically start meeting (set status to LIVE and set actual start time), returns the
+    // reloaded meeting. Of several concurrent lecturer joins only one starts it.
+    private Meeting startMeeting(Meeting meeting) {
+        UUID meetingId = meeting.getMeetingId();
+        boolean started = meetingRepository.markLive(meetingId, LocalDateTime.now()) == 1;
+        Meeting current = findMeetingById(meetingId.toString());
+
+        if (started) {
+            publishMeetingChanged(current);
+            attendanceService.provisionAttendanceForMeeting(current);
+            log.info("Meeting automatically started (LIVE): {}", meetingId);
+        } else if (current.getStatus() != MeetingStatus.LIVE) {
+            throw lostTransition(current);
+        }
+        return current;
+    }
+
+    // Exception for a lifecycle transition that lost against a concurrent one
+    private RuntimeException lostTransition(Meeting current) {
+        return switch (current.getStatus()) {
+            case ENDED -> new MeetingAlreadyEndedException("This meeting has already ended.");
+            case CANCELLED -> new MeetingCancelledException("This meeting has been cancelled.");
+            default -> new MeetingStateConflictException(
+                    "This meeting was changed by someone else. Please reload and try again.");
+        };
     }
 
     // Validate that the scheduled end time is after the scheduled start time
@@ -386,9 +444,14 @@ public class MeetingService {
 
     // Validate student access to the meeting
     private void validateStudentMeetingAccess(Meeting meeting) {
-        Student currentStudent = currentUserProvider.getCurrentUserAs(Student.class);
+        validateStudentCohort(meeting, currentUserProvider.getCurrentUserAs(Student.class));
+
+        // Validate meeting status
+        validateMeetingStatusForJoining(meeting);
+    }
 
-        // Validate degree and batch eligibility
+    // Validate that the meeting is intended for the student's degree and batch
+    private void validateStudentCohort(Meeting meeting, Student currentStudent) {
         if (meeting.getTargetDegree() != null &&
                 !meeting.getTargetDegree().equalsIgnoreCase(currentStudent.getDegree())) {
             throw new UnauthorizedException("This meeting is not intended for your degree.");
@@ -398,9 +461,6 @@ public class MeetingService {
                 !meeting.getTargetBatch().equals(currentStudent.getBatch())) {
             throw new UnauthorizedException("This meeting is not intended for your batch.");
         }
-
-        // Validate meeting status
-        validateMeetingStatusForJoining(meeting);
     }
 
     // Validate lecturer access to the meeting
@@ -457,31 +517,17 @@ public class MeetingService {
     }
 
     // Generated Agora token to AgoraTokenResponseDTO
-    private AgoraTokenResponseDTO mapToAgoraTokenResponse(Meeting meeting, String agoraToken) {
+    private AgoraTokenResponseDTO mapToAgoraTokenResponse(Meeting meeting, String agoraToken, User currentUser) {
         AgoraTokenResponseDTO responseDTO = new AgoraTokenResponseDTO();
         responseDTO.setMeetingId(meeting.getMeetingId().toString());
         responseDTO.setAgoraToken(agoraToken);
         responseDTO.setAppId(agoraConfig.getAppId());
-        responseDTO.setUId(agoraTokenGenerator.getCurrentUserUid());
+        responseDTO.setUId((int) currentUser.getId());
         responseDTO.setChannelName(meeting.getAgoraChannelName());
 
-        // Get current user's name and role
-        Role currentUserRole = currentUserProvider.getCurrentUserRole();
-        String userName;
-        boolean isHost;
-
-        if (currentUserRole == Role.LECTURER) {
-            Lecturer lecturer = currentUserProvider.getCurrentUserAs(Lecturer.class);
-            userName = lecturer.getFirstName() + " " + lecturer.getLastName();
-            isHost = true;
-        } else {
-            Student student = currentUserProvider.getCurrentUserAs(Student.class);
-            userName = student.getFirstName() + " " + student.getLastName();
-            isHost = false;
-        }
-
-        responseDTO.setUserName(userName);
-        responseDTO.setHost(isHost);
+        // Lecturers join as the host, students as participants
+        responseDTO.setUserName(currentUser.getFirstName() + " " + currentUser.getLastName());
+        responseDTO.setHost(currentUser.getRole() == Role.LECTURER);
 
         return responseDTO;
     }
@@ -0,0 +1,80 @@
+package uwu.connectra.connectra_backend.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uwu.connectra.connectra_backend.dtos.CursorPage;
+import uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO;
+import uwu.connectra.connectra_backend.entities.Lecturer;
+import uwu.connectra.connectra_backend.entities.Student;
+import uwu.connectra.connectra_backend.repositories.MeetingRepository;
+import uwu.connectra.connectra_backend.utils.CurrentUserProvider;
+import uwu.connectra.connectra_backend.utils.SyncCursor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delta sync of the student and lecturer meeting lists. A client fetches the full list once,
+ * keeps the {@link SyncCursor} that came with it, and from then on only asks for the meetings
+ * that changed since.
+ *
+ * <p>Change sequence numbers are drawn when a meeting is written, not when it commits, so a
+ * slow transaction can commit a number below a cursor issued meanwhile. Deltas therefore also
+ * repeat the meetings updated within {@code meeting-sync.overlap} before the cursor was issued;
+ * clients apply changes by meeting id, so a repeated meeting is harmless.</p>
+ *
+ * <p>A meeting moved to another cohort stays in the delta of the cohort it left, with its new
+ * target degree and batch, so that cohort's clients know to drop it.</p>
+ */
+@Service
+public class MeetingSyncService {
+    private final MeetingRepository meetingRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final Duration overlap;
+
+    public MeetingSyncService(
+            MeetingRepository meetingRepository,
+            CurrentUserProvider currentUserProvider,
+            @Value("${meeting-sync.overlap}") Duration overlap) {
+        this.meetingRepository = meetingRepository;
+        this.currentUserProvider = currentUserProvider;
+        this.overlap = overlap;
+    }
+
+    // Cursor covering every change committed so far; take it before reading the full list
+    public SyncCursor currentCursor() {
+        return new SyncCursor(meetingRepository.findLatestChangeSeq(), LocalDateTime.now());
+    }
+
+    // Meetings of the current student's cohort that changed since the cursor, in any status,
+    // and those moved away from it
+    @Transactional(readOnly = true)
+    public CursorPage<MeetingResponseDTO> getStudentMeetingChanges(String since) {
+        Student currentStudent = currentUserProvider.getCurrentUserAs(Student.class);
+        SyncCursor after = SyncCursor.decode(since);
+        SyncCursor next = currentCursor();
+
+        List<MeetingResponseDTO> changes = meetingRepository.findCohortMeetingChanges(
+                currentStudent.getDegree(),
+                currentStudent.getBatch(),
+                after.changeSeq(),
+                after.issuedAt().minus(overlap));
+        return new CursorPage<>(changes, next.encode());
+    }
+
+    // Meetings of the current lecturer that changed since the cursor, in any status
+    @Transactional(readOnly = true)
+    public CursorPage<MeetingResponseDTO> getLecturerMeetingChanges(String since) {
+        long lecturerId = currentUserProvider.getCurrentUserAs(Lecturer.class).getId();
+        SyncCursor after = SyncCursor.decode(since);
+        SyncCursor next = currentCursor();
+
+        List<MeetingResponseDTO> changes = meetingRepository.findLecturerMeetingChanges(
+                lecturerId,
+                after.changeSeq(),
+                after.issuedAt().minus(overlap));
+        return new CursorPage<>(changes, next.encode());
+    }
+}
@@ -0,0 +1,251 @@
+package uwu.connectra.connectra_backend.services;
+
+import io.agora.media.RtcTokenBuilder2;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import uwu.connectra.connectra_backend.config.AgoraConfig;
+import uwu.connectra.connectra_backend.dtos.AgoraTokenResponseDTO;
+import uwu.connectra.connectra_backend.entities.Meeting;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+import uwu.connectra.connectra_backend.entities.Student;
+import uwu.connectra.connectra_backend.events.MeetingStatusChangedEvent;
+import uwu.connectra.connectra_backend.exceptions.MeetingAlreadyEndedException;
+import uwu.connectra.connectra_backend.exceptions.MeetingCancelledException;
+import uwu.connectra.connectra_backend.exceptions.MeetingNotFoundException;
+import uwu.connectra.connectra_backend.repositories.MeetingRepository;
+import uwu.connectra.connectra_backend.utils.AgoraTokenGenerator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Parks students who open a meeting that has not started yet, instead of having them retry
+ * the join until it works.
+ *
+ * <p>Each waiting request holds a future that is completed when the lecturer's join takes the
+ * meeting LIVE: all waiters of the meeting are admitted together on a virtual thread, with one
+ * transaction recording their joins and one Agora token shared by the batch. A waiter that is
+ * still parked after {@code meeting-waiting-room.max-wait} is completed with {@code null} and
+ * parks again. Waiters of a meeting that is cancelled are failed with the matching exception.
+ * Meetings started or cancelled on another node reach the room through {@link ClusterEventRelay}.</p>
+ *
+ * <p>Each waiter is settled once: admitted, timed out or cancelled (the student went away),
+ * whichever comes first. Only waiters the admission settles are recorded as joined.</p>
+ *
+ * <p>Metrics: {@code meeting.waiting-room.waiters} (tagged by meeting, only while someone
+ * waits), {@code meeting.waiting-room.admission-batch} and {@code meeting.waiting-room.timeouts}.</p>
+ */
+@Service
+@Slf4j
+public class MeetingWaitingRoom {
+    private final Map<UUID, Room> rooms = new ConcurrentHashMap<>();
+    private final ExecutorService admitter = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final MeetingRepository meetingRepository;
+    private final AttendanceService attendanceService;
+    private final AgoraTokenGenerator agoraTokenGenerator;
+    private final AgoraConfig agoraConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration maxWait;
+
+    private final DistributionSummary admissionBatch;
+    private final Counter timeoutCounter;
+
+    public MeetingWaitingRoom(
+            MeetingRepository meetingRepository,
+            AttendanceService attendanceService,
+            AgoraTokenGenerator agoraTokenGenerator,
+            AgoraConfig agoraConfig,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${meeting-waiting-room.max-wait}") Duration maxWait) {
+        this.meetingRepository = meetingRepository;
+        this.attendanceService = attendanceService;
+        this.agoraTokenGenerator = agoraTokenGenerator;
+        this.agoraConfig = agoraConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxWait = maxWait;
+
+        this.admissionBatch = DistributionSummary.builder("meeting.waiting-room.admission-batch")
+                .description("Students admitted together when a meeting started")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("meeting.waiting-room.timeouts")
+                .description("Waiting room requests that ended before the meeting started")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Park a student until the meeting starts. The future completes with the student's join
+     * payload, with {@code null} after the maximum wait, or exceptionally when the meeting is
+     * cancelled or admission fails.
+     */
+    public CompletableFuture<AgoraTokenResponseDTO> park(UUID meetingId, Student student) {
+        Waiter waiter = new Waiter(student.getId(), student.getFirstName() + " " + student.getLastName(),
+                new Admission());
+
+        // Atomic per meeting: a waiter either lands in the room being admitted or in a new one
+        rooms.compute(meetingId, (id, room) -> {
+            Room current = room != null ? room : new Room(id);
+            current.waiters.add(waiter);
+            return current;
+        });
+
+        CompletableFuture.delayedExecutor(maxWait.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (waiter.admission.settle()) {
+                waiter.admission.complete(null);
+            }
+        });
+        waiter.admission.whenComplete((joinResponse, error) -> {
+            if (joinResponse == null && error == null) {
+                timeoutCounter.increment();
+            }
+            leave(meetingId, waiter);
+        });
+        return waiter.admission;
+    }
+
+    // Admit everyone waiting for the meeting, off the calling thread
+    public void admit(UUID meetingId) {
+        admitter.execute(() -> admitWaiters(meetingId));
+    }
+
+    // Let the waiters in when a meeting starts, and turn them away when it is cancelled
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMeetingStatusChanged(MeetingStatusChangedEvent event) {
+        if (event.status() != MeetingStatus.SCHEDULED && rooms.containsKey(event.meetingId())) {
+            admit(event.meetingId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rooms.values().forEach(room -> room.waiters.forEach(waiter -> {
+            if (waiter.admission.settle()) {
+                waiter.admission.complete(null);
+            }
+        }));
+        admitter.shutdown();
+    }
+
+    private void admitWaiters(UUID meetingId) {
+        // Settle the waiters first, so no one who timed out or went away is recorded as joined
+        List<Waiter> waiters = close(meetingId).stream()
+                .filter(waiter -> waiter.admission.settle())
+                .toList();
+        if (waiters.isEmpty()) {
+            return;
+        }
+
+        try {
+            // One transaction and one token for the whole batch; the token is not bound to a UID
+            Meeting meeting = transactionTemplate.execute(status -> {
+                Meeting current = meetingRepository.findById(meetingId).orElseThrow(
+                        () -> new MeetingNotFoundException("Meeting not found with ID: " + meetingId));
+                switch (current.getStatus()) {
+                    case CANCELLED -> throw new MeetingCancelledException("This meeting has been cancelled.");
+                    case ENDED -> throw new MeetingAlreadyEndedException("This meeting has already ended.");
+                    default -> {
+                    }
+                }
+                attendanceService.recordStudentAttendanceOnJoin(current, waiters.stream()
+                        .map(Waiter::studentId)
+                        .collect(Collectors.toSet()));
+                return current;
+            });
+            String agoraToken = agoraTokenGenerator.generateToken(
+                    meeting.getAgoraChannelName(),
+                    RtcTokenBuilder2.Role.ROLE_PUBLISHER);
+
+            admissionBatch.record(waiters.size());
+            waiters.forEach(waiter -> waiter.admission.complete(new AgoraTokenResponseDTO(
+                    meetingId.toString(),
+                    agoraToken,
+                    agoraConfig.getAppId(),
+                    (int) waiter.studentId(),
+                    meeting.getAgoraChannelName(),
+                    waiter.userName(),
+                    false)));
+            log.info("Admitted {} waiting students to meeting: {}", waiters.size(), meetingId);
+        } catch (RuntimeException e) {
+            log.info("Turned away {} waiting students from meeting {}: {}", waiters.size(), meetingId, e.getMessage());
+            waiters.forEach(waiter -> waiter.admission.completeExceptionally(e));
+        }
+    }
+
+    // Take the room out with its gauge, so a student parking now starts a new one
+    private List<Waiter> close(UUID meetingId) {
+        List<List<Waiter>> closed = new ArrayList<>(1);
+        rooms.computeIfPresent(meetingId, (id, room) -> {
+            meterRegistry.remove(room.gauge);
+            closed.add(List.copyOf(room.waiters));
+            return null;
+        });
+        return closed.isEmpty() ? List.of() : closed.getFirst();
+    }
+
+    private void leave(UUID meetingId, Waiter waiter) {
+        rooms.computeIfPresent(meetingId, (id, room) -> {
+            room.waiters.remove(waiter);
+            if (room.waiters.isEmpty()) {
+                meterRegistry.remove(room.gauge);
+                return null;
+            }
+            return room;
+        });
+    }
+
+    // The students waiting for one meeting, with their gauge
+    private final class Room {
+        private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+        private final Gauge gauge;
+
+        private Room(UUID meetingId) {
+            this.gauge = Gauge.builder("meeting.waiting-room.waiters", waiters, Set::size)
+                    .description("Students waiting for the meeting to start")
+                    .tag("meeting", meetingId.toString())
+                    .register(meterRegistry);
+        }
+    }
+
+    // Equal only to itself, through its future: the same student may wait from two tabs
+    private record Waiter(long studentId, String userName, Admission admission) {
+    }
+
+    // A waiter's future, settled once by whoever gets to it first. Cancelling it fails once the
+    // admission has settled it, since the student's join is being recorded
+    private static final class Admission extends CompletableFuture<AgoraTokenResponseDTO> {
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private boolean settle() {
+            return settled.compareAndSet(false, true);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return settle() && super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
@@ -3,11 +3,11 @@ package uwu.connectra.connectra_backend.services;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import uwu.connectra.connectra_backend.entities.EmailVerificationToken;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import uwu.connectra.connectra_backend.exceptions.OtpExpiredException;
 import uwu.connectra.connectra_backend.exceptions.OtpInvalidException;
-import uwu.connectra.connectra_backend.repositories.EmailVerificationTokenRepository;
+import uwu.connectra.connectra_backend.services.PendingRegistrationStore.PendingRegistration;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
@@ -16,13 +16,14 @@ import java.util.Optional;
 /**
  * Service for OTP generation and validation.
  * Handles creation, storage, and verification of one-time passwords.
+ * Pending registrations are kept in {@link PendingRegistrationStore}.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OtpService {
 
-    private final EmailVerificationTokenRepository tokenRepository;
+    private final PendingRegistrationStore pendingRegistrationStore;
 
     // OTP expiration time in minutes
     private static final int OTP_EXPIRATION_MINUTES = 10;
@@ -39,82 +40,89 @@ public class OtpService {
     }
 
     /**
-     * Creates and stores a new verification token with pending registration data.
-     * User is NOT saved to DB until OTP is verified.
+     * Creates and stores a new pending registration with a fresh OTP, replacing any
+     * previous one for the email. User is NOT saved to DB until OTP is verified.
      */
-    @Transactional
     public String createVerificationToken(String email, String firstName, String lastName, String hashedPassword) {
-        // Delete any existing tokens for this email
-        tokenRepository.deleteByEmail(email);
-
         String otp = generateOtp();
         LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(OTP_EXPIRATION_MINUTES);
 
-        EmailVerificationToken token = new EmailVerificationToken(
-                email, otp, expiresAt, firstName, lastName, hashedPassword);
-        tokenRepository.save(token);
+        pendingRegistrationStore.put(new PendingRegistration(
+                null, email, otp, firstName, lastName, hashedPassword, expiresAt));
 
         log.info("Created verification token for email: {}", email);
         return otp;
     }
 
     /**
-     * Verifies the OTP for the given email and returns the token with registration
-     * data.
+     * Verifies the OTP for the given email and returns the pending registration data.
+     * The registration is claimed in the surrounding transaction, so the same OTP can only be
+     * used once. If that transaction rolls back, the registration is put back.
      * Throws OtpExpiredException if the OTP has expired.
      * Throws OtpInvalidException if the OTP is incorrect.
      */
-    @Transactional
-    public EmailVerificationToken verifyOtpAndGetToken(String email, String otp) {
-        Optional<EmailVerificationToken> tokenOpt = tokenRepository.findTopByEmailOrderByCreatedAtDesc(email);
+    public PendingRegistration verifyOtpAndGetToken(String email, String otp) {
+        Optional<PendingRegistration> registrationOpt = pendingRegistrationStore.find(email);
 
-        if (tokenOpt.isEmpty()) {
+        if (registrationOpt.isEmpty()) {
             log.warn("No OTP found for email: {}", email);
             throw new OtpInvalidException("No verification code found. Please register again.");
         }
 
-        EmailVerificationToken token = tokenOpt.get();
-
-        // Check if already verified
-        if (token.isVerified()) {
-            log.warn("OTP already used for email: {}", email);
-            throw new OtpInvalidException("This verification code has already been used.");
-        }
+        PendingRegistration registration = registrationOpt.get();
 
         // Check if expired
-        if (token.isExpired()) {
+        if (registration.isExpired()) {
             log.warn("OTP expired for email: {}", email);
             throw new OtpExpiredException("Verification code has expired. Please register again.");
         }
 
-        // Check if OTP matches
-        if (!token.getOtp().equals(otp)) {
-            log.warn("Invalid OTP provided for email: {}", email);
-            throw new OtpInvalidException("Invalid verification code. Please try again.");
+        // Check if OTP matches, against the stored registration in case another node replaced it
+        if (!registration.otp().equals(otp)) {
+            registration = pendingRegistrationStore.reload(email)
+                    .filter(stored -> stored.otp().equals(otp))
+                    .orElseThrow(() -> {
+                        log.warn("Invalid OTP provided for email: {}", email);
+                        return new OtpInvalidException("Invalid verification code. Please try again.");
+                    });
         }
 
-        // Mark as verified
-        token.setVerified(true);
-        tokenRepository.save(token);
+        // Claim it so a concurrent request with the same OTP fails, on any node
+        PendingRegistration claimed = registration;
+        if (!pendingRegistrationStore.claim(claimed)) {
+            log.warn("OTP already used for email: {}", email);
+            throw new OtpInvalidException("This verification code has already been used.");
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        pendingRegistrationStore.restore(claimed);
+                    }
+                }
+            });
+        }
 
         log.info("OTP verified successfully for email: {}", email);
-        return token;
+        return claimed;
     }
 
     /**
      * Checks if there is a pending (unverified) registration for the email.
      */
     public boolean hasPendingRegistration(String email) {
-        Optional<EmailVerificationToken> tokenOpt = tokenRepository.findTopByEmailOrderByCreatedAtDesc(email);
-        return tokenOpt.isPresent() && !tokenOpt.get().isVerified() && !tokenOpt.get().isExpired();
+        return pendingRegistrationStore.find(email)
+                .filter(registration -> !registration.isExpired())
+                .isPresent();
     }
 
     /**
      * Deletes all tokens for an email after successful account activation.
      */
-    @Transactional
     public void cleanupTokens(String email) {
-        tokenRepository.deleteByEmail(email);
+        pendingRegistrationStore.removeAll(email);
         log.info("Cleaned up verification tokens for email: {}", email);
     }
 }
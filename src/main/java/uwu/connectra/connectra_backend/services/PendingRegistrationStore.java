@@ -0,0 +1,198 @@
+package uwu.connectra.connectra_backend.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uwu.connectra.connectra_backend.entities.EmailVerificationToken;
+import uwu.connectra.connectra_backend.repositories.EmailVerificationTokenRepository;
+import uwu.connectra.connectra_backend.utils.HierarchicalTimingWheel;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pending (not yet verified) registrations, stored in the {@code email_verification_tokens}
+ * table and cached in memory.
+ *
+ * <p>The table is the source of truth. Storing and claiming a registration write through to
+ * it in the caller's transaction, so a registration exists exactly when its row does. Reads
+ * and OTP checks are served from memory, and a {@link HierarchicalTimingWheel} drops
+ * registrations from memory when their OTP expires. The expired rows are deleted by
+ * {@link uwu.connectra.connectra_backend.schedulers.VerificationTokenPurger}.</p>
+ *
+ * <p>The cache is local to each node and can be stale when requests of one student go
+ * through several instances. Every step that relies on it is guarded by the table: a miss
+ * reads through to it, a wrong OTP is checked again against the stored registration before
+ * it is rejected, and a claim is a conditional delete of the row, so only one request on any
+ * node can use a registration.</p>
+ */
+@Service
+@Slf4j
+public class PendingRegistrationStore {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final EmailVerificationTokenRepository tokenRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, PendingRegistration> registrations = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel<PendingRegistration> expiryWheel =
+            new HierarchicalTimingWheel<>(1_000, 64, 2, System.currentTimeMillis());
+
+    public PendingRegistrationStore(
+            EmailVerificationTokenRepository tokenRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.tokenRepository = tokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("pending.registrations", registrations, Map::size)
+                .description("Pending registrations held in memory")
+                .register(meterRegistry);
+    }
+
+    // Warm the cache with the unexpired registrations
+    @PostConstruct
+    public void loadPending() {
+        List<EmailVerificationToken> tokens =
+                tokenRepository.findByExpiresAtAfterOrderByCreatedAtAsc(LocalDateTime.now());
+        for (EmailVerificationToken token : tokens) {
+            cache(PendingRegistration.from(token));
+        }
+        log.info("Loaded {} pending registrations", registrations.size());
+    }
+
+    /**
+     * Store a registration, replacing any previous one for the same email, in the caller's
+     * transaction. It is cached once that transaction commits.
+     */
+    public PendingRegistration put(PendingRegistration registration) {
+        PendingRegistration stored = transactionTemplate.execute(status -> {
+            tokenRepository.deleteByEmailIn(List.of(registration.email()));
+            return registration.withId(tokenRepository.save(registration.toToken()).getId());
+        });
+        afterCommit(() -> {
+            // Ids grow with every put, so a slower commit of an older put can't win
+            registrations.merge(stored.email(), stored, (current, next) -> current.id() > next.id() ? current : next);
+            expiryWheel.schedule(stored, stored.expiresAtMillis());
+        });
+        return stored;
+    }
+
+    // Return the current registration for the email, reading through to the table on a miss
+    public Optional<PendingRegistration> find(String email) {
+        PendingRegistration cached = registrations.get(email);
+        return cached != null ? Optional.of(cached) : reload(email);
+    }
+
+    // Read the registration from the table, in case another node replaced or claimed it
+    public Optional<PendingRegistration> reload(String email) {
+        Optional<PendingRegistration> stored = tokenRepository
+                .findFirstByEmailAndExpiresAtAfterOrderByIdDesc(email, LocalDateTime.now())
+                .map(PendingRegistration::from);
+        stored.ifPresentOrElse(this::cache, () -> registrations.remove(email));
+        return stored;
+    }
+
+    /**
+     * Delete the registration's row in the caller's transaction, and drop it from memory.
+     * Returns false if it was already claimed or replaced, on this node or another, so only
+     * one caller can use it.
+     */
+    public boolean claim(PendingRegistration registration) {
+        registrations.remove(registration.email(), registration);
+        Integer claimed = transactionTemplate.execute(status -> tokenRepository.claim(registration.id()));
+        return claimed != null && claimed > 0;
+    }
+
+    // Cache a claimed registration again after a rollback brought its row back
+    public void restore(PendingRegistration registration) {
+        if (!registration.isExpired() && registrations.putIfAbsent(registration.email(), registration) == null) {
+            expiryWheel.schedule(registration, registration.expiresAtMillis());
+        }
+    }
+
+    // Remove whatever registration exists for the email
+    public void removeAll(String email) {
+        transactionTemplate.executeWithoutResult(status -> tokenRepository.deleteByEmailIn(List.of(email)));
+        registrations.remove(email);
+    }
+
+    // Drop registrations from memory once their OTP has expired
+    @Scheduled(fixedDelay = 1_000)
+    public void expire() {
+        List<PendingRegistration> expired = new ArrayList<>();
+        expiryWheel.advanceTo(System.currentTimeMillis(), expired::add);
+        for (PendingRegistration registration : expired) {
+            registrations.remove(registration.email(), registration);
+        }
+    }
+
+    // Cache a registration read from the table, unless it is the one already cached
+    private void cache(PendingRegistration registration) {
+        PendingRegistration current = registrations.get(registration.email());
+        if (current == null || !current.id().equals(registration.id())) {
+            registrations.put(registration.email(), registration);
+            expiryWheel.schedule(registration, registration.expiresAtMillis());
+        }
+    }
+
+    // Run once the surrounding transaction commits, or right away without one
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * A registration waiting for its OTP to be verified.
+     */
+    public record PendingRegistration(
+            Long id,
+            String email,
+            String otp,
+            String firstName,
+            String lastName,
+            String hashedPassword,
+            LocalDateTime expiresAt) {
+
+        static PendingRegistration from(EmailVerificationToken token) {
+            return new PendingRegistration(token.getId(), token.getEmail(), token.getOtp(), token.getFirstName(),
+                    token.getLastName(), token.getHashedPassword(), token.getExpiresAt());
+        }
+
+        PendingRegistration withId(Long id) {
+            return new PendingRegistration(id, email, otp, firstName, lastName, hashedPassword, expiresAt);
+        }
+
+        public boolean isExpired() {
+            return LocalDateTime.now().isAfter(expiresAt);
+        }
+
+        long expiresAtMillis() {
+            return expiresAt.atZone(ZONE).toInstant().toEpochMilli();
+        }
+
+        EmailVerificationToken toToken() {
+            return new EmailVerificationToken(email, otp, expiresAt, firstName, lastName, hashedPassword);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package uwu.connectra.connectra_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link EmailClient} that only logs and records messages, for local development and tests.
+ * Enabled with {@code email.client: stub}.
+ */
+@Component
+@ConditionalOnProperty(name = "email.client", havingValue = "stub")
+@Slf4j
+public class StubEmailClient implements EmailClient {
+    private static final int MAX_RECORDED = 1000;
+
+    private final List<EmailMessage> sentMessages = new ArrayList<>();
+
+    @Override
+    public synchronized void sendBatch(String subject, String htmlTemplate, List<EmailMessage> messages) {
+        for (EmailMessage message : messages) {
+            log.info("[stub] Email '{}' to {} with params {}", subject, message.toEmail(), message.params());
+            if (sentMessages.size() == MAX_RECORDED) {
+                sentMessages.remove(0);
+            }
+            sentMessages.add(message);
+        }
+    }
+
+    public synchronized List<EmailMessage> getSentMessages() {
+        return List.copyOf(sentMessages);
+    }
+}
@@ -0,0 +1,74 @@
+package uwu.connectra.connectra_backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uwu.connectra.connectra_backend.entities.User;
+import uwu.connectra.connectra_backend.events.ClusterEventsResumedEvent;
+import uwu.connectra.connectra_backend.events.UserChangedEvent;
+import uwu.connectra.connectra_backend.repositories.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, time-limited cache of {@link User} entities keyed by email.
+ *
+ * <p>Used by the paths that still need the full user (login, token refresh and
+ * {@link CustomUserDetailsService}). Entries expire after the configured time-to-live.
+ * Whenever a user is created, updated, activated, deactivated or deleted, a
+ * {@link UserChangedEvent} evicts the entry once the change commits, on this node or,
+ * relayed by {@link ClusterEventRelay}, on any other. Every entry is dropped whenever the
+ * relay starts listening again. Hit, miss and eviction counts are published as
+ * {@code cache.*} metrics under the name {@code users}.</p>
+ *
+ * <p>Cached entities are shared between requests and must be treated as read-only.</p>
+ */
+@Service
+@Slf4j
+public class UserCacheService {
+    private final UserRepository userRepository;
+    private final Cache<String, User> cache;
+
+    public UserCacheService(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${user-cache.maximum-size}") long maximumSize,
+            @Value("${user-cache.time-to-live}") Duration timeToLive) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    // Find a user by email, loading it from the database on a miss (missing users are not cached)
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(cache.get(email, key -> userRepository.findByEmail(key).orElse(null)));
+    }
+
+    // Drop the cached entry once the change is committed, so a reload can't cache the old user again
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.email() != null) {
+            cache.invalidate(event.email());
+            log.debug("Evicted cached user: {}", event.email());
+        }
+    }
+
+    // Changes committed on other nodes may have been missed, so drop every entry
+    @EventListener
+    public void onClusterEventsResumed(ClusterEventsResumedEvent event) {
+        cache.invalidateAll();
+        log.debug("Evicted all cached users");
+    }
+}
@@ -2,14 +2,17 @@ package uwu.connectra.connectra_backend.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import uwu.connectra.connectra_backend.dtos.lecturer.LecturerResponseDTO;
 import uwu.connectra.connectra_backend.dtos.lecturer.LecturerUpdateRequestDTO;
 import uwu.connectra.connectra_backend.entities.AccountStatus;
 import uwu.connectra.connectra_backend.entities.Lecturer;
 import uwu.connectra.connectra_backend.entities.Role;
 import uwu.connectra.connectra_backend.entities.User;
+import uwu.connectra.connectra_backend.events.SecurityEpochBumpedEvent;
+import uwu.connectra.connectra_backend.events.UserChangedEvent;
 import uwu.connectra.connectra_backend.exceptions.UserNotFoundException;
 import uwu.connectra.connectra_backend.repositories.UserRepository;
 
@@ -20,7 +23,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // GET USER BY ID
     public LecturerResponseDTO getUserById(Long userId) {
@@ -40,17 +44,23 @@ public class UserService {
     }
 
     // DELETE USER BY ID (Permanent)
+    @Transactional
     public void deleteUserById(Long userId) {
         log.info("Attempting to delete user with ID: {}", userId);
-        if (!userRepository.existsById(userId)) {
-            log.warn("Deletion failed: User with ID {} not found", userId);
-            throw new UserNotFoundException("User with ID " + userId + " not found");
-        }
-        userRepository.deleteById(userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> {
+                    log.warn("Deletion failed: User with ID {} not found", userId);
+                    return new UserNotFoundException("User with ID " + userId + " not found");
+                });
+        userRepository.delete(user);
+        // Without a row, the user has no epoch any token matches
+        eventPublisher.publishEvent(new SecurityEpochBumpedEvent(userId));
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
         log.info("User with ID {} deleted successfully", userId);
     }
 
     // ACTIVATE USER ACCOUNT
+    @Transactional
     public void activateUser(Long userId) {
         log.info("Attempting to activate user with ID: {}", userId);
         User user = userRepository.findById(userId)
@@ -60,10 +70,12 @@ public class UserService {
                 });
         user.setAccountStatus(AccountStatus.ACTIVE);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
         log.info("User with ID {} activated successfully", userId);
     }
 
     // DEACTIVATE USER ACCOUNT (Soft Delete)
+    @Transactional
     public void deactivateUser(Long userId) {
         log.info("Attempting to deactivate user with ID: {}", userId);
         User user = userRepository.findById(userId)
@@ -72,7 +84,9 @@ public class UserService {
                     return new UserNotFoundException("User with ID " + userId + " not found");
                 });
         user.setAccountStatus(AccountStatus.DEACTIVATED);
+        bumpSecurityEpoch(user);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
         log.info("User with ID {} deactivated successfully", userId);
     }
 
@@ -92,6 +106,7 @@ public class UserService {
     }
 
     // Update a Lecturer Account by ID
+    @Transactional
     public LecturerResponseDTO updateLecturer(Long lecturerId, LecturerUpdateRequestDTO request) {
         log.info("Updating lecturer with ID: {}", lecturerId);
         Lecturer user = (Lecturer) userRepository.findById(lecturerId)
@@ -100,6 +115,7 @@ public class UserService {
                     return new UserNotFoundException("Lecturer with ID " + lecturerId + " not found");
                 });
 
+        String previousEmail = user.getEmail();
         user.setFirstName(request.getFirstName().trim());
         user.setLastName(request.getLastName().trim());
 
@@ -114,10 +130,14 @@ public class UserService {
         // Update password only if provided
         if (request.getPassword() != null && !request.getPassword().trim().isEmpty()) {
             log.info("Updating password for lecturer with ID: {}", lecturerId);
-            user.setHashedPassword(passwordEncoder.encode(request.getPassword().trim()));
+            user.setHashedPassword(passwordHashingService.encode(request.getPassword().trim()));
         }
 
+        // Email or password may have changed, so tokens carrying the old details are revoked
+        bumpSecurityEpoch(user);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(previousEmail));
+        eventPublisher.publishEvent(new UserChangedEvent(newEmail));
         log.info("Lecturer with ID {} updated successfully", lecturerId);
 
         return new LecturerResponseDTO(
@@ -127,4 +147,10 @@ public class UserService {
                 user.getEmail(),
                 user.getAccountStatus().name());
     }
+
+    // Revoke every access token issued to the user so far, on every node once committed
+    private void bumpSecurityEpoch(User user) {
+        user.setSecurityEpoch(user.getSecurityEpoch() + 1);
+        eventPublisher.publishEvent(new SecurityEpochBumpedEvent(user.getId()));
+    }
 }
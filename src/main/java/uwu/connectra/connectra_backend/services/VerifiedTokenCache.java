@@ -0,0 +1,101 @@
+package uwu.connectra.connectra_backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of access tokens that have already been verified, keyed by the SHA-256
+ * digest of the token.
+ *
+ * <p>Clients that poll (participants, active quiz) send the same token every few seconds.
+ * A hit returns the parsed {@link JwtService.TokenClaims} without repeating the HMAC
+ * check and the JSON claim parsing. Each entry expires together with its token, and the
+ * number of entries is capped by {@code jwt.verified-token-cache.maximum-size}. Only the
+ * digest is kept, never the raw token.</p>
+ *
+ * <p>The cache only replaces signature and expiry checks. Callers must still check the
+ * user's security epoch, so revoked tokens are rejected even while cached.</p>
+ */
+@Service
+public class VerifiedTokenCache {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final JwtService jwtService;
+    private final Cache<String, JwtService.TokenClaims> cache;
+
+    public VerifiedTokenCache(
+            JwtService jwtService,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.verified-token-cache.maximum-size}") long maximumSize) {
+        this.jwtService = jwtService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verified-tokens");
+    }
+
+    /**
+     * Return the claims of the token, verifying it only if it is not cached yet.
+     * Throws the same exceptions as {@link JwtService#parseToken(String)} on a miss.
+     */
+    public JwtService.TokenClaims parseToken(String token) {
+        String digest = digest(token);
+        JwtService.TokenClaims claims = cache.getIfPresent(digest);
+        if (claims != null) {
+            return claims;
+        }
+
+        claims = jwtService.parseToken(token);
+        // Only access tokens with an expiry are worth keeping
+        if (claims.carriesPrincipal() && claims.expiresAt() != null) {
+            cache.put(digest, claims);
+        }
+        return claims;
+    }
+
+    private static String digest(String token) {
+        MessageDigest messageDigest = SHA_256.get();
+        byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    // Expire each entry when its token expires
+    private static class TokenExpiry implements Expiry<String, JwtService.TokenClaims> {
+        @Override
+        public long expireAfterCreate(String key, JwtService.TokenClaims claims, long currentTime) {
+            long remainingMillis = claims.expiresAt().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtService.TokenClaims claims, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtService.TokenClaims claims, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
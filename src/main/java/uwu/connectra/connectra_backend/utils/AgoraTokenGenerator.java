@@ -5,7 +5,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import uwu.connectra.connectra_backend.config.AgoraConfig;
-import uwu.connectra.connectra_backend.entities.User;
 
 /**
  * Utility component responsible for generating Agora RTC tokens.
@@ -63,7 +62,6 @@ public class AgoraTokenGenerator {
 
     // Get the current user's UID as an integer
     public int getCurrentUserUid() {
-        User user = currentUserProvider.getCurrentUser();
-        return (int) user.getId();
+        return (int) currentUserProvider.getCurrentUserId();
     }
 }
@@ -0,0 +1,37 @@
+package uwu.connectra.connectra_backend.utils;
+
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import uwu.connectra.connectra_backend.entities.User;
+
+/**
+ * Request-scoped holder for the authenticated {@link User} resolved by
+ * {@link CurrentUserProvider}.
+ *
+ * <p>The user is loaded from the database at most once per request and then shared by
+ * every service that asks for it during that request. The counters record how often
+ * the user was loaded versus served from this context.</p>
+ */
+@Component
+@RequestScope
+@Getter
+public class CurrentUserContext {
+    private User user;
+    private int loadCount;
+    private int hitCount;
+
+    // Return the resolved user if it belongs to the given email, otherwise null
+    public User getUserFor(String email) {
+        if (user != null && user.getEmail().equals(email)) {
+            hitCount++;
+            return user;
+        }
+        return null;
+    }
+
+    public void setLoadedUser(User user) {
+        this.user = user;
+        loadCount++;
+    }
+}
@@ -5,6 +5,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import uwu.connectra.connectra_backend.entities.CustomUserDetails;
 import uwu.connectra.connectra_backend.entities.Role;
 import uwu.connectra.connectra_backend.entities.User;
 import uwu.connectra.connectra_backend.exceptions.UserNotFoundException;
@@ -18,10 +20,15 @@ import uwu.connectra.connectra_backend.repositories.UserRepository;
  * <p>This class acts as a centralized helper for retrieving user-related
  * data from the Spring Security context.</p>
  *
+ * <p>Within a web request the {@link User} entity is loaded once and kept in the
+ * request-scoped {@link CurrentUserContext}; the ID and role are read straight from
+ * the principal when possible.</p>
+ *
  * <p>Available methods:</p>
  * <ul>
  *     <li>{@link #getCurrentUserEmail()}</li>
  *     <li>{@link #getCurrentUser()}</li>
+ *     <li>{@link #getCurrentUserId()}</li>
  *     <li>{@link #getCurrentUserRole()}</li>
  *     <li>{@link #getCurrentUserAs(Class)}</li>
  * </ul>
@@ -32,6 +39,7 @@ import uwu.connectra.connectra_backend.repositories.UserRepository;
 public class CurrentUserProvider {
 
     private final UserRepository userRepository;
+    private final CurrentUserContext currentUserContext;
 
     // Get the email of the currently authenticated user
     public String getCurrentUserEmail() {
@@ -41,20 +49,36 @@ public class CurrentUserProvider {
         return email;
     }
 
-    // Get the currently authenticated User entity from the database
+    // Get the currently authenticated User entity (loaded at most once per request)
     public User getCurrentUser() {
         String email = getCurrentUserEmail();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    log.error("Authenticated user not found in database: {}", email);
-                    return new UserNotFoundException("User not found: " + email);
-                });
-        log.debug("Retrieved current user: {} (ID: {}, Role: {})", email, user.getId(), user.getRole());
+
+        // Outside of a web request (e.g. scheduled jobs) there is no context to share
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return loadUser(email);
+        }
+
+        User user = currentUserContext.getUserFor(email);
+        if (user == null) {
+            user = loadUser(email);
+            currentUserContext.setLoadedUser(user);
+        }
         return user;
     }
 
+    // Get the ID of the currently authenticated user
+    public long getCurrentUserId() {
+        if (getAuthentication().getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getId();
+        }
+        return getCurrentUser().getId();
+    }
+
     // Get the role of the currently authenticated user
     public Role getCurrentUserRole() {
+        if (getAuthentication().getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getRole();
+        }
         return getCurrentUser().getRole();
     }
 
@@ -74,6 +98,17 @@ public class CurrentUserProvider {
         return type.cast(user);
     }
 
+    // Load the User entity for the given email from the database
+    private User loadUser(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> {
+                    log.error("Authenticated user not found in database: {}", email);
+                    return new UserNotFoundException("User not found: " + email);
+                });
+        log.debug("Loaded current user: {} (ID: {}, Role: {})", email, user.getId(), user.getRole());
+        return user;
+    }
+
     // Helper method to get the current Authentication object
     private Authentication getAuthentication() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
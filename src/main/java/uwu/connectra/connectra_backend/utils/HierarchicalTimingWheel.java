@@ -0,0 +1,142 @@
+package uwu.connectra.connectra_backend.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for expiring many items with a coarse deadline.
+ *
+ * <p>Level 0 has one slot per tick. Each level above covers {@code slotsPerLevel} times the
+ * span of the level below, so two levels of 64 one-second slots cover about 68 minutes.
+ * Scheduling and expiring are O(1) per item. Items in higher levels are moved down
+ * (cascaded) when level 0 wraps around, as in the classic kernel timer wheel.</p>
+ *
+ * <p>Items cannot be cancelled. Callers that replace or remove an item should ignore it
+ * when it expires (for example by comparing it with the current value).</p>
+ *
+ * <p>All methods are synchronized; the wheel is meant to be advanced by one scheduled thread
+ * while request threads schedule items.</p>
+ */
+public class HierarchicalTimingWheel<T> {
+    private final long tickMillis;
+    private final int bitsPerLevel;
+    private final int slotMask;
+    // levels.get(level).get(slot) holds the entries of one slot
+    private final List<List<List<Entry<T>>>> levels;
+    private final long maxDelayTicks;
+
+    // Next tick to be processed
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int slotsPerLevel, int levelCount, long startMillis) {
+        if (Integer.bitCount(slotsPerLevel) != 1 || levelCount < 1 || tickMillis <= 0) {
+            throw new IllegalArgumentException("Slots per level must be a power of two, with at least one level");
+        }
+        this.tickMillis = tickMillis;
+        this.bitsPerLevel = Integer.numberOfTrailingZeros(slotsPerLevel);
+        this.slotMask = slotsPerLevel - 1;
+        this.levels = new ArrayList<>(levelCount);
+        for (int level = 0; level < levelCount; level++) {
+            List<List<Entry<T>>> slots = new ArrayList<>(slotsPerLevel);
+            for (int i = 0; i < slotsPerLevel; i++) {
+                slots.add(new ArrayList<>());
+            }
+            levels.add(slots);
+        }
+        this.maxDelayTicks = (1L << (bitsPerLevel * levelCount)) - 1;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    // Schedule an item to expire at the given wall-clock time (rounded up to the next tick)
+    public synchronized void schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        place(new Entry<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Process every tick up to the given time, passing each expired item to the callback.
+     * The callback runs while the wheel is locked and must not schedule new items.
+     *
+     * @return number of expired items
+     */
+    public synchronized int advanceTo(long nowMillis, Consumer<T> onExpire) {
+        long targetTick = nowMillis / tickMillis;
+        int expired = 0;
+        while (currentTick <= targetTick) {
+            int index = (int) (currentTick & slotMask);
+            if (index == 0) {
+                cascade(1);
+            }
+
+            List<Entry<T>> slot = levels.getFirst().get(index);
+            if (!slot.isEmpty()) {
+                List<Entry<T>> entries = new ArrayList<>(slot);
+                slot.clear();
+                currentTick++;
+                for (Entry<T> entry : entries) {
+                    if (entry.deadlineTick() < currentTick) {
+                        onExpire.accept(entry.item());
+                        expired++;
+                        size--;
+                    } else {
+                        // Parked in the farthest slot because it was out of range, not due yet
+                        place(entry);
+                    }
+                }
+            } else {
+                currentTick++;
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Move the current slot of the given level down, cascading further up when it wraps as well
+    private void cascade(int level) {
+        if (level >= levels.size()) {
+            return;
+        }
+        int index = (int) ((currentTick >>> (bitsPerLevel * level)) & slotMask);
+        if (index == 0) {
+            cascade(level + 1);
+        }
+
+        List<Entry<T>> slot = levels.get(level).get(index);
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        for (Entry<T> entry : entries) {
+            place(entry);
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        // Past deadlines go into the slot processed next
+        long deadlineTick = Math.max(entry.deadlineTick(), currentTick);
+        long delay = deadlineTick - currentTick;
+
+        // Items beyond the wheel's range wait in the farthest slot and are re-placed on cascade
+        if (delay > maxDelayTicks) {
+            deadlineTick = currentTick + maxDelayTicks;
+            delay = maxDelayTicks;
+        }
+
+        int level = 0;
+        while (level < levels.size() - 1 && delay >= (1L << (bitsPerLevel * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((deadlineTick >>> (bitsPerLevel * level)) & slotMask);
+        levels.get(level).get(index).add(entry);
+    }
+
+    private record Entry<T>(T item, long deadlineTick) {
+    }
+}
@@ -0,0 +1,47 @@
+package uwu.connectra.connectra_backend.utils;
+
+import uwu.connectra.connectra_backend.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a list ordered by (timestamp, id), handed to clients as an opaque URL-safe
+ * string. The next page starts right after the row the cursor points at, so pages stay
+ * stable while rows are added and cost the same however deep the client pages.
+ */
+public record KeysetCursor(LocalDateTime timestamp, UUID id) {
+    private static final String INVALID_MESSAGE = "Invalid page cursor.";
+
+    // Cursor pointing at the given row
+    public static KeysetCursor after(LocalDateTime timestamp, UUID id) {
+        return new KeysetCursor(timestamp, id);
+    }
+
+    // Decode a cursor received from a client, null when the first page is requested
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            if (separator < 0) {
+                throw new BadRequestException(INVALID_MESSAGE);
+            }
+            return new KeysetCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException(INVALID_MESSAGE);
+        }
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
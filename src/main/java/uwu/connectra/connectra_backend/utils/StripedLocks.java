@@ -0,0 +1,42 @@
+package uwu.connectra.connectra_backend.utils;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size table of {@link ReentrantLock}s. Keys are hashed onto a stripe, so memory does
+ * not grow with the number of keys; unrelated keys occasionally share a stripe.
+ *
+ * <p>Code that needs several stripes at once must take them in ascending index order to
+ * avoid deadlocks.</p>
+ */
+public class StripedLocks {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripeCount) {
+        int size = powerOfTwoStripes(stripeCount);
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    // Round a stripe count up to a power of two (at least 1) so the index is a simple mask
+    static int powerOfTwoStripes(int stripeCount) {
+        return stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+    }
+
+    // Stripe index for a key hash
+    public int stripeFor(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    public ReentrantLock get(int stripe) {
+        return locks[stripe];
+    }
+
+    public int size() {
+        return locks.length;
+    }
+}
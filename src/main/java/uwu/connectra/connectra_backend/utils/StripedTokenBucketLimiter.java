@@ -0,0 +1,156 @@
+package uwu.connectra.connectra_backend.utils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter keyed by string (email, client IP, ...).
+ *
+ * <p>Buckets are spread over a fixed number of lock stripes, each guarding its own
+ * {@link HashMap}, so unrelated keys rarely contend. Accepting a request for a key that
+ * already has a bucket only does a map lookup and some arithmetic under the stripe lock,
+ * without allocating.</p>
+ *
+ * <p>Memory is bounded in two ways: buckets idle for longer than the idle timeout are
+ * dropped by {@link #evictIdle()}, and a stripe never holds more than
+ * {@code maxKeysPerStripe} buckets. When a stripe is full even after evicting idle
+ * buckets, new keys are let through untracked rather than locking out legitimate users.</p>
+ */
+public class StripedTokenBucketLimiter {
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long idleTimeoutNanos;
+    private final int maxKeysPerStripe;
+    private final LongSupplier nanoClock;
+
+    public StripedTokenBucketLimiter(int stripeCount, long capacity, Duration refillPeriod,
+            Duration idleTimeout, int maxKeysPerStripe) {
+        this(stripeCount, capacity, refillPeriod, idleTimeout, maxKeysPerStripe, System::nanoTime);
+    }
+
+    StripedTokenBucketLimiter(int stripeCount, long capacity, Duration refillPeriod,
+            Duration idleTimeout, int maxKeysPerStripe, LongSupplier nanoClock) {
+        if (capacity <= 0 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Capacity and refill period must be positive");
+        }
+
+        int size = StripedLocks.powerOfTwoStripes(stripeCount);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+        this.capacity = capacity;
+        this.tokensPerNano = capacity / (double) refillPeriod.toNanos();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxKeysPerStripe = maxKeysPerStripe;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Take one token from the key's bucket.
+     *
+     * @return 0 if the request is allowed, otherwise the number of nanoseconds until the
+     *         next token becomes available
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= maxKeysPerStripe) {
+                    evictIdle(stripe, now);
+                    if (stripe.buckets.size() >= maxKeysPerStripe) {
+                        return 0;
+                    }
+                }
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            }
+
+            // Refill for the time elapsed since the last request, up to the capacity
+            double tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefillNanos) * tokensPerNano);
+            bucket.lastRefillNanos = now;
+
+            if (tokens >= 1.0) {
+                bucket.tokens = tokens - 1.0;
+                return 0;
+            }
+
+            bucket.tokens = tokens;
+            return Math.max(1L, (long) Math.ceil((1.0 - tokens) / tokensPerNano));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Drop every bucket that has not been touched within the idle timeout
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                evicted += evictIdle(stripe, now);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return evicted;
+    }
+
+    // Number of keys currently tracked
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private int evictIdle(Stripe stripe, long now) {
+        int evicted = 0;
+        Iterator<Map.Entry<String, Bucket>> iterator = stripe.buckets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().getValue().lastRefillNanos >= idleTimeoutNanos) {
+                iterator.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Bucket> buckets = new HashMap<>();
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private Bucket(double tokens, long lastRefillNanos) {
+            this.tokens = tokens;
+            this.lastRefillNanos = lastRefillNanos;
+        }
+    }
+}
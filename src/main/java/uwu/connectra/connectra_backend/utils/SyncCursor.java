@@ -0,0 +1,40 @@
+package uwu.connectra.connectra_backend.utils;
+
+import uwu.connectra.connectra_backend.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Point up to which a client has synced a meeting list: the newest meeting change sequence
+ * and the time the cursor was issued. Handed to clients as an opaque URL-safe string in the
+ * {@value #HEADER} response header, and sent back as {@code since} to fetch only what changed.
+ */
+public record SyncCursor(long changeSeq, LocalDateTime issuedAt) {
+    public static final String HEADER = "X-Sync-Cursor";
+
+    private static final String INVALID_MESSAGE = "Invalid sync cursor.";
+
+    // Decode a cursor received from a client
+    public static SyncCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            if (separator < 0) {
+                throw new BadRequestException(INVALID_MESSAGE);
+            }
+            return new SyncCursor(
+                    Long.parseLong(decoded.substring(0, separator)),
+                    LocalDateTime.parse(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException(INVALID_MESSAGE);
+        }
+    }
+
+    public String encode() {
+        String raw = changeSeq + "|" + issuedAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,102 @@
+package uwu.connectra.connectra_backend.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uwu.connectra.connectra_backend.entities.Role;
+import uwu.connectra.connectra_backend.entities.Student;
+import uwu.connectra.connectra_backend.services.JwtService;
+import uwu.connectra.connectra_backend.services.VerifiedTokenCache;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares the per-request cost of the old JWT validation path (extract email, then
+ * signature, expiry and email checks, each re-parsing the token with a freshly built key)
+ * with the single-parse {@link JwtService#parseToken(String)} path and a cache hit in
+ * {@link VerifiedTokenCache}.
+ *
+ * <p>Run with: {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uwu.connectra.connectra_backend.benchmarks.JwtValidationBenchmark}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+    private static final String EMAIL = "ict22082@std.uwu.ac.lk";
+
+    private String jwtSecret;
+    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtSecret = Encoders.BASE64.encode(Jwts.SIG.HS256.key().build().getEncoded());
+        jwtService = new JwtService(jwtSecret, 30, 30);
+        verifiedTokenCache = new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), 1_000);
+        Student student = new Student();
+        student.setId(42L);
+        student.setEmail(EMAIL);
+        student.setRole(Role.STUDENT);
+        student.setDegree("ICT");
+        student.setBatch(22);
+        token = jwtService.generateAccessToken(student, 0);
+    }
+
+    @Benchmark
+    public boolean legacyFourParses() {
+        String email = legacyExtractClaim(Claims::getSubject);
+        return legacySignatureValid()
+                && !legacyExtractClaim(Claims::getExpiration).before(new Date())
+                && legacyExtractClaim(Claims::getSubject).equals(email);
+    }
+
+    @Benchmark
+    public boolean singleParse() {
+        JwtService.TokenClaims claims = jwtService.parseToken(token);
+        return EMAIL.equals(claims.email());
+    }
+
+    @Benchmark
+    public boolean cachedParse() {
+        JwtService.TokenClaims claims = verifiedTokenCache.parseToken(token);
+        return EMAIL.equals(claims.email());
+    }
+
+    // Mirrors the previous JwtService implementation: a new key and parser for every call
+    private SecretKey legacyKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    }
+
+    private boolean legacySignatureValid() {
+        Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token);
+        return true;
+    }
+
+    private <T> T legacyExtractClaim(Function<Claims, T> claimsResolver) {
+        Claims claims = Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token).getPayload();
+        return claimsResolver.apply(claims);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
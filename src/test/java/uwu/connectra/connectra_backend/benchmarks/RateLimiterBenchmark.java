@@ -0,0 +1,63 @@
+package uwu.connectra.connectra_backend.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uwu.connectra.connectra_backend.utils.StripedTokenBucketLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link StripedTokenBucketLimiter#tryAcquire(String)} on the accept path,
+ * with several threads spread over many keys and with every thread hitting one hot key.
+ * Run with {@code -prof gc} to confirm the accept path does not allocate.
+ *
+ * <p>Run with: {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uwu.connectra.connectra_backend.benchmarks.RateLimiterBenchmark}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimiterBenchmark {
+    private static final int KEY_COUNT = 10_000;
+
+    private StripedTokenBucketLimiter limiter;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        // Capacity high enough that every request is accepted
+        limiter = new StripedTokenBucketLimiter(64, Long.MAX_VALUE / 4, Duration.ofNanos(1),
+                Duration.ofMinutes(15), 1_000);
+        keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = "student" + i + "@std.uwu.ac.lk";
+            limiter.tryAcquire(keys[i]);
+        }
+    }
+
+    @Benchmark
+    public long manyKeys() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)]);
+    }
+
+    @Benchmark
+    public long singleHotKey() {
+        return limiter.tryAcquire(keys[0]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,140 @@
+package uwu.connectra.connectra_backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthRateLimitFilterTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AuthRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        AuthRateLimitConfig.Endpoint login = new AuthRateLimitConfig.Endpoint();
+        login.setPath("/api/auth/login");
+        login.setPerIp(limit(3));
+        login.setPerEmail(limit(2));
+
+        AuthRateLimitConfig config = new AuthRateLimitConfig();
+        config.setEndpoints(Map.of("login", login));
+        config.setTrustedIps(List.of("192.168.10.0/24"));
+        filter = new AuthRateLimitFilter(new ObjectMapper(), config, meterRegistry);
+    }
+
+    @Test
+    void limitsEachEmailSeparately() throws Exception {
+        assertThat(login("10.0.0.1", "a@std.uwu.ac.lk").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.2", "A@std.uwu.ac.lk ").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = login("10.0.0.3", "a@std.uwu.ac.lk");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("30");
+        assertThat(login("10.0.0.3", "b@std.uwu.ac.lk").getStatus()).isEqualTo(200);
+        assertThat(rejectedCount("email")).isEqualTo(1);
+    }
+
+    @Test
+    void limitsEachClientIpAcrossEmails() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(login("10.0.0.1", "student" + i + "@std.uwu.ac.lk").getStatus()).isEqualTo(200);
+        }
+
+        assertThat(login("10.0.0.1", "other@std.uwu.ac.lk").getStatus()).isEqualTo(429);
+        assertThat(login("10.0.0.2", "other@std.uwu.ac.lk").getStatus()).isEqualTo(200);
+        assertThat(rejectedCount("ip")).isEqualTo(1);
+    }
+
+    @Test
+    void trustedIpsSkipOnlyThePerIpLimit() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(login("192.168.10.7", "student" + i + "@std.uwu.ac.lk").getStatus()).isEqualTo(200);
+        }
+        assertThat(login("192.168.10.7", "student0@std.uwu.ac.lk").getStatus()).isEqualTo(200);
+
+        assertThat(login("192.168.10.7", "student0@std.uwu.ac.lk").getStatus()).isEqualTo(429);
+        assertThat(rejectedCount("email")).isEqualTo(1);
+        assertThat(rejectedCount("ip")).isZero();
+    }
+
+    @Test
+    void downstreamCanReadTheBufferedBody() throws Exception {
+        byte[][] read = new byte[2][];
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response)
+                    throws IOException {
+                read[0] = request.getInputStream().readAllBytes();
+
+                // Non-blocking reads get the whole body in one callback
+                ServletInputStream inputStream = request.getInputStream();
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                inputStream.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        while (inputStream.isReady() && !inputStream.isFinished()) {
+                            bytes.write(inputStream.read());
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        read[1] = bytes.toByteArray();
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+                });
+            }
+        };
+
+        filter.doFilter(request("10.0.0.1", "a@std.uwu.ac.lk"), new MockHttpServletResponse(), chain);
+
+        String body = "{\"email\":\"a@std.uwu.ac.lk\",\"password\":\"secret\"}";
+        assertThat(new String(read[0], StandardCharsets.UTF_8)).isEqualTo(body);
+        assertThat(new String(read[1], StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    private MockHttpServletResponse login(String ip, String email) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(ip, email), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String ip, String email) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServletPath("/api/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"email\":\"" + email + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    // Refilled over a minute, so a rejected request waits 60 / capacity seconds
+    private static AuthRateLimitConfig.Limit limit(long capacity) {
+        AuthRateLimitConfig.Limit limit = new AuthRateLimitConfig.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPeriod(Duration.ofMinutes(1));
+        return limit;
+    }
+
+    private double rejectedCount(String key) {
+        return meterRegistry.get("auth.rate-limit.rejected").tag("key", key).counter().count();
+    }
+}
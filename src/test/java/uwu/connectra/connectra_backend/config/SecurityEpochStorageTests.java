@@ -0,0 +1,63 @@
+package uwu.connectra.connectra_backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uwu.connectra.connectra_backend.events.ClusterEventsResumedEvent;
+import uwu.connectra.connectra_backend.events.SecurityEpochBumpedEvent;
+import uwu.connectra.connectra_backend.repositories.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class SecurityEpochStorageTests {
+    private UserRepository userRepository;
+    private SecurityEpochStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        storage = new SecurityEpochStorage(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void tokensOlderThanTheStoredEpochAreRevoked() {
+        when(userRepository.findSecurityEpochById(1L)).thenReturn(Optional.of(0L));
+        assertThat(storage.isCurrent(1L, 0)).isTrue();
+
+        // Bumped on another node: the cached epoch holds until the bump is relayed here
+        when(userRepository.findSecurityEpochById(1L)).thenReturn(Optional.of(1L));
+        assertThat(storage.isCurrent(1L, 0)).isTrue();
+        storage.onSecurityEpochBumped(new SecurityEpochBumpedEvent(1L));
+
+        assertThat(storage.isCurrent(1L, 0)).isFalse();
+        assertThat(storage.isCurrent(1L, 1)).isTrue();
+        assertThat(storage.currentEpoch(1L)).isEqualTo(1);
+        verify(userRepository, times(2)).findSecurityEpochById(1L);
+    }
+
+    @Test
+    void deletedUsersHaveNoCurrentTokens() {
+        when(userRepository.findSecurityEpochById(2L)).thenReturn(Optional.empty());
+
+        assertThat(storage.isCurrent(2L, 0)).isFalse();
+        assertThat(storage.isCurrent(2L, 1_000)).isFalse();
+    }
+
+    @Test
+    void resumingClusterEventsDropsEveryEpoch() {
+        when(userRepository.findSecurityEpochById(anyLong())).thenReturn(Optional.of(0L));
+        storage.currentEpoch(1L);
+        storage.currentEpoch(2L);
+
+        storage.onClusterEventsResumed(new ClusterEventsResumedEvent());
+        storage.currentEpoch(1L);
+        storage.currentEpoch(2L);
+
+        verify(userRepository, times(2)).findSecurityEpochById(1L);
+        verify(userRepository, times(2)).findSecurityEpochById(2L);
+    }
+}
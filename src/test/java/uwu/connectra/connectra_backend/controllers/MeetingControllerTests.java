@@ -0,0 +1,126 @@
+package uwu.connectra.connectra_backend.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import uwu.connectra.connectra_backend.dtos.AgoraTokenResponseDTO;
+import uwu.connectra.connectra_backend.dtos.AttendanceReportResponseDTO;
+import uwu.connectra.connectra_backend.entities.AttendanceReportSnapshot;
+import uwu.connectra.connectra_backend.entities.Meeting;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+import uwu.connectra.connectra_backend.repositories.AttendanceReportSnapshotRepository;
+import uwu.connectra.connectra_backend.repositories.MeetingRepository;
+import uwu.connectra.connectra_backend.services.*;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The attendance report endpoint serves the stored snapshot: gzipped bytes as they are when
+ * the client accepts gzip, the plain JSON otherwise, and 304 for a matching ETag. A student
+ * whose wait request times out gives up their place in the waiting room.
+ */
+class MeetingControllerTests {
+    private MockMvc mockMvc;
+    private AttendanceReportSnapshot snapshot;
+    private String url;
+    private String waitUrl;
+    private CompletableFuture<AgoraTokenResponseDTO> admission;
+
+    @BeforeEach
+    void setUp() {
+        Meeting meeting = new Meeting();
+        meeting.setMeetingId(UUID.randomUUID());
+        meeting.setStatus(MeetingStatus.ENDED);
+        url = "/api/meeting/" + meeting.getMeetingId() + "/attendance";
+
+        AttendanceReportResponseDTO report = new AttendanceReportResponseDTO();
+        report.setMeetingId(meeting.getMeetingId().toString());
+        report.setTotalStudents(42);
+        AttendanceReportBuilder attendanceReportBuilder = mock(AttendanceReportBuilder.class);
+        when(attendanceReportBuilder.build(meeting)).thenReturn(report);
+
+        AttendanceReportSnapshotRepository snapshotRepository = mock(AttendanceReportSnapshotRepository.class);
+        when(snapshotRepository.findById(meeting.getMeetingId())).thenReturn(Optional.empty());
+        when(snapshotRepository.insertIfAbsent(any(), any(), any(), any())).thenReturn(1);
+        AttendanceReportSnapshotService snapshotService = new AttendanceReportSnapshotService(snapshotRepository,
+                mock(MeetingRepository.class), attendanceReportBuilder, new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry());
+        snapshot = snapshotService.getOrBuild(meeting);
+
+        MeetingService meetingService = mock(MeetingService.class);
+        when(meetingService.getAttendanceReportSnapshot(meeting.getMeetingId().toString())).thenReturn(snapshot);
+        waitUrl = "/api/meeting/" + meeting.getMeetingId() + "/wait";
+        admission = new CompletableFuture<>();
+        when(meetingService.waitForMeeting(meeting.getMeetingId().toString())).thenReturn(admission);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new MeetingController(
+                meetingService, snapshotService, mock(MeetingSyncService.class), mock(QuizService.class)))
+                .build();
+    }
+
+    @Test
+    void clientsAcceptingGzipGetTheStoredBytes() throws Exception {
+        byte[] body = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.getEtag()))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(body).isEqualTo(snapshot.getGzippedBody());
+    }
+
+    @Test
+    void otherClientsGetPlainJson() throws Exception {
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.getEtag()))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.totalStudents").value(42));
+    }
+
+    @Test
+    void matchingEtagIsNotModified() throws Exception {
+        mockMvc.perform(get(url)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, snapshot.getEtag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.getEtag()))
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void timedOutWaitGivesUpTheAdmission() throws Exception {
+        MvcResult result = mockMvc.perform(get(waitUrl))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        assertThat(admission.isCancelled()).isTrue();
+    }
+}
@@ -0,0 +1,103 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import uwu.connectra.connectra_backend.dtos.StudentAttendanceHistoryResponseDTO;
+import uwu.connectra.connectra_backend.entities.*;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Attendance history is read page by page from one query. Skipped when Docker is not
+ * available.
+ */
+class AttendanceHistoryQueryTests extends PostgresRepositoryTest {
+    private static final int MEETINGS = 7;
+
+    private Student student;
+    private final List<Meeting> meetings = new ArrayList<>();
+
+    // Ended cohort meetings, one of them scheduled at the same time as the next. The student
+    // was present at every even meeting and has no record for the odd ones.
+    @BeforeEach
+    void setUp() {
+        student = students(degree, 1).getFirst();
+
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(MEETINGS);
+        for (int i = 0; i < MEETINGS; i++) {
+            LocalDateTime start = base.plusDays(i == 3 ? 2 : i);
+            Meeting meeting = newMeeting(lecturer, degree, start, MeetingStatus.ENDED);
+            meeting.setTitle("Lecture " + i);
+            meeting.setActualStartTime(start);
+            meeting.setActualEndTime(start.plusMinutes(50));
+            meetings.add(meetingRepository.save(meeting));
+
+            if (i % 2 == 0) {
+                Attendance attendance = new Attendance();
+                attendance.setStudent(student);
+                attendance.setMeeting(meeting);
+                attendance.setJoinedAt(start);
+                attendance.setLeftAt(start.plusMinutes(50));
+                attendance.setTotalDurationInMinutes(50);
+                attendance.setAttendancePercentage(100.0);
+                attendance.setAttendanceStatus(AttendanceStatus.PRESENT);
+                attendanceRepository.save(attendance);
+            }
+        }
+    }
+
+    @Test
+    void pagesWalkTheWholeHistoryNewestFirst() {
+        List<StudentAttendanceHistoryResponseDTO> walked = new ArrayList<>();
+        List<StudentAttendanceHistoryResponseDTO> page = history(null, null, null);
+        while (!page.isEmpty()) {
+            assertThat(page).hasSizeLessThanOrEqualTo(3);
+            walked.addAll(page);
+            StudentAttendanceHistoryResponseDTO last = page.get(page.size() - 1);
+            page = history(null, last.getMeetingDate(), last.getMeetingId());
+        }
+
+        assertThat(walked).hasSize(MEETINGS)
+                .extracting(StudentAttendanceHistoryResponseDTO::getMeetingId)
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(meetings.stream().map(Meeting::getMeetingId).toList());
+        assertThat(walked).isSortedAccordingTo((a, b) -> b.getMeetingDate().compareTo(a.getMeetingDate()));
+        assertThat(walked).allSatisfy(row -> {
+            assertThat(row.getLecturerName()).isEqualTo("Ada Lovelace");
+            assertThat(row.getMeetingDuration()).isEqualTo(50);
+        });
+    }
+
+    @Test
+    void meetingsWithoutARecordCountAsAbsent() {
+        List<StudentAttendanceHistoryResponseDTO> absent = new ArrayList<>();
+        List<StudentAttendanceHistoryResponseDTO> page = history(AttendanceStatus.ABSENT, null, null);
+        while (!page.isEmpty()) {
+            absent.addAll(page);
+            StudentAttendanceHistoryResponseDTO last = page.get(page.size() - 1);
+            page = history(AttendanceStatus.ABSENT, last.getMeetingDate(), last.getMeetingId());
+        }
+
+        assertThat(absent).hasSize(MEETINGS / 2).allSatisfy(row -> {
+            assertThat(row.getAttendanceStatus()).isEqualTo("ABSENT");
+            assertThat(row.getTotalTimeInMinutes()).isZero();
+            assertThat(row.getAttendancePercentage()).isZero();
+            assertThat(row.getJoinedAt()).isNull();
+        });
+        assertThat(history(AttendanceStatus.PRESENT, null, null))
+                .allSatisfy(row -> assertThat(row.getTotalTimeInMinutes()).isEqualTo(50));
+    }
+
+    private List<StudentAttendanceHistoryResponseDTO> history(
+            AttendanceStatus status, LocalDateTime afterDate, UUID afterId) {
+        return attendanceRepository.findAttendanceHistory(
+                student.getId(), degree, BATCH, status, afterDate, afterId, Limit.of(3));
+    }
+}
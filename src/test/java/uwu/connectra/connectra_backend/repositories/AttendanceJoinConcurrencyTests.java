@@ -0,0 +1,177 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import uwu.connectra.connectra_backend.entities.*;
+import uwu.connectra.connectra_backend.services.AttendanceLockService;
+import uwu.connectra.connectra_backend.services.AttendanceService;
+import uwu.connectra.connectra_backend.utils.CurrentUserProvider;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Join storm against a real PostgreSQL: many students joining the same meeting at once,
+ * through {@link AttendanceService} and its attendance locks. Every join has to get its lock
+ * within {@code attendance-locks.timeout}, or the student would be told to try again.
+ * Skipped when Docker is not available.
+ */
+@Import({AttendanceService.class, AttendanceLockService.class, AttendanceJoinConcurrencyTests.Beans.class})
+class AttendanceJoinConcurrencyTests extends PostgresRepositoryTest {
+    private static final int STUDENTS = 1_000;
+
+    @Autowired
+    private AttendanceService attendanceService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @MockitoBean
+    private CurrentUserProvider currentUserProvider;
+
+    // The student each storm thread joins as
+    private final ThreadLocal<Long> currentStudentId = new ThreadLocal<>();
+
+    private Meeting meeting;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        when(currentUserProvider.getCurrentUserId()).thenAnswer(invocation -> currentStudentId.get());
+
+        meeting = newMeeting(lecturer, degree, LocalDateTime.now(), MeetingStatus.LIVE);
+        meeting.setTitle("Join storm");
+        meeting.setScheduledEndTime(LocalDateTime.now().plusHours(2));
+        meeting = meetingRepository.save(meeting);
+
+        studentIds = students(degree, STUDENTS).stream().map(User::getId).toList();
+    }
+
+    @Test
+    void simultaneousJoinsCreateOneRowPerStudent() throws Exception {
+        joinStorm(studentIds);
+        assertThat(attendanceRepository.findAllByMeeting(meeting)).hasSize(STUDENTS);
+
+        // Everyone rejoins at once (e.g. after a network drop): still one row each
+        joinStorm(studentIds);
+        List<Attendance> attendances = attendanceRepository.findAllByMeeting(meeting);
+        assertThat(attendances).hasSize(STUDENTS);
+        assertThat(attendances).allSatisfy(attendance ->
+                assertThat(attendance.getLastJoinedAt()).isAfterOrEqualTo(attendance.getJoinedAt()));
+    }
+
+    @Test
+    void simultaneousJoinsBySameStudentCreateOneRow() throws Exception {
+        Long studentId = studentIds.get(0);
+        joinStorm(java.util.Collections.nCopies(200, studentId));
+
+        assertThat(attendanceRepository.findAllByMeeting(meeting)).hasSize(1);
+        // The joins queued on the student's attendance lock
+        assertThat(meterRegistry.get("attendance.lock.contended").counter().count()).isPositive();
+    }
+
+    @Test
+    void joinsAfterGoingLiveFillInTheProvisionedRows() throws Exception {
+        int provisioned = transactionTemplate.execute(status ->
+                attendanceRepository.insertAbsentForCohort(meeting.getMeetingId(), degree, BATCH, LocalDateTime.now()));
+        assertThat(provisioned).isEqualTo(STUDENTS);
+        assertThat(attendanceRepository.findAllByMeeting(meeting))
+                .allSatisfy(attendance -> {
+                    assertThat(attendance.getAttendanceStatus()).isEqualTo(AttendanceStatus.ABSENT);
+                    assertThat(attendance.getJoinedAt()).isNull();
+                });
+
+        // Half the cohort joins: their rows are updated, the rest stay ABSENT
+        joinStorm(studentIds.subList(0, STUDENTS / 2));
+        List<Attendance> attendances = attendanceRepository.findAllByMeeting(meeting);
+        assertThat(attendances).hasSize(STUDENTS);
+        assertThat(attendances).filteredOn(attendance -> attendance.getJoinedAt() != null)
+                .hasSize(STUDENTS / 2)
+                .allSatisfy(attendance -> {
+                    assertThat(attendance.getLastJoinedAt()).isEqualTo(attendance.getJoinedAt());
+                    assertThat(attendance.getTotalDurationInMinutes()).isZero();
+                });
+    }
+
+    @Test
+    void finalizationClosesOpenSessionsAndScoresTheWholeCohort() throws Exception {
+        transactionTemplate.executeWithoutResult(status ->
+                attendanceRepository.insertAbsentForCohort(meeting.getMeetingId(), degree, BATCH, LocalDateTime.now()));
+        joinStorm(studentIds.subList(0, STUDENTS / 2));
+
+        // The meeting ran 50 minutes and the joined half stayed for 45 of them
+        LocalDateTime endTime = LocalDateTime.now().plusMinutes(45).plusSeconds(30).truncatedTo(ChronoUnit.SECONDS);
+        transactionTemplate.executeWithoutResult(status -> {
+            attendanceRepository.closeOpenSessions(meeting.getMeetingId(), endTime, LocalDateTime.now());
+            attendanceRepository.scoreAttendance(meeting.getMeetingId(), 50, LocalDateTime.now());
+        });
+
+        List<Attendance> attendances = attendanceRepository.findAllByMeeting(meeting);
+        assertThat(attendances).filteredOn(attendance -> attendance.getJoinedAt() != null)
+                .hasSize(STUDENTS / 2)
+                .allSatisfy(attendance -> {
+                    assertThat(attendance.getLeftAt()).isEqualTo(endTime);
+                    assertThat(attendance.getTotalDurationInMinutes()).isEqualTo(45);
+                    assertThat(attendance.getAttendancePercentage()).isEqualTo(90.0);
+                    assertThat(attendance.getAttendanceStatus()).isEqualTo(AttendanceStatus.PRESENT);
+                });
+        assertThat(attendances).filteredOn(attendance -> attendance.getJoinedAt() == null)
+                .hasSize(STUDENTS / 2)
+                .allSatisfy(attendance -> {
+                    assertThat(attendance.getAttendancePercentage()).isZero();
+                    assertThat(attendance.getAttendanceStatus()).isEqualTo(AttendanceStatus.ABSENT);
+                });
+
+        // A zero-length meeting scores everyone 0% without dividing by zero
+        transactionTemplate.executeWithoutResult(status ->
+                attendanceRepository.scoreAttendance(meeting.getMeetingId(), 0, LocalDateTime.now()));
+        assertThat(attendanceRepository.findAllByMeeting(meeting))
+                .allSatisfy(attendance -> assertThat(attendance.getAttendanceStatus()).isEqualTo(AttendanceStatus.ABSENT));
+    }
+
+    // Fire one join per entry at the same moment, as the joining student, and wait for all of
+    // them; a join that could not get its attendance lock in time fails the storm
+    private void joinStorm(List<Long> joiningStudentIds) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> joins = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long studentId : joiningStudentIds) {
+                joins.add(executor.submit(() -> {
+                    currentStudentId.set(studentId);
+                    start.await();
+                    attendanceService.recordStudentAttendanceOnJoin(meeting, studentId.intValue());
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> join : joins) {
+                join.get();
+            }
+        }
+        assertThat(meterRegistry.get("attendance.lock.timeouts").counter().count()).isZero();
+    }
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import uwu.connectra.connectra_backend.entities.*;
+import uwu.connectra.connectra_backend.exceptions.ServiceBusyException;
+import uwu.connectra.connectra_backend.exceptions.UnauthorizedException;
+import uwu.connectra.connectra_backend.services.AttendanceLockService;
+import uwu.connectra.connectra_backend.services.AttendanceService;
+import uwu.connectra.connectra_backend.utils.CurrentUserProvider;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Joins, leaves and meeting finalization in real transactions hold their attendance locks
+ * until the transaction commits or rolls back, and no longer. Skipped when Docker is not
+ * available.
+ */
+@Import({AttendanceService.class, AttendanceLockService.class, AttendanceLockTransactionTests.Beans.class})
+@TestPropertySource(properties = "attendance-locks.timeout=200ms")
+class AttendanceLockTransactionTests extends PostgresRepositoryTest {
+    @Autowired
+    private AttendanceService attendanceService;
+    @Autowired
+    private AttendanceLockService attendanceLockService;
+    @MockitoBean
+    private CurrentUserProvider currentUserProvider;
+
+    private Meeting meeting;
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() {
+        meeting = newMeeting(lecturer, degree, LocalDateTime.now().minusMinutes(30), MeetingStatus.LIVE);
+        meeting.setActualStartTime(meeting.getScheduledStartTime());
+        meeting = meetingRepository.save(meeting);
+        students = students(degree, 2);
+    }
+
+    @Test
+    void locksAreHeldUntilCommit() {
+        Student first = students.get(0);
+        Student second = students.get(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            attendanceService.recordStudentAttendanceOnJoin(meeting, Set.of(first.getId(), second.getId()));
+            assertThat(heldElsewhere(first)).isTrue();
+            assertThat(heldElsewhere(second)).isTrue();
+        });
+        assertThat(heldElsewhere(first)).isFalse();
+        assertThat(heldElsewhere(second)).isFalse();
+        assertThat(attendanceRepository.findAllByMeeting(meeting)).hasSize(2);
+
+        when(currentUserProvider.getCurrentUserAs(Student.class)).thenReturn(first);
+        transactionTemplate.executeWithoutResult(status -> {
+            attendanceService.recordStudentAttendanceOnLeave(meeting);
+            assertThat(heldElsewhere(first)).isTrue();
+        });
+        assertThat(heldElsewhere(first)).isFalse();
+        assertThat(attendanceRepository.findByStudentAndMeeting(first, meeting).orElseThrow().getLeftAt()).isNotNull();
+
+        meeting.setActualEndTime(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            attendanceService.finalizeAttendanceForMeeting(meeting);
+            assertThat(heldElsewhere(first)).isTrue();
+            assertThat(heldElsewhere(second)).isTrue();
+        });
+        assertThat(heldElsewhere(first)).isFalse();
+        assertThat(heldElsewhere(second)).isFalse();
+        assertThat(attendanceRepository.findByStudentAndMeeting(second, meeting).orElseThrow().getLeftAt()).isNotNull();
+    }
+
+    @Test
+    void locksAreReleasedOnRollback() {
+        Student student = students.get(0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            attendanceService.recordStudentAttendanceOnJoin(meeting, Set.of(student.getId()));
+            assertThat(heldElsewhere(student)).isTrue();
+            status.setRollbackOnly();
+        });
+        assertThat(heldElsewhere(student)).isFalse();
+        assertThat(attendanceRepository.findAllByMeeting(meeting)).isEmpty();
+
+        // A leave that fails under the lock rolls back and lets go of it as well
+        when(currentUserProvider.getCurrentUserAs(Student.class)).thenReturn(student);
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                attendanceService.recordStudentAttendanceOnLeave(meeting)))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThat(heldElsewhere(student)).isFalse();
+    }
+
+    // Whether another thread would have to wait for the student's attendance lock
+    private boolean heldElsewhere(Student student) {
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            return executor.submit(() -> {
+                try (var lock = attendanceLockService.lock(student.getId(), meeting.getMeetingId())) {
+                    return false;
+                } catch (ServiceBusyException e) {
+                    return true;
+                }
+            }).get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import uwu.connectra.connectra_backend.dtos.AttendanceReportResponseDTO;
+import uwu.connectra.connectra_backend.entities.*;
+import uwu.connectra.connectra_backend.services.AttendanceReportBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The attendance report must cost the same number of statements for any cohort size.
+ * Skipped when Docker is not available.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(AttendanceReportBuilder.class)
+class AttendanceReportQueryCountTests extends PostgresRepositoryTest {
+    @Autowired
+    private AttendanceReportBuilder attendanceReportBuilder;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void reportCostsTheSameStatementsForAnyCohortSize() {
+        Meeting small = endedMeetingWithCohort(5);
+        Meeting large = endedMeetingWithCohort(300);
+
+        long smallStatements = statementsToBuild(small, 5);
+        long largeStatements = statementsToBuild(large, 300);
+
+        assertThat(largeStatements).isEqualTo(smallStatements).isLessThanOrEqualTo(1);
+    }
+
+    // Every third student was present, every third partially present and the rest never joined
+    private Meeting endedMeetingWithCohort(int cohortSize) {
+        String cohortDegree = degree + "-" + cohortSize;
+
+        Meeting meeting = newMeeting(lecturer, cohortDegree, LocalDateTime.now().minusHours(1), MeetingStatus.ENDED);
+        meeting.setTitle("Report of " + cohortSize);
+        meeting.setActualStartTime(meeting.getScheduledStartTime());
+        meeting.setActualEndTime(meeting.getScheduledEndTime());
+        Meeting savedMeeting = meetingRepository.save(meeting);
+        List<Student> savedStudents = students(cohortDegree, cohortSize);
+
+        List<Attendance> attendances = new ArrayList<>();
+        for (int i = 0; i < cohortSize; i++) {
+            if (i % 3 == 2) {
+                continue;
+            }
+            Attendance attendance = new Attendance();
+            attendance.setStudent(savedStudents.get(i));
+            attendance.setMeeting(savedMeeting);
+            attendance.setJoinedAt(savedMeeting.getActualStartTime());
+            attendance.setTotalDurationInMinutes(i % 3 == 0 ? 60 : 20);
+            attendance.setAttendanceStatus(i % 3 == 0 ? AttendanceStatus.PRESENT : AttendanceStatus.PARTIALLY_PRESENT);
+            attendances.add(attendance);
+        }
+        attendanceRepository.saveAll(attendances);
+        return savedMeeting;
+    }
+
+    // Build the report, check its numbers and return the statements it took
+    private long statementsToBuild(Meeting meeting, int cohortSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        AttendanceReportResponseDTO report = transactionTemplate.execute(status -> {
+            Meeting loaded = meetingRepository.findById(meeting.getMeetingId()).orElseThrow();
+            statistics.clear();
+            return attendanceReportBuilder.build(loaded);
+        });
+        long statements = statistics.getPrepareStatementCount();
+
+        int present = (cohortSize + 2) / 3;
+        int partial = (cohortSize + 1) / 3;
+        assertThat(report.getTotalStudents()).isEqualTo(cohortSize);
+        assertThat(report.getPresentStudents()).hasSize(present);
+        assertThat(report.getPartiallyAttendedStudents()).hasSize(partial);
+        assertThat(report.getAbsentStudents()).hasSize(cohortSize - present - partial)
+                .allSatisfy(student -> assertThat(student.getDurationMinutes()).isZero());
+        assertThat(report.getTotalParticipated()).isEqualTo(present + partial);
+        return statements;
+    }
+}
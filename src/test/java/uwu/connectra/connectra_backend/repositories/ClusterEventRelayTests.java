@@ -0,0 +1,87 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.jdbc.core.JdbcTemplate;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+import uwu.connectra.connectra_backend.events.ClusterEventsResumedEvent;
+import uwu.connectra.connectra_backend.events.CohortMeetingsChangedEvent;
+import uwu.connectra.connectra_backend.events.MeetingStatusChangedEvent;
+import uwu.connectra.connectra_backend.events.SecurityEpochBumpedEvent;
+import uwu.connectra.connectra_backend.events.UserChangedEvent;
+import uwu.connectra.connectra_backend.services.ClusterEventRelay;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Events published in a transaction reach the other nodes once it commits, and never when it
+ * rolls back. Two relays stand in for two nodes. Skipped when Docker is not available.
+ */
+class ClusterEventRelayTests extends PostgresRepositoryTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JdbcConnectionDetails connectionDetails;
+
+    private final List<ClusterEventRelay> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ClusterEventRelay::shutdown);
+    }
+
+    @Test
+    void committedEventsReachTheOtherNodes() throws Exception {
+        BlockingQueue<Object> firstReceived = new LinkedBlockingQueue<>();
+        BlockingQueue<Object> secondReceived = new LinkedBlockingQueue<>();
+        ClusterEventRelay first = node(firstReceived);
+        node(secondReceived);
+        // Each node announces when it is listening
+        assertThat(firstReceived.poll(10, TimeUnit.SECONDS)).isInstanceOf(ClusterEventsResumedEvent.class);
+        assertThat(secondReceived.poll(10, TimeUnit.SECONDS)).isInstanceOf(ClusterEventsResumedEvent.class);
+
+        CohortMeetingsChangedEvent committed = new CohortMeetingsChangedEvent(degree, BATCH);
+        MeetingStatusChangedEvent moved = new MeetingStatusChangedEvent(
+                UUID.randomUUID(), degree, BATCH + 1, MeetingStatus.LIVE, degree, BATCH);
+        SecurityEpochBumpedEvent bumped = new SecurityEpochBumpedEvent(42L);
+        UserChangedEvent changed = new UserChangedEvent("lecturer@uwu.ac.lk");
+        transactionTemplate.executeWithoutResult(status -> {
+            first.onCohortMeetingsChanged(committed);
+            first.onMeetingStatusChanged(moved);
+            first.onSecurityEpochBumped(bumped);
+            first.onUserChanged(changed);
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            first.onCohortMeetingsChanged(new CohortMeetingsChangedEvent(degree, BATCH + 1));
+            status.setRollbackOnly();
+        });
+
+        assertThat(secondReceived.poll(10, TimeUnit.SECONDS)).isEqualTo(committed);
+        assertThat(secondReceived.poll(10, TimeUnit.SECONDS)).isEqualTo(moved);
+        assertThat(secondReceived.poll(10, TimeUnit.SECONDS)).isEqualTo(bumped);
+        assertThat(secondReceived.poll(10, TimeUnit.SECONDS)).isEqualTo(changed);
+        // Nothing of the rolled back transaction, and the sending node handled its own event already
+        assertThat(secondReceived.poll(1, TimeUnit.SECONDS)).isNull();
+        assertThat(firstReceived).isEmpty();
+    }
+
+    private ClusterEventRelay node(BlockingQueue<Object> received) {
+        ClusterEventRelay relay = new ClusterEventRelay(jdbcTemplate, connectionDetails, received::add,
+                new ObjectMapper(), new SimpleMeterRegistry(), Duration.ofMillis(100), Duration.ofMillis(100));
+        nodes.add(relay);
+        relay.start();
+        return relay;
+    }
+}
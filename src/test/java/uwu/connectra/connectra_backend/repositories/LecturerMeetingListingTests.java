@@ -0,0 +1,78 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO;
+import uwu.connectra.connectra_backend.entities.Lecturer;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The lecturer meeting listing is read page by page from one projection query. Skipped when
+ * Docker is not available.
+ */
+class LecturerMeetingListingTests extends PostgresRepositoryTest {
+    private static final int MEETINGS = 8;
+
+    private LocalDateTime base;
+    private final List<UUID> meetingIds = new ArrayList<>();
+
+    // Meetings scheduled a day apart, every other one ended, plus a colleague's meeting
+    @BeforeEach
+    void setUp() {
+        Lecturer colleague = lecturer("Alan", "Turing");
+        base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+
+        for (int i = 0; i < MEETINGS; i++) {
+            meetingIds.add(meeting(base.plusDays(i), i % 2 == 0 ? MeetingStatus.ENDED : MeetingStatus.SCHEDULED)
+                    .getMeetingId());
+        }
+        meeting(colleague, degree, base, MeetingStatus.SCHEDULED);
+    }
+
+    @Test
+    void pagesWalkOnlyTheLecturersMeetingsNewestFirst() {
+        List<MeetingResponseDTO> walked = walk(null, null, null);
+
+        assertThat(walked).extracting(MeetingResponseDTO::getMeetingId)
+                .containsExactlyElementsOf(meetingIds.reversed());
+        assertThat(walked).allSatisfy(meeting -> {
+            assertThat(meeting.getCreatedById()).isEqualTo(lecturer.getId());
+            assertThat(meeting.getCreatedByName()).isEqualTo("Ada Lovelace");
+        });
+    }
+
+    @Test
+    void filtersByStatusAndScheduledWindow() {
+        assertThat(walk(MeetingStatus.ENDED, null, null))
+                .hasSize(MEETINGS / 2)
+                .allSatisfy(meeting -> assertThat(meeting.getStatus()).isEqualTo("ENDED"));
+
+        // Days 2, 3 and 4: the window includes its start and excludes its end
+        assertThat(walk(null, base.plusDays(2), base.plusDays(5)))
+                .extracting(MeetingResponseDTO::getMeetingId)
+                .containsExactly(meetingIds.get(4), meetingIds.get(3), meetingIds.get(2));
+    }
+
+    private List<MeetingResponseDTO> walk(MeetingStatus status, LocalDateTime from, LocalDateTime to) {
+        List<MeetingResponseDTO> walked = new ArrayList<>();
+        List<MeetingResponseDTO> page = meetingRepository.findLecturerMeetings(
+                lecturer.getId(), status, from, to, null, null, Limit.of(3));
+        while (!page.isEmpty()) {
+            assertThat(page).hasSizeLessThanOrEqualTo(3);
+            walked.addAll(page);
+            MeetingResponseDTO last = page.get(page.size() - 1);
+            page = meetingRepository.findLecturerMeetings(
+                    lecturer.getId(), status, from, to, last.getCreatedAt(), last.getMeetingId(), Limit.of(3));
+        }
+        return walked;
+    }
+}
@@ -0,0 +1,133 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import org.junit.jupiter.api.Test;
+import uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO;
+import uwu.connectra.connectra_backend.entities.DepartedCohort;
+import uwu.connectra.connectra_backend.entities.Meeting;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Deltas of the meeting lists contain exactly the meetings written after a cursor, including
+ * writes that commit late and meetings moved to another cohort. Skipped when Docker is not
+ * available.
+ */
+class MeetingDeltaSyncTests extends PostgresRepositoryTest {
+    @Test
+    void deltaHoldsOnlyMeetingsWrittenAfterTheCursor() {
+        meeting();
+        UUID cancelled = meeting();
+        UUID edited = meeting();
+        long cursor = meetingRepository.findLatestChangeSeq();
+        LocalDateTime issuedAt = LocalDateTime.now();
+
+        transactionTemplate.executeWithoutResult(status -> meetingRepository.markCancelled(cancelled, LocalDateTime.now()));
+        Meeting meeting = meetingRepository.findById(edited).orElseThrow();
+        meeting.setTitle("Moved to the lab");
+        meetingRepository.save(meeting);
+        UUID created = meeting();
+
+        // No overlap: only what the change sequence reports
+        assertThat(meetingRepository.findCohortMeetingChanges(degree, BATCH, cursor, issuedAt.plusDays(1)))
+                .extracting(MeetingResponseDTO::getMeetingId)
+                .containsExactly(cancelled, edited, created);
+        assertThat(meetingRepository.findLecturerMeetingChanges(lecturer.getId(), cursor, issuedAt.plusDays(1)))
+                .extracting(MeetingResponseDTO::getMeetingId, MeetingResponseDTO::getStatus)
+                .contains(tuple(cancelled, "CANCELLED"));
+        assertThat(meetingRepository.findCohortMeetingChanges(
+                degree, BATCH, meetingRepository.findLatestChangeSeq(), issuedAt.plusDays(1))).isEmpty();
+    }
+
+    @Test
+    void overlapCatchesAChangeCommittedAfterTheCursor() throws Exception {
+        UUID slow = meeting();
+        UUID fast = meeting();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Draws its change_seq first but commits last
+        CompletableFuture<Void> slowTransaction = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    meetingRepository.markCancelled(slow, LocalDateTime.now());
+                    written.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+        transactionTemplate.executeWithoutResult(status -> meetingRepository.markLive(fast, LocalDateTime.now()));
+        long cursor = meetingRepository.findLatestChangeSeq();
+        LocalDateTime issuedAt = LocalDateTime.now();
+        release.countDown();
+        slowTransaction.get(10, TimeUnit.SECONDS);
+
+        List<UUID> bySequenceOnly = meetingRepository.findCohortMeetingChanges(degree, BATCH, cursor, issuedAt.plusDays(1))
+                .stream().map(MeetingResponseDTO::getMeetingId).toList();
+        List<UUID> withOverlap = meetingRepository.findCohortMeetingChanges(degree, BATCH, cursor, issuedAt.minusSeconds(30))
+                .stream().map(MeetingResponseDTO::getMeetingId).toList();
+
+        assertThat(bySequenceOnly).doesNotContain(slow);
+        assertThat(withOverlap).contains(slow);
+    }
+
+    @Test
+    void movedMeetingStaysInTheDeltaOfTheCohortItLeft() {
+        UUID moved = meeting();
+        long cursor = meetingRepository.findLatestChangeSeq();
+        LocalDateTime issuedAt = LocalDateTime.now();
+
+        move(moved, "MOVED-" + degree);
+
+        // With its new cohort, so the old cohort's clients drop it
+        assertThat(meetingRepository.findCohortMeetingChanges(degree, BATCH, cursor, issuedAt.plusDays(1)))
+                .extracting(MeetingResponseDTO::getMeetingId, MeetingResponseDTO::getTargetDegree)
+                .containsExactly(tuple(moved, "MOVED-" + degree));
+        assertThat(meetingRepository.findCohortMeetingChanges("MOVED-" + degree, BATCH, cursor, issuedAt.plusDays(1)))
+                .extracting(MeetingResponseDTO::getMeetingId)
+                .containsExactly(moved);
+    }
+
+    @Test
+    void meetingMovedTwiceStaysInTheDeltaOfBothCohortsItLeft() {
+        UUID moved = meeting();
+        long cursor = meetingRepository.findLatestChangeSeq();
+        LocalDateTime issuedAt = LocalDateTime.now();
+
+        move(moved, "B-" + degree);
+        move(moved, "C-" + degree);
+
+        for (String left : List.of(degree, "B-" + degree)) {
+            assertThat(meetingRepository.findCohortMeetingChanges(left, BATCH, cursor, issuedAt.plusDays(1)))
+                    .extracting(MeetingResponseDTO::getMeetingId, MeetingResponseDTO::getTargetDegree)
+                    .containsExactly(tuple(moved, "C-" + degree));
+        }
+        assertThat(meetingRepository.findCohortMeetingChanges("C-" + degree, BATCH, cursor, issuedAt.plusDays(1)))
+                .extracting(MeetingResponseDTO::getMeetingId)
+                .containsExactly(moved);
+    }
+
+    // Move a meeting to another degree the way MeetingService does
+    private void move(UUID meetingId, String targetDegree) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Meeting meeting = meetingRepository.findById(meetingId).orElseThrow();
+            meeting.getDepartedCohorts().add(new DepartedCohort(meeting.getTargetDegree(), meeting.getTargetBatch()));
+            meeting.setTargetDegree(targetDegree);
+            meetingRepository.save(meeting);
+        });
+    }
+
+    private UUID meeting() {
+        return meeting(LocalDateTime.now().plusDays(1), MeetingStatus.SCHEDULED).getMeetingId();
+    }
+}
@@ -0,0 +1,105 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import uwu.connectra.connectra_backend.entities.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Races the conditional lifecycle transitions of {@link MeetingRepository} against each other
+ * on a real PostgreSQL: exactly one caller may win each transition. Skipped when Docker is not
+ * available.
+ */
+class MeetingTransitionConcurrencyTests extends PostgresRepositoryTest {
+    private static final int CALLERS = 50;
+
+    private Meeting meeting;
+
+    @BeforeEach
+    void setUp() {
+        meeting = meeting(LocalDateTime.now(), MeetingStatus.SCHEDULED);
+    }
+
+    @Test
+    void concurrentStartsAndStopsEachHaveOneWinner() throws Exception {
+        UUID meetingId = meeting.getMeetingId();
+
+        assertThat(race(i -> "live")).isEqualTo(1);
+        Meeting live = meetingRepository.findById(meetingId).orElseThrow();
+        assertThat(live.getStatus()).isEqualTo(MeetingStatus.LIVE);
+        assertThat(live.getActualStartTime()).isNotNull();
+        assertThat(live.getVersion()).isEqualTo(meeting.getVersion() + 1);
+
+        assertThat(race(i -> "end")).isEqualTo(1);
+        Meeting ended = meetingRepository.findById(meetingId).orElseThrow();
+        assertThat(ended.getStatus()).isEqualTo(MeetingStatus.ENDED);
+        assertThat(ended.getVersion()).isEqualTo(meeting.getVersion() + 2);
+    }
+
+    @Test
+    void stopRacingCancelHasOneWinner() throws Exception {
+        transactionTemplate.executeWithoutResult(status ->
+                meetingRepository.markLive(meeting.getMeetingId(), LocalDateTime.now()));
+
+        assertThat(race(i -> i % 2 == 0 ? "end" : "cancel")).isEqualTo(1);
+
+        MeetingStatus status = meetingRepository.findById(meeting.getMeetingId()).orElseThrow().getStatus();
+        assertThat(status).isIn(MeetingStatus.ENDED, MeetingStatus.CANCELLED);
+        // A cancelled meeting can no longer be ended, and an ended one no longer cancelled
+        Integer lateTransitions = transactionTemplate.execute(s ->
+                meetingRepository.markEnded(meeting.getMeetingId(), LocalDateTime.now(), LocalDateTime.now())
+                        + meetingRepository.markCancelled(meeting.getMeetingId(), LocalDateTime.now()));
+        assertThat(lateTransitions).isZero();
+    }
+
+    @Test
+    void staleEntitySaveAfterTransitionIsRejected() {
+        Meeting stale = meetingRepository.findById(meeting.getMeetingId()).orElseThrow();
+        transactionTemplate.executeWithoutResult(status ->
+                meetingRepository.markLive(meeting.getMeetingId(), LocalDateTime.now()));
+
+        stale.setTitle("Edited while going live");
+        assertThatThrownBy(() -> meetingRepository.save(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    // Run CALLERS transitions at the same moment, returning how many of them won
+    private int race(IntFunction<String> transitionFor) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                String transition = transitionFor.apply(i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return transactionTemplate.execute(status -> switch (transition) {
+                        case "live" -> meetingRepository.markLive(meeting.getMeetingId(), LocalDateTime.now());
+                        case "end" -> meetingRepository.markEnded(meeting.getMeetingId(), LocalDateTime.now(), LocalDateTime.now());
+                        default -> meetingRepository.markCancelled(meeting.getMeetingId(), LocalDateTime.now());
+                    });
+                }));
+            }
+            start.countDown();
+
+            int winners = 0;
+            for (Future<Integer> result : results) {
+                winners += result.get();
+            }
+            return winners;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import uwu.connectra.connectra_backend.entities.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Base of the repository tests that need a real PostgreSQL, for the native SQL, locking and
+ * sequences H2 can't stand in for. Skipped when Docker is not available.
+ *
+ * <p>All subclasses share one container, started on first use, so the Spring test context
+ * can be cached between them. Tests don't roll back: each one gets its own cohort
+ * ({@link #degree}) and lecturer, so rows left by other tests never match.</p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+abstract class PostgresRepositoryTest {
+    protected static final int BATCH = 22;
+
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        postgres.start();
+    }
+
+    @Autowired
+    protected MeetingRepository meetingRepository;
+    @Autowired
+    protected AttendanceRepository attendanceRepository;
+    @Autowired
+    protected UserRepository userRepository;
+    @Autowired
+    protected PlatformTransactionManager transactionManager;
+
+    protected TransactionTemplate transactionTemplate;
+    protected String degree;
+    protected Lecturer lecturer;
+
+    @BeforeEach
+    void setUpCohort() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        degree = "ICT-" + UUID.randomUUID().toString().substring(0, 8);
+        lecturer = lecturer("Ada", "Lovelace");
+    }
+
+    protected Lecturer lecturer(String firstName, String lastName) {
+        Lecturer lecturer = new Lecturer();
+        lecturer.setEmail(firstName + "-" + UUID.randomUUID() + "@uwu.ac.lk");
+        lecturer.setFirstName(firstName);
+        lecturer.setLastName(lastName);
+        lecturer.setRole(Role.LECTURER);
+        return userRepository.save(lecturer);
+    }
+
+    // Students 0 to count - 1 of the given cohort, batch BATCH
+    protected List<Student> students(String cohortDegree, int count) {
+        List<User> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Student student = new Student();
+            student.setEmail(cohortDegree + "-" + i + "@std.uwu.ac.lk");
+            student.setStudentId(cohortDegree + "/" + i);
+            student.setFirstName("Student");
+            student.setLastName(String.valueOf(i));
+            student.setRole(Role.STUDENT);
+            student.setDegree(cohortDegree);
+            student.setBatch(BATCH);
+            students.add(student);
+        }
+        return userRepository.saveAll(students).stream().map(Student.class::cast).toList();
+    }
+
+    // An hour-long meeting of the test's lecturer and cohort, saved
+    protected Meeting meeting(LocalDateTime start, MeetingStatus status) {
+        return meetingRepository.save(newMeeting(lecturer, degree, start, status));
+    }
+
+    protected Meeting meeting(Lecturer createdBy, String targetDegree, LocalDateTime start, MeetingStatus status) {
+        return meetingRepository.save(newMeeting(createdBy, targetDegree, start, status));
+    }
+
+    // An hour-long meeting, not saved yet so the test can fill in more
+    protected Meeting newMeeting(Lecturer createdBy, String targetDegree, LocalDateTime start, MeetingStatus status) {
+        Meeting meeting = new Meeting();
+        meeting.setTitle("Meeting at " + start);
+        meeting.setScheduledStartTime(start);
+        meeting.setScheduledEndTime(start.plusHours(1));
+        meeting.setStatus(status);
+        meeting.setAgoraChannelName("channel-" + UUID.randomUUID());
+        meeting.setTargetDegree(targetDegree);
+        meeting.setTargetBatch(BATCH);
+        meeting.setCreatedBy(createdBy);
+        return meeting;
+    }
+}
@@ -0,0 +1,112 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import uwu.connectra.connectra_backend.entities.EmailOutbox;
+import uwu.connectra.connectra_backend.entities.EmailOutboxStatus;
+import uwu.connectra.connectra_backend.entities.EmailVerificationToken;
+import uwu.connectra.connectra_backend.services.EmailService;
+import uwu.connectra.connectra_backend.services.PendingRegistrationStore;
+import uwu.connectra.connectra_backend.services.PendingRegistrationStore.PendingRegistration;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A registration's OTP row and its outbox email are written in one transaction, and the
+ * OTP does not outlive the email in the outbox. Skipped when Docker is not available.
+ */
+@Import({PendingRegistrationStore.class, EmailService.class, RegistrationOutboxTransactionTests.Beans.class})
+class RegistrationOutboxTransactionTests extends PostgresRepositoryTest {
+    @Autowired
+    private PendingRegistrationStore pendingRegistrationStore;
+    @Autowired
+    private EmailService emailService;
+    @Autowired
+    private EmailVerificationTokenRepository tokenRepository;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Test
+    void rolledBackRegistrationLeavesNeitherTheOtpNorTheEmail() {
+        String email = degree + "@std.uwu.ac.lk";
+
+        transactionTemplate.executeWithoutResult(status -> {
+            register(email, "111111");
+            status.setRollbackOnly();
+        });
+
+        assertThat(pendingRegistrationStore.find(email)).isEmpty();
+        assertThat(outbox(email)).isEmpty();
+    }
+
+    @Test
+    void committedRegistrationKeepsBothUntilTheEmailIsSent() {
+        String email = degree + "@std.uwu.ac.lk";
+
+        transactionTemplate.executeWithoutResult(status -> register(email, "222222"));
+
+        assertThat(tokenRepository.findFirstByEmailAndExpiresAtAfterOrderByIdDesc(email, LocalDateTime.now()))
+                .get().extracting(EmailVerificationToken::getOtp).isEqualTo("222222");
+        EmailOutbox queued = outbox(email).orElseThrow();
+        assertThat(queued.getParams()).contains("222222");
+
+        // Leased the way EmailOutboxDispatcher does; a run whose lease was taken over marks nothing
+        LocalDateTime leasedUntil = LocalDateTime.now().plusMinutes(2).truncatedTo(ChronoUnit.MICROS);
+        transactionTemplate.executeWithoutResult(status -> {
+            EmailOutbox leased = emailOutboxRepository.findById(queued.getId()).orElseThrow();
+            leased.setStatus(EmailOutboxStatus.SENDING);
+            leased.setNextAttemptAt(leasedUntil);
+        });
+        assertThat(markSent(queued, leasedUntil.minusMinutes(1))).isZero();
+        assertThat(markSent(queued, leasedUntil)).isEqualTo(1);
+        EmailOutbox sent = outbox(email).orElseThrow();
+        assertThat(sent.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+        assertThat(sent.getParams()).isEqualTo(EmailOutbox.REDACTED_PARAMS);
+
+        // Purged once it is past the retention
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxRepository.deleteFinishedBefore(sent.getNextAttemptAt().plusSeconds(1), 100));
+        assertThat(outbox(email)).isEmpty();
+    }
+
+    private int markSent(EmailOutbox email, LocalDateTime leasedUntil) {
+        return transactionTemplate.execute(status ->
+                emailOutboxRepository.markSent(List.of(email.getId()), LocalDateTime.now(), leasedUntil));
+    }
+
+    private void register(String email, String otp) {
+        pendingRegistrationStore.put(new PendingRegistration(
+                null, email, otp, "Ada", "Lovelace", "hash", LocalDateTime.now().plusMinutes(10)));
+        emailService.queueOtpEmail(email, otp, "Ada");
+    }
+
+    private Optional<EmailOutbox> outbox(String email) {
+        return emailOutboxRepository.findAll().stream()
+                .filter(queued -> queued.getRecipientEmail().equals(email))
+                .findFirst();
+    }
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package uwu.connectra.connectra_backend.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The cohort meeting list behind the student meeting feed is filtered and ordered in the
+ * database. Skipped when Docker is not available.
+ */
+class StudentMeetingFeedTests extends PostgresRepositoryTest {
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void onlyScheduledAndLiveCohortMeetingsSoonestFirst() {
+        UUID nextWeek = meeting(now.plusDays(7), MeetingStatus.SCHEDULED).getMeetingId();
+        UUID live = meeting(now.minusMinutes(30), MeetingStatus.LIVE).getMeetingId();
+        UUID tomorrow = meeting(now.plusDays(1), MeetingStatus.SCHEDULED).getMeetingId();
+        meeting(now.minusDays(1), MeetingStatus.ENDED);
+        meeting(now.plusDays(2), MeetingStatus.CANCELLED);
+        meeting(lecturer, "OTHER-" + degree, now.plusDays(1), MeetingStatus.SCHEDULED);
+
+        assertThat(meetingRepository.findUpcomingCohortMeetings(degree, BATCH))
+                .extracting(MeetingResponseDTO::getMeetingId)
+                .containsExactly(live, tomorrow, nextWeek);
+    }
+}
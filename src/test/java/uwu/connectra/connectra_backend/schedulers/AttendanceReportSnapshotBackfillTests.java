@@ -0,0 +1,52 @@
+package uwu.connectra.connectra_backend.schedulers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uwu.connectra.connectra_backend.repositories.AttendanceReportSnapshotRepository;
+import uwu.connectra.connectra_backend.services.AttendanceReportSnapshotService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AttendanceReportSnapshotBackfillTests {
+    private AttendanceReportSnapshotRepository snapshotRepository;
+    private AttendanceReportSnapshotService snapshotService;
+    private AttendanceReportSnapshotBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        snapshotRepository = mock(AttendanceReportSnapshotRepository.class);
+        snapshotService = mock(AttendanceReportSnapshotService.class);
+        backfill = new AttendanceReportSnapshotBackfill(snapshotRepository, snapshotService, 2);
+    }
+
+    @Test
+    void buildsMissingSnapshotsBatchByBatch() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(snapshotRepository.findEndedMeetingIdsWithoutSnapshot(2))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(snapshotService.build(any())).thenReturn(true);
+
+        assertThat(backfill.backfill()).isEqualTo(3);
+        verify(snapshotRepository, times(2)).findEndedMeetingIdsWithoutSnapshot(anyInt());
+    }
+
+    @Test
+    void failingMeetingsDoNotLoopForever() {
+        UUID failing = UUID.randomUUID();
+        UUID alsoFailing = UUID.randomUUID();
+        // Returned on every call: the run must stop once a batch builds nothing
+        when(snapshotRepository.findEndedMeetingIdsWithoutSnapshot(anyInt())).thenReturn(List.of(failing, alsoFailing));
+        when(snapshotService.build(any())).thenThrow(new IllegalStateException("boom"));
+
+        assertThat(backfill.backfill()).isZero();
+        verify(snapshotService, times(2)).build(any());
+    }
+}
@@ -0,0 +1,137 @@
+package uwu.connectra.connectra_backend.schedulers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import uwu.connectra.connectra_backend.entities.EmailOutbox;
+import uwu.connectra.connectra_backend.entities.EmailOutboxStatus;
+import uwu.connectra.connectra_backend.entities.EmailType;
+import uwu.connectra.connectra_backend.exceptions.EmailDeliveryException;
+import uwu.connectra.connectra_backend.repositories.EmailOutboxRepository;
+import uwu.connectra.connectra_backend.services.EmailClient;
+import uwu.connectra.connectra_backend.services.EmailService;
+import uwu.connectra.connectra_backend.services.StubEmailClient;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxDispatcherTests {
+    private EmailOutboxRepository emailOutboxRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository = mock(EmailOutboxRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    private EmailOutboxDispatcher dispatcher(EmailClient emailClient) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ObjectMapper objectMapper = new ObjectMapper();
+        return new EmailOutboxDispatcher(
+                emailOutboxRepository,
+                emailClient,
+                new EmailService(emailOutboxRepository, objectMapper),
+                objectMapper,
+                transactionManager,
+                meterRegistry,
+                2, 2, 3,
+                Duration.ofSeconds(10), Duration.ofMinutes(30), Duration.ofMinutes(2));
+    }
+
+    private static EmailOutbox email(long id, String recipient) {
+        EmailOutbox email = new EmailOutbox(EmailType.OTP_VERIFICATION, recipient, "Student",
+                "{\"firstName\":\"Student\",\"otp\":\"123456\"}");
+        email.setId(id);
+        email.setCreatedAt(LocalDateTime.now().minusSeconds(1));
+        return email;
+    }
+
+    @Test
+    void sendsDueEmailsInBatchesAndMarksThemSent() {
+        StubEmailClient emailClient = new StubEmailClient();
+        dispatcher = dispatcher(emailClient);
+        List<EmailOutbox> due = List.of(email(1, "a@std.uwu.ac.lk"), email(2, "b@std.uwu.ac.lk"), email(3, "c@std.uwu.ac.lk"));
+        when(emailOutboxRepository.lockDue(any(), eq(4))).thenReturn(due);
+        when(emailOutboxRepository.markSent(anyCollection(), any(), any()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        assertThat(dispatcher.dispatch()).isEqualTo(3);
+
+        assertThat(emailClient.getSentMessages()).extracting(EmailClient.EmailMessage::toEmail)
+                .containsExactlyInAnyOrder("a@std.uwu.ac.lk", "b@std.uwu.ac.lk", "c@std.uwu.ac.lk");
+        // Only while the rows are still leased to this run
+        verify(emailOutboxRepository, times(2)).markSent(anyCollection(), any(), eq(due.get(0).getNextAttemptAt()));
+        assertThat(meterRegistry.counter("email.outbox.sent").count()).isEqualTo(3);
+        assertThat(meterRegistry.timer("email.outbox.delivery.latency").count()).isEqualTo(3);
+    }
+
+    @Test
+    void retriesWithBackoffAndDeadLettersAfterMaxAttempts() {
+        EmailClient failingClient = (subject, html, messages) -> {
+            throw new EmailDeliveryException("Brevo unavailable", true, null);
+        };
+        dispatcher = dispatcher(failingClient);
+        EmailOutbox retried = email(1, "a@std.uwu.ac.lk");
+        EmailOutbox exhausted = email(2, "b@std.uwu.ac.lk");
+        exhausted.setAttempts(2);
+        when(emailOutboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(retried, exhausted));
+        when(emailOutboxRepository.findAllById(any())).thenReturn(List.of(retried, exhausted));
+
+        dispatcher.dispatch();
+
+        assertThat(retried.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(4));
+        assertThat(exhausted.getStatus()).isEqualTo(EmailOutboxStatus.DEAD);
+        // The OTP is kept only while the email may still be sent
+        assertThat(retried.getParams()).contains("123456");
+        assertThat(exhausted.getParams()).isEqualTo(EmailOutbox.REDACTED_PARAMS);
+        assertThat(meterRegistry.counter("email.outbox.dead").count()).isEqualTo(1);
+    }
+
+    @Test
+    void leavesRowsTakenOverByAnotherRunAlone() {
+        EmailClient failingClient = (subject, html, messages) -> {
+            throw new EmailDeliveryException("Brevo unavailable", true, null);
+        };
+        dispatcher = dispatcher(failingClient);
+        EmailOutbox claimed = email(1, "a@std.uwu.ac.lk");
+        when(emailOutboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(claimed));
+        // The lease ran out mid-send and the next run leased the row again
+        EmailOutbox current = email(1, "a@std.uwu.ac.lk");
+        current.setStatus(EmailOutboxStatus.SENDING);
+        current.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+        when(emailOutboxRepository.findAllById(any())).thenReturn(List.of(current));
+
+        dispatcher.dispatch();
+
+        assertThat(current.getStatus()).isEqualTo(EmailOutboxStatus.SENDING);
+        assertThat(current.getAttempts()).isZero();
+    }
+
+    @Test
+    void backoffGrowsExponentiallyUpToTheCap() {
+        dispatcher = dispatcher(new StubEmailClient());
+
+        assertThat(dispatcher.backoff(1)).isBetween(Duration.ofSeconds(5), Duration.ofSeconds(10));
+        assertThat(dispatcher.backoff(4)).isBetween(Duration.ofSeconds(40), Duration.ofSeconds(80));
+        assertThat(dispatcher.backoff(40)).isBetween(Duration.ofMinutes(15), Duration.ofMinutes(30));
+    }
+}
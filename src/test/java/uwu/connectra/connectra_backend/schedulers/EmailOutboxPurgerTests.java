@@ -0,0 +1,57 @@
+package uwu.connectra.connectra_backend.schedulers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import uwu.connectra.connectra_backend.repositories.EmailOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxPurgerTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmailOutboxRepository emailOutboxRepository;
+    private EmailOutboxPurger purger;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository = mock(EmailOutboxRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        purger = new EmailOutboxPurger(emailOutboxRepository, transactionManager, meterRegistry,
+                Duration.ofDays(7), 100, 250);
+    }
+
+    @Test
+    void deletesInChunksUntilNothingIsLeft() {
+        when(emailOutboxRepository.deleteFinishedBefore(any(), anyInt())).thenReturn(100, 30);
+
+        assertThat(purger.purge()).isEqualTo(130);
+
+        LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
+        verify(emailOutboxRepository, times(2)).deleteFinishedBefore(
+                argThat(before -> !before.isAfter(weekAgo) && before.isAfter(weekAgo.minusMinutes(1))), eq(100));
+        assertThat(meterRegistry.counter("email.outbox.purged.total").count()).isEqualTo(130);
+    }
+
+    @Test
+    void stopsAtTheRowLimitOfARun() {
+        when(emailOutboxRepository.deleteFinishedBefore(any(), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+
+        assertThat(purger.purge()).isEqualTo(250);
+
+        verify(emailOutboxRepository, times(2)).deleteFinishedBefore(any(), eq(100));
+        verify(emailOutboxRepository).deleteFinishedBefore(any(), eq(50));
+    }
+}
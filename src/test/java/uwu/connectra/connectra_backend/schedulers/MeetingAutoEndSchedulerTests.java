@@ -0,0 +1,75 @@
+package uwu.connectra.connectra_backend.schedulers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import uwu.connectra.connectra_backend.repositories.MeetingRepository;
+import uwu.connectra.connectra_backend.services.MeetingService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MeetingAutoEndSchedulerTests {
+    private MeetingRepository meetingRepository;
+    private MeetingService meetingService;
+    private SimpleMeterRegistry meterRegistry;
+    private MeetingAutoEndScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        meetingRepository = mock(MeetingRepository.class);
+        meetingService = mock(MeetingService.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        scheduler = new MeetingAutoEndScheduler(
+                meetingRepository, meetingService, transactionManager, meterRegistry, Duration.ofMinutes(30), 2);
+    }
+
+    @Test
+    void skipsTheRunWhenAnotherInstanceHoldsTheLock() {
+        when(meetingRepository.tryAdvisoryTransactionLock(MeetingAutoEndScheduler.ADVISORY_LOCK_KEY)).thenReturn(false);
+
+        assertThat(scheduler.endOverrunMeetings()).isZero();
+        verify(meetingRepository, never()).findOverrunMeetingIds(any(), anyInt());
+        verifyNoInteractions(meetingService);
+    }
+
+    @Test
+    void endsOverrunMeetingsBatchByBatch() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(meetingRepository.tryAdvisoryTransactionLock(anyLong())).thenReturn(true);
+        when(meetingRepository.findOverrunMeetingIds(any(), eq(2)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(meetingService.endOverrunMeeting(any())).thenReturn(true);
+
+        assertThat(scheduler.endOverrunMeetings()).isEqualTo(3);
+        verify(meetingRepository, times(2)).tryAdvisoryTransactionLock(anyLong());
+        assertThat(meterRegistry.get("meetings.auto-ended").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void failingMeetingDoesNotStopTheBatch() {
+        UUID failing = UUID.randomUUID();
+        UUID healthy = UUID.randomUUID();
+        when(meetingRepository.tryAdvisoryTransactionLock(anyLong())).thenReturn(true);
+        // Returned on every call: the run must stop once a batch ends nothing new
+        when(meetingRepository.findOverrunMeetingIds(any(), anyInt())).thenReturn(List.of(failing, healthy));
+        when(meetingService.endOverrunMeeting(failing)).thenThrow(new IllegalStateException("boom"));
+        when(meetingService.endOverrunMeeting(healthy)).thenReturn(true, false);
+
+        assertThat(scheduler.endOverrunMeetings()).isEqualTo(1);
+        assertThat(meterRegistry.get("meetings.auto-end.failed").counter().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,101 @@
+package uwu.connectra.connectra_backend.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uwu.connectra.connectra_backend.dtos.AttendanceReportResponseDTO;
+import uwu.connectra.connectra_backend.entities.AttendanceReportSnapshot;
+import uwu.connectra.connectra_backend.entities.Meeting;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+import uwu.connectra.connectra_backend.repositories.AttendanceReportSnapshotRepository;
+import uwu.connectra.connectra_backend.repositories.MeetingRepository;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AttendanceReportSnapshotServiceTests {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AttendanceReportSnapshotRepository snapshotRepository;
+    private AttendanceReportBuilder attendanceReportBuilder;
+    private AttendanceReportSnapshotService snapshotService;
+    private Meeting meeting;
+
+    @BeforeEach
+    void setUp() {
+        meeting = new Meeting();
+        meeting.setMeetingId(UUID.randomUUID());
+        meeting.setStatus(MeetingStatus.ENDED);
+
+        AttendanceReportResponseDTO report = new AttendanceReportResponseDTO();
+        report.setMeetingId(meeting.getMeetingId().toString());
+        report.setTopic("Distributed Systems");
+        report.setTotalStudents(3);
+        report.setPresentCount(2);
+
+        snapshotRepository = mock(AttendanceReportSnapshotRepository.class);
+        attendanceReportBuilder = mock(AttendanceReportBuilder.class);
+        when(attendanceReportBuilder.build(meeting)).thenReturn(report);
+
+        snapshotService = new AttendanceReportSnapshotService(snapshotRepository, mock(MeetingRepository.class),
+                attendanceReportBuilder, objectMapper, meterRegistry);
+    }
+
+    @Test
+    void snapshotHoldsTheGzippedReportResponse() throws Exception {
+        when(snapshotRepository.findById(meeting.getMeetingId())).thenReturn(Optional.empty());
+        when(snapshotRepository.insertIfAbsent(any(), any(), any(), any())).thenReturn(1);
+
+        AttendanceReportSnapshot snapshot = snapshotService.getOrBuild(meeting);
+
+        byte[] body = snapshotService.uncompressedBody(snapshot);
+        JsonNode response = objectMapper.readTree(body);
+        assertThat(response.get("success").asBoolean()).isTrue();
+        assertThat(response.at("/data/meetingId").asText()).isEqualTo(meeting.getMeetingId().toString());
+        assertThat(response.at("/data/topic").asText()).isEqualTo("Distributed Systems");
+        assertThat(response.at("/data/totalStudents").asInt()).isEqualTo(3);
+        assertThat(response.at("/data/presentCount").asInt()).isEqualTo(2);
+
+        // A strong ETag of the uncompressed body, which is what the client sees
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        assertThat(snapshot.getEtag()).isEqualTo("\"" + sha256 + "\"");
+        verify(snapshotRepository).insertIfAbsent(eq(meeting.getMeetingId()), eq(snapshot.getEtag()),
+                eq(snapshot.getGzippedBody()), any());
+        assertThat(meterRegistry.get("attendance.report.snapshots.built").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void storedSnapshotIsServedWithoutRebuilding() {
+        AttendanceReportSnapshot stored = stored();
+        when(snapshotRepository.findById(meeting.getMeetingId())).thenReturn(Optional.of(stored));
+
+        assertThat(snapshotService.getOrBuild(meeting)).isSameAs(stored);
+        verifyNoInteractions(attendanceReportBuilder);
+    }
+
+    @Test
+    void losingTheRaceServesTheSnapshotThatWon() {
+        AttendanceReportSnapshot stored = stored();
+        when(snapshotRepository.findById(meeting.getMeetingId()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored));
+        when(snapshotRepository.insertIfAbsent(any(), any(), any(), any())).thenReturn(0);
+
+        assertThat(snapshotService.getOrBuild(meeting)).isSameAs(stored);
+        assertThat(meterRegistry.get("attendance.report.snapshots.built").counter().count()).isZero();
+    }
+
+    private AttendanceReportSnapshot stored() {
+        return new AttendanceReportSnapshot(meeting.getMeetingId(), "\"stored\"", new byte[] { 1 }, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,155 @@
+package uwu.connectra.connectra_backend.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import uwu.connectra.connectra_backend.entities.*;
+import uwu.connectra.connectra_backend.repositories.AttendanceRepository;
+import uwu.connectra.connectra_backend.utils.CurrentUserProvider;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Stress test for the attendance locks: duplicate leave requests and the meeting ending at
+ * the same moment must count the open session exactly once.
+ *
+ * <p>The repository is a stub that hands out copies of a single stored row and writes copies
+ * back, like separate transactions reading and writing the database. Meeting end updates the
+ * stored row in place, like the set-based finalization statements. Reads take a moment, as
+ * a query round trip would, which leaves a wide window for a lost update without the locks.</p>
+ */
+class AttendanceServiceConcurrencyTests {
+    private static final int THREADS = 32;
+    private static final long SESSION_MINUTES = 30;
+
+    private final AtomicReference<Attendance> storedRow = new AtomicReference<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AttendanceService attendanceService;
+    private Student student;
+    private Meeting meeting;
+
+    @BeforeEach
+    void setUp() {
+        student = new Student();
+        student.setId(7L);
+        student.setRole(Role.STUDENT);
+
+        meeting = new Meeting();
+        meeting.setMeetingId(UUID.randomUUID());
+        meeting.setActualStartTime(LocalDateTime.now().minusHours(1));
+        meeting.setStatus(MeetingStatus.LIVE);
+
+        Attendance attendance = new Attendance();
+        attendance.setStudent(student);
+        attendance.setMeeting(meeting);
+        attendance.setJoinedAt(LocalDateTime.now().minusMinutes(SESSION_MINUTES));
+        attendance.setLastJoinedAt(attendance.getJoinedAt());
+        storedRow.set(attendance);
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<Boolean>>any())).thenReturn(true);
+
+        AttendanceRepository attendanceRepository = mock(AttendanceRepository.class);
+        when(attendanceRepository.findByStudentAndMeeting(any(), any()))
+                .thenAnswer(invocation -> Optional.of(read()));
+        when(attendanceRepository.findStudentIdsByMeeting(any())).thenReturn(List.of(student.getId()));
+        // Set-based finalization: one atomic UPDATE of the stored row, like the database does
+        when(attendanceRepository.closeOpenSessions(any(), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime endTime = invocation.getArgument(1);
+            storedRow.updateAndGet(current -> {
+                Attendance closed = copy(current);
+                if (closed.getLeftAt() == null || closed.getLeftAt().isBefore(closed.getLastJoinedAt())) {
+                    closed.setLeftAt(endTime);
+                    closed.setTotalDurationInMinutes(closed.getTotalDurationInMinutes()
+                            + Math.max(0, Duration.between(closed.getLastJoinedAt(), endTime).toMinutes()));
+                }
+                return closed;
+            });
+            return 1;
+        });
+        when(attendanceRepository.save(any())).thenAnswer(invocation -> {
+            Attendance saved = copy(invocation.getArgument(0));
+            storedRow.set(saved);
+            return saved;
+        });
+
+        CurrentUserProvider currentUserProvider = mock(CurrentUserProvider.class);
+        when(currentUserProvider.getCurrentUserAs(Student.class)).thenReturn(student);
+        when(currentUserProvider.getCurrentUserId()).thenReturn(student.getId());
+
+        attendanceService = new AttendanceService(
+                currentUserProvider,
+                attendanceRepository,
+                new AttendanceLockService(meterRegistry, 64, Duration.ofSeconds(10)),
+                jdbcTemplate);
+    }
+
+    @RepeatedTest(20)
+    void leaveAndMeetingEndCountTheOpenSessionOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                boolean endMeeting = i % 4 == 0;
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    if (endMeeting) {
+                        // The lecturer ends the meeting while the student is still in it
+                        attendanceService.finalizeAttendanceForMeeting(meeting);
+                    } else {
+                        attendanceService.recordStudentAttendanceOnLeave(meeting);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        }
+
+        // A slow thread may cross a minute boundary, never a second session's worth
+        assertThat(storedRow.get().getTotalDurationInMinutes()).isBetween(SESSION_MINUTES, SESSION_MINUTES + 1);
+        assertThat(storedRow.get().getLeftAt()).isNotNull();
+        // The transitions really did queue up behind each other
+        assertThat(meterRegistry.get("attendance.lock.contended").counter().count()).isPositive();
+        assertThat(meterRegistry.get("attendance.lock.timeouts").counter().count()).isZero();
+    }
+
+    private Attendance read() throws InterruptedException {
+        Attendance attendance = copy(storedRow.get());
+        Thread.sleep(2);
+        return attendance;
+    }
+
+    private static Attendance copy(Attendance source) {
+        Attendance copy = new Attendance();
+        copy.setStudent(source.getStudent());
+        copy.setMeeting(source.getMeeting());
+        copy.setJoinedAt(source.getJoinedAt());
+        copy.setLastJoinedAt(source.getLastJoinedAt());
+        copy.setLeftAt(source.getLeftAt());
+        copy.setTotalDurationInMinutes(source.getTotalDurationInMinutes());
+        copy.setAttendancePercentage(source.getAttendancePercentage());
+        copy.setAttendanceStatus(source.getAttendanceStatus());
+        return copy;
+    }
+}
@@ -0,0 +1,92 @@
+package uwu.connectra.connectra_backend.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO;
+import uwu.connectra.connectra_backend.events.ClusterEventsResumedEvent;
+import uwu.connectra.connectra_backend.events.CohortMeetingsChangedEvent;
+import uwu.connectra.connectra_backend.repositories.MeetingRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CohortMeetingCacheTests {
+    private MeetingRepository meetingRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CohortMeetingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meetingRepository = mock(MeetingRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CohortMeetingCache(meetingRepository, meterRegistry, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void concurrentMissesLoadTheCohortOnce() throws Exception {
+        when(meetingRepository.findUpcomingCohortMeetings(eq("ICT"), eq(22)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(50);
+                    return List.of(new MeetingResponseDTO());
+                });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<MeetingResponseDTO>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.getUpcomingMeetings("ICT", 22);
+                }));
+            }
+            start.countDown();
+            for (Future<List<MeetingResponseDTO>> result : results) {
+                assertThat(result.get()).hasSize(1);
+            }
+        }
+
+        verify(meetingRepository, times(1)).findUpcomingCohortMeetings(any(), any());
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "cohort-meetings").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(15);
+    }
+
+    @Test
+    void changeEvictsOnlyThatCohort() {
+        when(meetingRepository.findUpcomingCohortMeetings(any(), any()))
+                .thenReturn(List.of(new MeetingResponseDTO()));
+        cache.getUpcomingMeetings("ICT", 22);
+        cache.getUpcomingMeetings("ICT", 23);
+
+        cache.onCohortMeetingsChanged(new CohortMeetingsChangedEvent("ICT", 22));
+        cache.getUpcomingMeetings("ICT", 22);
+        cache.getUpcomingMeetings("ICT", 23);
+
+        verify(meetingRepository, times(2)).findUpcomingCohortMeetings(eq("ICT"), eq(22));
+        verify(meetingRepository, times(1)).findUpcomingCohortMeetings(eq("ICT"), eq(23));
+    }
+
+    @Test
+    void resumingClusterEventsEvictsEveryCohort() {
+        when(meetingRepository.findUpcomingCohortMeetings(any(), any()))
+                .thenReturn(List.of(new MeetingResponseDTO()));
+        cache.getUpcomingMeetings("ICT", 22);
+        cache.getUpcomingMeetings("ICT", 23);
+
+        cache.onClusterEventsResumed(new ClusterEventsResumedEvent());
+        cache.getUpcomingMeetings("ICT", 22);
+        cache.getUpcomingMeetings("ICT", 23);
+
+        verify(meetingRepository, times(2)).findUpcomingCohortMeetings(eq("ICT"), eq(22));
+        verify(meetingRepository, times(2)).findUpcomingCohortMeetings(eq("ICT"), eq(23));
+    }
+}
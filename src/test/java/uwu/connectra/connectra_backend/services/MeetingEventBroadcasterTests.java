@@ -0,0 +1,145 @@
+package uwu.connectra.connectra_backend.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+import uwu.connectra.connectra_backend.events.ClusterEventsResumedEvent;
+import uwu.connectra.connectra_backend.events.MeetingStatusChangedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MeetingEventBroadcasterTests {
+    private static final int BUFFER_SIZE = 4;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private Supplier<RecordingEmitter> nextEmitter;
+    private MeetingEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        nextEmitter = () -> new RecordingEmitter(null);
+        broadcaster = new MeetingEventBroadcaster(meterRegistry, Duration.ofMinutes(1), BUFFER_SIZE) {
+            @Override
+            SseEmitter createEmitter(Duration timeout) {
+                return nextEmitter.get();
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void eventsReachOnlyTheMeetingsCohort() throws Exception {
+        RecordingEmitter ict22 = (RecordingEmitter) broadcaster.subscribe("ICT", 22);
+        RecordingEmitter ict23 = (RecordingEmitter) broadcaster.subscribe("ICT", 23);
+
+        broadcaster.onMeetingStatusChanged(new MeetingStatusChangedEvent(UUID.randomUUID(), "ICT", 22, MeetingStatus.LIVE));
+
+        // The subscription comment, then the event
+        ict22.awaitSends(2);
+        ict23.awaitSends(1);
+        Thread.sleep(50);
+        assertThat(ict22.text()).contains("event:meeting-status", "status=LIVE");
+        assertThat(ict23.sends).hasSize(1);
+        assertThat(meterRegistry.get("meeting.events.subscribers").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void movedMeetingReachesTheCohortItLeft() throws Exception {
+        RecordingEmitter ict22 = (RecordingEmitter) broadcaster.subscribe("ICT", 22);
+        RecordingEmitter ict23 = (RecordingEmitter) broadcaster.subscribe("ICT", 23);
+        RecordingEmitter ict24 = (RecordingEmitter) broadcaster.subscribe("ICT", 24);
+
+        broadcaster.onMeetingStatusChanged(new MeetingStatusChangedEvent(
+                UUID.randomUUID(), "ICT", 23, MeetingStatus.SCHEDULED, "ICT", 22));
+
+        ict22.awaitSends(2);
+        ict23.awaitSends(2);
+        Thread.sleep(50);
+        assertThat(ict22.text()).contains("targetBatch=23", "previousTargetBatch=22");
+        assertThat(ict24.sends).hasSize(1);
+    }
+
+    @Test
+    void resumingClusterEventsClosesEveryStream() {
+        broadcaster.subscribe("ICT", 22);
+        broadcaster.subscribe("ICT", 23);
+
+        broadcaster.onClusterEventsResumed(new ClusterEventsResumedEvent());
+
+        assertThat(meterRegistry.get("meeting.events.subscribers").gauge().value()).isZero();
+    }
+
+    @Test
+    void subscriberThatFallsBehindIsDroppedWithoutBlockingTheOthers() throws Exception {
+        nextEmitter = () -> new RecordingEmitter(unblock);
+        broadcaster.subscribe("ICT", 22);
+        nextEmitter = () -> new RecordingEmitter(null);
+        RecordingEmitter healthy = (RecordingEmitter) broadcaster.subscribe("ICT", 22);
+
+        // The stuck client's first write never returns, so its buffer overflows on event BUFFER_SIZE + 1
+        for (int i = 0; i < BUFFER_SIZE + 2; i++) {
+            long startedAt = System.nanoTime();
+            broadcaster.onMeetingStatusChanged(new MeetingStatusChangedEvent(UUID.randomUUID(), "ICT", 22, MeetingStatus.SCHEDULED));
+            assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(1));
+            healthy.awaitSends(i + 2);
+        }
+
+        assertThat(meterRegistry.get("meeting.events.dropped-subscribers").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("meeting.events.subscribers").gauge().value()).isEqualTo(1);
+    }
+
+    // Records what is sent; with a latch, the first send blocks like a client that stopped reading
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch blockUntil;
+        private final List<Set<DataWithMediaType>> sends = new CopyOnWriteArrayList<>();
+
+        RecordingEmitter(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sends.add(items);
+        }
+
+        void awaitSends(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sends.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(sends).hasSizeGreaterThanOrEqualTo(count);
+        }
+
+        String text() {
+            StringBuilder text = new StringBuilder();
+            sends.forEach(items -> items.forEach(item -> text.append(item.getData())));
+            return text.toString();
+        }
+    }
+}
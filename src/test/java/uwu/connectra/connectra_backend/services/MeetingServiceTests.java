@@ -0,0 +1,146 @@
+package uwu.connectra.connectra_backend.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import uwu.connectra.connectra_backend.config.AgoraConfig;
+import uwu.connectra.connectra_backend.dtos.meeting.MeetingResponseDTO;
+import uwu.connectra.connectra_backend.dtos.meeting.UpdateMeetingRequestDTO;
+import uwu.connectra.connectra_backend.entities.DepartedCohort;
+import uwu.connectra.connectra_backend.entities.Lecturer;
+import uwu.connectra.connectra_backend.entities.Meeting;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+import uwu.connectra.connectra_backend.entities.Student;
+import uwu.connectra.connectra_backend.events.CohortMeetingsChangedEvent;
+import uwu.connectra.connectra_backend.events.MeetingStatusChangedEvent;
+import uwu.connectra.connectra_backend.repositories.AttendanceRepository;
+import uwu.connectra.connectra_backend.repositories.MeetingRepository;
+import uwu.connectra.connectra_backend.utils.AgoraTokenGenerator;
+import uwu.connectra.connectra_backend.utils.CurrentUserProvider;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MeetingServiceTests {
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private CohortMeetingCache cohortMeetingCache;
+    private MeetingRepository meetingRepository;
+    private CurrentUserProvider currentUserProvider;
+    private ApplicationEventPublisher eventPublisher;
+    private MeetingService meetingService;
+
+    @BeforeEach
+    void setUp() {
+        Student student = new Student();
+        student.setDegree("ICT");
+        student.setBatch(22);
+        currentUserProvider = mock(CurrentUserProvider.class);
+        when(currentUserProvider.getCurrentUserAs(Student.class)).thenReturn(student);
+        cohortMeetingCache = mock(CohortMeetingCache.class);
+        meetingRepository = mock(MeetingRepository.class);
+        when(meetingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        meetingService = new MeetingService(mock(AttendanceService.class), mock(AttendanceRepository.class),
+                meetingRepository, mock(AttendanceReportSnapshotService.class),
+                eventPublisher, cohortMeetingCache, mock(MeetingEventBroadcaster.class),
+                mock(MeetingWaitingRoom.class), currentUserProvider, mock(AgoraTokenGenerator.class),
+                mock(AgoraConfig.class));
+    }
+
+    @Test
+    void studentMeetingWindowKeepsMeetingsThatOverlapIt() {
+        MeetingResponseDTO live = meeting(now.minusMinutes(30));
+        MeetingResponseDTO tomorrow = meeting(now.plusDays(1));
+        MeetingResponseDTO nextWeek = meeting(now.plusDays(7));
+        // Scheduled in the past and never started: over before the window opens
+        MeetingResponseDTO missed = meeting(now.minusDays(1));
+        when(cohortMeetingCache.getUpcomingMeetings("ICT", 22)).thenReturn(List.of(missed, live, tomorrow, nextWeek));
+
+        assertThat(meetingService.getStudentMeetings(now, now.plusDays(3), null))
+                .containsExactly(live, tomorrow);
+        assertThat(meetingService.getStudentMeetings(null, null, 2))
+                .containsExactly(missed, live);
+        assertThat(meetingService.getStudentMeetings(null, null, null))
+                .containsExactly(missed, live, tomorrow, nextWeek);
+    }
+
+    @Test
+    void movingAMeetingRemembersEveryCohortItLeft() {
+        Meeting meeting = scheduledMeeting();
+        UpdateMeetingRequestDTO request = new UpdateMeetingRequestDTO("Moved", null,
+                now.plusDays(1), now.plusDays(1).plusHours(1), "ICT", 23);
+
+        meetingService.updateMeetingById(meeting.getMeetingId().toString(), request);
+        assertThat(meeting.getTargetBatch()).isEqualTo(23);
+        assertThat(meeting.getDepartedCohorts()).containsExactly(new DepartedCohort("ICT", 22));
+
+        // Edits within the cohort leave nothing
+        request.setTitle("Renamed");
+        meetingService.updateMeetingById(meeting.getMeetingId().toString(), request);
+        assertThat(meeting.getDepartedCohorts()).containsExactly(new DepartedCohort("ICT", 22));
+
+        request.setTargetDegree("SCT");
+        meetingService.updateMeetingById(meeting.getMeetingId().toString(), request);
+        assertThat(meeting.getTargetDegree()).isEqualTo("SCT");
+        assertThat(meeting.getDepartedCohorts())
+                .containsExactlyInAnyOrder(new DepartedCohort("ICT", 22), new DepartedCohort("ICT", 23));
+    }
+
+    @Test
+    void movingAMeetingTellsBothCohorts() {
+        Meeting meeting = scheduledMeeting();
+
+        meetingService.updateMeetingById(meeting.getMeetingId().toString(), new UpdateMeetingRequestDTO(
+                "Moved", null, now.plusDays(1), now.plusDays(1).plusHours(1), "ICT", 23));
+
+        verify(eventPublisher).publishEvent(new CohortMeetingsChangedEvent("ICT", 22));
+        verify(eventPublisher).publishEvent(new CohortMeetingsChangedEvent("ICT", 23));
+        verify(eventPublisher).publishEvent(new MeetingStatusChangedEvent(
+                meeting.getMeetingId(), "ICT", 23, MeetingStatus.SCHEDULED, "ICT", 22));
+    }
+
+    @Test
+    void editWithinTheCohortTellsOnlyThatCohort() {
+        Meeting meeting = scheduledMeeting();
+
+        meetingService.updateMeetingById(meeting.getMeetingId().toString(), new UpdateMeetingRequestDTO(
+                "Renamed", null, now.plusDays(1), now.plusDays(1).plusHours(1), "ICT", 22));
+
+        verify(eventPublisher).publishEvent(new CohortMeetingsChangedEvent("ICT", 22));
+        verify(eventPublisher).publishEvent(new MeetingStatusChangedEvent(
+                meeting.getMeetingId(), "ICT", 22, MeetingStatus.SCHEDULED));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    // A SCHEDULED meeting of ICT/22 owned by the current lecturer
+    private Meeting scheduledMeeting() {
+        Lecturer lecturer = new Lecturer();
+        lecturer.setId(7L);
+        when(currentUserProvider.getCurrentUserAs(Lecturer.class)).thenReturn(lecturer);
+
+        Meeting meeting = new Meeting();
+        meeting.setMeetingId(UUID.randomUUID());
+        meeting.setStatus(MeetingStatus.SCHEDULED);
+        meeting.setTargetDegree("ICT");
+        meeting.setTargetBatch(22);
+        meeting.setCreatedBy(lecturer);
+        when(meetingRepository.findById(meeting.getMeetingId())).thenReturn(Optional.of(meeting));
+        return meeting;
+    }
+
+    private static MeetingResponseDTO meeting(LocalDateTime start) {
+        MeetingResponseDTO meeting = new MeetingResponseDTO();
+        meeting.setMeetingId(UUID.randomUUID());
+        meeting.setScheduledStartTime(start);
+        meeting.setScheduledEndTime(start.plusHours(1));
+        return meeting;
+    }
+}
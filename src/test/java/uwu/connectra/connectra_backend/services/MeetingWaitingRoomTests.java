@@ -0,0 +1,180 @@
+package uwu.connectra.connectra_backend.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import uwu.connectra.connectra_backend.config.AgoraConfig;
+import uwu.connectra.connectra_backend.dtos.AgoraTokenResponseDTO;
+import uwu.connectra.connectra_backend.entities.Meeting;
+import uwu.connectra.connectra_backend.entities.MeetingStatus;
+import uwu.connectra.connectra_backend.entities.Student;
+import uwu.connectra.connectra_backend.events.MeetingStatusChangedEvent;
+import uwu.connectra.connectra_backend.exceptions.MeetingCancelledException;
+import uwu.connectra.connectra_backend.repositories.MeetingRepository;
+import uwu.connectra.connectra_backend.utils.AgoraTokenGenerator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+
+class MeetingWaitingRoomTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MeetingRepository meetingRepository;
+    private AttendanceService attendanceService;
+    private AgoraTokenGenerator agoraTokenGenerator;
+    private Meeting meeting;
+    private MeetingWaitingRoom waitingRoom;
+
+    @BeforeEach
+    void setUp() {
+        meeting = new Meeting();
+        meeting.setMeetingId(UUID.randomUUID());
+        meeting.setStatus(MeetingStatus.SCHEDULED);
+        meeting.setAgoraChannelName("channel-waiting-room");
+        meeting.setTargetDegree("ICT");
+        meeting.setTargetBatch(22);
+
+        meetingRepository = mock(MeetingRepository.class);
+        when(meetingRepository.findById(meeting.getMeetingId())).thenReturn(Optional.of(meeting));
+        attendanceService = mock(AttendanceService.class);
+        agoraTokenGenerator = mock(AgoraTokenGenerator.class);
+        when(agoraTokenGenerator.generateToken(any(), any())).thenReturn("token");
+        AgoraConfig agoraConfig = mock(AgoraConfig.class);
+        when(agoraConfig.getAppId()).thenReturn("app");
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        waitingRoom = new MeetingWaitingRoom(meetingRepository, attendanceService, agoraTokenGenerator,
+                agoraConfig, transactionManager, meterRegistry, Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        waitingRoom.shutdown();
+    }
+
+    @Test
+    void parkedStudentsAreAdmittedTogetherWhenTheMeetingGoesLive() throws Exception {
+        List<CompletableFuture<AgoraTokenResponseDTO>> admissions = List.of(
+                waitingRoom.park(meeting.getMeetingId(), student(1)),
+                waitingRoom.park(meeting.getMeetingId(), student(2)),
+                waitingRoom.park(meeting.getMeetingId(), student(3)));
+        assertThat(waiters()).isEqualTo(3);
+        assertThat(admissions).noneMatch(CompletableFuture::isDone);
+
+        meeting.setStatus(MeetingStatus.LIVE);
+        waitingRoom.onMeetingStatusChanged(liveEvent());
+
+        for (int i = 0; i < admissions.size(); i++) {
+            AgoraTokenResponseDTO joinResponse = admissions.get(i).get(5, TimeUnit.SECONDS);
+            assertThat(joinResponse.getUId()).isEqualTo(i + 1);
+            assertThat(joinResponse.getUserName()).isEqualTo("Student " + (i + 1));
+            assertThat(joinResponse.getChannelName()).isEqualTo("channel-waiting-room");
+            assertThat(joinResponse.isHost()).isFalse();
+        }
+        // One batch of joins and one token for everyone
+        verify(attendanceService).recordStudentAttendanceOnJoin(meeting, Set.of(1L, 2L, 3L));
+        verify(agoraTokenGenerator, times(1)).generateToken(any(), any());
+        assertThat(meterRegistry.get("meeting.waiting-room.admission-batch").summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.find("meeting.waiting-room.waiters").gauge()).isNull();
+    }
+
+    @Test
+    void waiterIsReleasedEmptyHandedAfterTheMaximumWait() throws Exception {
+        MeetingWaitingRoom shortWait = new MeetingWaitingRoom(meetingRepository, attendanceService,
+                agoraTokenGenerator, mock(AgoraConfig.class), mock(PlatformTransactionManager.class),
+                meterRegistry, Duration.ofMillis(50));
+        try {
+            CompletableFuture<AgoraTokenResponseDTO> admission = shortWait.park(meeting.getMeetingId(), student(1));
+
+            assertThat(admission.get(5, TimeUnit.SECONDS)).isNull();
+            assertThat(meterRegistry.get("meeting.waiting-room.timeouts").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.find("meeting.waiting-room.waiters").gauge()).isNull();
+            verifyNoInteractions(attendanceService);
+        } finally {
+            shortWait.shutdown();
+        }
+    }
+
+    @Test
+    void studentsWhoWentAwayAreNotRecordedAsJoined() throws Exception {
+        CompletableFuture<AgoraTokenResponseDTO> gone = waitingRoom.park(meeting.getMeetingId(), student(1));
+        CompletableFuture<AgoraTokenResponseDTO> waiting = waitingRoom.park(meeting.getMeetingId(), student(2));
+        assertThat(gone.cancel(false)).isTrue();
+
+        meeting.setStatus(MeetingStatus.LIVE);
+        waitingRoom.onMeetingStatusChanged(liveEvent());
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS).getUId()).isEqualTo(2);
+        verify(attendanceService).recordStudentAttendanceOnJoin(meeting, Set.of(2L));
+    }
+
+    @Test
+    void admittedStudentCannotGoAwayWhileTheirJoinIsRecorded() throws Exception {
+        CountDownLatch recording = new CountDownLatch(1);
+        CountDownLatch recorded = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            recording.countDown();
+            recorded.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(attendanceService).recordStudentAttendanceOnJoin(any(), anySet());
+        CompletableFuture<AgoraTokenResponseDTO> admission = waitingRoom.park(meeting.getMeetingId(), student(1));
+
+        meeting.setStatus(MeetingStatus.LIVE);
+        waitingRoom.onMeetingStatusChanged(liveEvent());
+        assertThat(recording.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Settled by the admission: the student gets the join that is being recorded
+        assertThat(admission.cancel(false)).isFalse();
+        recorded.countDown();
+        assertThat(admission.get(5, TimeUnit.SECONDS).getUId()).isEqualTo(1);
+    }
+
+    @Test
+    void waitersOfACancelledMeetingAreTurnedAway() {
+        CompletableFuture<AgoraTokenResponseDTO> admission = waitingRoom.park(meeting.getMeetingId(), student(1));
+
+        meeting.setStatus(MeetingStatus.CANCELLED);
+        waitingRoom.onMeetingStatusChanged(new MeetingStatusChangedEvent(
+                meeting.getMeetingId(), "ICT", 22, MeetingStatus.CANCELLED));
+
+        assertThatThrownBy(() -> admission.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(MeetingCancelledException.class);
+        verify(attendanceService, never()).recordStudentAttendanceOnJoin(any(), anySet());
+    }
+
+    private MeetingStatusChangedEvent liveEvent() {
+        return new MeetingStatusChangedEvent(meeting.getMeetingId(), "ICT", 22, MeetingStatus.LIVE);
+    }
+
+    private double waiters() {
+        return meterRegistry.get("meeting.waiting-room.waiters")
+                .tag("meeting", meeting.getMeetingId().toString())
+                .gauge()
+                .value();
+    }
+
+    private static Student student(long id) {
+        Student student = new Student();
+        student.setId(id);
+        student.setFirstName("Student");
+        student.setLastName(String.valueOf(id));
+        return student;
+    }
+}
@@ -0,0 +1,113 @@
+package uwu.connectra.connectra_backend.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import uwu.connectra.connectra_backend.entities.EmailVerificationToken;
+import uwu.connectra.connectra_backend.repositories.EmailVerificationTokenRepository;
+import uwu.connectra.connectra_backend.services.PendingRegistrationStore.PendingRegistration;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PendingRegistrationStoreTests {
+    private static final String EMAIL = "ict22001@std.uwu.ac.lk";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong ids = new AtomicLong();
+    private EmailVerificationTokenRepository tokenRepository;
+    private PendingRegistrationStore store;
+
+    @BeforeEach
+    void setUp() {
+        tokenRepository = mock(EmailVerificationTokenRepository.class);
+        when(tokenRepository.save(any())).thenAnswer(invocation -> {
+            EmailVerificationToken token = invocation.getArgument(0);
+            token.setId(ids.incrementAndGet());
+            return token;
+        });
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        store = new PendingRegistrationStore(tokenRepository, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void putReplacesTheStoredRowAndCachesIt() {
+        PendingRegistration first = store.put(registration("111111"));
+        PendingRegistration second = store.put(registration("222222"));
+
+        assertThat(second.id()).isGreaterThan(first.id());
+        verify(tokenRepository, times(2)).deleteByEmailIn(List.of(EMAIL));
+        assertThat(store.find(EMAIL)).contains(second);
+        verify(tokenRepository, never()).findFirstByEmailAndExpiresAtAfterOrderByIdDesc(any(), any());
+    }
+
+    @Test
+    void missReadsThroughToTheTable() {
+        EmailVerificationToken token = registration("333333").toToken();
+        token.setId(7L);
+        when(tokenRepository.findFirstByEmailAndExpiresAtAfterOrderByIdDesc(eq(EMAIL), any()))
+                .thenReturn(Optional.of(token));
+
+        assertThat(store.find(EMAIL)).get()
+                .satisfies(registration -> {
+                    assertThat(registration.id()).isEqualTo(7L);
+                    assertThat(registration.otp()).isEqualTo("333333");
+                });
+        // Cached after the first read
+        store.find(EMAIL);
+        verify(tokenRepository, times(1)).findFirstByEmailAndExpiresAtAfterOrderByIdDesc(eq(EMAIL), any());
+    }
+
+    @Test
+    void reloadForgetsARegistrationClaimedElsewhere() {
+        store.put(registration("111111"));
+
+        assertThat(store.reload(EMAIL)).isEmpty();
+        assertThat(store.find(EMAIL)).isEmpty();
+    }
+
+    @Test
+    void onlyTheCallerThatDeletesTheRowClaimsIt() {
+        PendingRegistration stored = store.put(registration("111111"));
+        when(tokenRepository.claim(stored.id())).thenReturn(1, 0);
+
+        assertThat(store.claim(stored)).isTrue();
+        assertThat(store.claim(stored)).isFalse();
+        assertThat(cached()).isZero();
+
+        // A rolled back claim brings the row back, and the registration is cached again
+        store.restore(stored);
+        assertThat(store.find(EMAIL)).contains(stored);
+    }
+
+    @Test
+    void expiryOnlyDropsTheRegistrationFromMemory() {
+        PendingRegistration expired = store.put(new PendingRegistration(
+                null, EMAIL, "111111", "Ada", "Lovelace", "hash", LocalDateTime.now().minusMinutes(1)));
+
+        store.expire();
+
+        assertThat(cached()).isZero();
+        verify(tokenRepository, never()).claim(expired.id());
+        verify(tokenRepository, times(1)).deleteByEmailIn(any());
+    }
+
+    private static PendingRegistration registration(String otp) {
+        return new PendingRegistration(null, EMAIL, otp, "Ada", "Lovelace", "hash", LocalDateTime.now().plusMinutes(10));
+    }
+
+    private double cached() {
+        return meterRegistry.get("pending.registrations").gauge().value();
+    }
+}
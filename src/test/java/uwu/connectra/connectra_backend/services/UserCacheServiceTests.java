@@ -0,0 +1,63 @@
+package uwu.connectra.connectra_backend.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uwu.connectra.connectra_backend.entities.AccountStatus;
+import uwu.connectra.connectra_backend.entities.Lecturer;
+import uwu.connectra.connectra_backend.events.ClusterEventsResumedEvent;
+import uwu.connectra.connectra_backend.events.UserChangedEvent;
+import uwu.connectra.connectra_backend.repositories.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UserCacheServiceTests {
+    private static final String EMAIL = "lecturer@uwu.ac.lk";
+
+    private UserRepository userRepository;
+    private UserCacheService userCacheService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userCacheService = new UserCacheService(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void changedUsersAreLoadedAgain() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(lecturer(AccountStatus.ACTIVE)));
+        assertThat(userCacheService.findByEmail(EMAIL).orElseThrow().getAccountStatus())
+                .isEqualTo(AccountStatus.ACTIVE);
+
+        // Deactivated on another node: the cached user holds until the change is relayed here
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(lecturer(AccountStatus.DEACTIVATED)));
+        userCacheService.onUserChanged(new UserChangedEvent(EMAIL));
+
+        assertThat(userCacheService.findByEmail(EMAIL).orElseThrow().getAccountStatus())
+                .isEqualTo(AccountStatus.DEACTIVATED);
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void resumingClusterEventsDropsEveryUser() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(lecturer(AccountStatus.ACTIVE)));
+        userCacheService.findByEmail(EMAIL);
+        userCacheService.findByEmail(EMAIL);
+
+        userCacheService.onClusterEventsResumed(new ClusterEventsResumedEvent());
+        userCacheService.findByEmail(EMAIL);
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    private static Lecturer lecturer(AccountStatus status) {
+        Lecturer lecturer = new Lecturer();
+        lecturer.setEmail(EMAIL);
+        lecturer.setAccountStatus(status);
+        return lecturer;
+    }
+}
@@ -0,0 +1,86 @@
+package uwu.connectra.connectra_backend.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import uwu.connectra.connectra_backend.entities.CustomUserDetails;
+import uwu.connectra.connectra_backend.entities.Role;
+import uwu.connectra.connectra_backend.entities.Student;
+import uwu.connectra.connectra_backend.repositories.UserRepository;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class CurrentUserProviderTests {
+    private static final String EMAIL = "ict22082@std.uwu.ac.lk";
+
+    private UserRepository userRepository;
+    private CurrentUserContext currentUserContext;
+    private CurrentUserProvider currentUserProvider;
+
+    @BeforeEach
+    void setUp() {
+        Student student = new Student();
+        student.setId(42L);
+        student.setEmail(EMAIL);
+        student.setRole(Role.STUDENT);
+        student.setDegree("ICT");
+        student.setBatch(22);
+
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(student));
+
+        currentUserContext = new CurrentUserContext();
+        currentUserProvider = new CurrentUserProvider(userRepository, currentUserContext);
+
+        CustomUserDetails principal = CustomUserDetails.fromTokenClaims(42L, EMAIL, Role.STUDENT, "ICT", 22);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void loadsTheUserOncePerRequest() {
+        currentUserProvider.getCurrentUser();
+        currentUserProvider.getCurrentUserAs(Student.class);
+        currentUserProvider.getCurrentUserAs(Student.class);
+        currentUserProvider.getCurrentUser();
+
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+        assertThat(currentUserContext.getLoadCount()).isEqualTo(1);
+        assertThat(currentUserContext.getHitCount()).isEqualTo(3);
+    }
+
+    @Test
+    void readsIdAndRoleFromThePrincipalWithoutLoading() {
+        assertThat(currentUserProvider.getCurrentUserId()).isEqualTo(42L);
+        assertThat(currentUserProvider.getCurrentUserRole()).isEqualTo(Role.STUDENT);
+
+        verifyNoInteractions(userRepository);
+        assertThat(currentUserContext.getLoadCount()).isZero();
+    }
+
+    @Test
+    void loadsEveryTimeOutsideOfARequest() {
+        RequestContextHolder.resetRequestAttributes();
+
+        currentUserProvider.getCurrentUser();
+        currentUserProvider.getCurrentUser();
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+        assertThat(currentUserContext.getLoadCount()).isZero();
+    }
+}
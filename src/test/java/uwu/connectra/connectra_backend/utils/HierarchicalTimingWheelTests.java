@@ -0,0 +1,68 @@
+package uwu.connectra.connectra_backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTests {
+    private static final long START = 1_000_000L;
+
+    @Test
+    void expiresItemsInTheFirstLevelAtTheirDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 64, 2, START);
+        wheel.schedule("a", START + 5_000);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(START + 4_000, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advanceTo(START + 5_000, expired::add);
+        assertThat(expired).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesItemsFromHigherLevels() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 64, 2, START);
+        // Ten minutes is beyond the 64 slots of the first level
+        wheel.schedule("otp", START + 600_000);
+        wheel.schedule("later", START + 601_000);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(START + 599_000, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advanceTo(START + 600_000, expired::add);
+        assertThat(expired).containsExactly("otp");
+
+        wheel.advanceTo(START + 601_000, expired::add);
+        assertThat(expired).containsExactly("otp", "later");
+    }
+
+    @Test
+    void neverExpiresItemsBeyondTheWheelRangeEarly() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 4, 1, START);
+        wheel.schedule("far", START + 10_000);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(START + 9_000, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advanceTo(START + 10_000, expired::add);
+        assertThat(expired).containsExactly("far");
+    }
+
+    @Test
+    void expiresPastDeadlinesOnTheNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 64, 2, START);
+        wheel.advanceTo(START + 3_000, item -> { });
+        wheel.schedule("late", START);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(START + 4_000, expired::add);
+        assertThat(expired).containsExactly("late");
+    }
+}
@@ -0,0 +1,36 @@
+package uwu.connectra.connectra_backend.utils;
+
+import org.junit.jupiter.api.Test;
+import uwu.connectra.connectra_backend.exceptions.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTests {
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        KeysetCursor cursor = KeysetCursor.after(LocalDateTime.of(2025, 3, 14, 9, 30, 15, 123_456_000), UUID.randomUUID());
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void missingCursorMeansTheFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void tamperedCursorIsABadRequest() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("MjAyNS0wMy0xNA"))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
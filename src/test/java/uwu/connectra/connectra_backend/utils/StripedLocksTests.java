@@ -0,0 +1,27 @@
+package uwu.connectra.connectra_backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedLocksTests {
+    @Test
+    void stripeCountIsRoundedUpToAPowerOfTwo() {
+        assertThat(StripedLocks.powerOfTwoStripes(0)).isEqualTo(1);
+        assertThat(StripedLocks.powerOfTwoStripes(1)).isEqualTo(1);
+        assertThat(StripedLocks.powerOfTwoStripes(2)).isEqualTo(2);
+        assertThat(StripedLocks.powerOfTwoStripes(3)).isEqualTo(4);
+        assertThat(StripedLocks.powerOfTwoStripes(1024)).isEqualTo(1024);
+        assertThat(StripedLocks.powerOfTwoStripes(1025)).isEqualTo(2048);
+    }
+
+    @Test
+    void singleStripeHoldsEveryKey() {
+        StripedLocks locks = new StripedLocks(1);
+
+        assertThat(locks.size()).isEqualTo(1);
+        assertThat(locks.stripeFor(0)).isZero();
+        assertThat(locks.stripeFor(-1)).isZero();
+        assertThat(locks.stripeFor(Integer.MAX_VALUE)).isZero();
+    }
+}
@@ -0,0 +1,95 @@
+package uwu.connectra.connectra_backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StripedTokenBucketLimiterTests {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void allowsABurstThenRefillsEvenly() {
+        // 5 requests per minute: one token every 12 seconds
+        StripedTokenBucketLimiter limiter = limiter(5, Duration.ofMinutes(1), 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("a@std.uwu.ac.lk")).isZero();
+        }
+        assertThat(limiter.tryAcquire("a@std.uwu.ac.lk")).isCloseTo(TimeUnit.SECONDS.toNanos(12), within(1_000L));
+
+        advance(Duration.ofSeconds(6));
+        assertThat(limiter.tryAcquire("a@std.uwu.ac.lk")).isCloseTo(TimeUnit.SECONDS.toNanos(6), within(1_000L));
+
+        advance(Duration.ofSeconds(7));
+        assertThat(limiter.tryAcquire("a@std.uwu.ac.lk")).isZero();
+        assertThat(limiter.tryAcquire("a@std.uwu.ac.lk")).isPositive();
+    }
+
+    @Test
+    void refillStopsAtTheCapacity() {
+        StripedTokenBucketLimiter limiter = limiter(2, Duration.ofMinutes(1), 100);
+        limiter.tryAcquire("10.0.0.1");
+
+        advance(Duration.ofHours(1));
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+    }
+
+    @Test
+    void keysHaveTheirOwnBuckets() {
+        StripedTokenBucketLimiter limiter = limiter(1, Duration.ofMinutes(1), 100);
+
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+        assertThat(limiter.tryAcquire("10.0.0.2")).isZero();
+        assertThat(limiter.size()).isEqualTo(2);
+    }
+
+    @Test
+    void evictsBucketsIdleForTheTimeout() {
+        StripedTokenBucketLimiter limiter = limiter(1, Duration.ofHours(1), 100);
+        limiter.tryAcquire("idle");
+        advance(Duration.ofMinutes(10));
+        limiter.tryAcquire("active");
+
+        advance(Duration.ofMinutes(5));
+        assertThat(limiter.evictIdle()).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(1);
+
+        // An evicted key starts over with a full bucket
+        assertThat(limiter.tryAcquire("idle")).isZero();
+        assertThat(limiter.tryAcquire("active")).isPositive();
+    }
+
+    @Test
+    void fullStripeLetsNewKeysThroughUntracked() {
+        StripedTokenBucketLimiter limiter = limiter(1, Duration.ofMinutes(1), 2);
+        limiter.tryAcquire("first");
+        limiter.tryAcquire("second");
+
+        assertThat(limiter.tryAcquire("third")).isZero();
+        assertThat(limiter.tryAcquire("third")).isZero();
+        assertThat(limiter.size()).isEqualTo(2);
+
+        // Once the old buckets go idle the stripe makes room again
+        advance(Duration.ofMinutes(15));
+        assertThat(limiter.tryAcquire("third")).isZero();
+        assertThat(limiter.tryAcquire("third")).isPositive();
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    // One stripe, so the per-stripe key limit is the limiter's key limit
+    private StripedTokenBucketLimiter limiter(long capacity, Duration refillPeriod, int maxKeys) {
+        return new StripedTokenBucketLimiter(1, capacity, refillPeriod, Duration.ofMinutes(15), maxKeys, clock::get);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}